@@ -5,12 +5,35 @@ package edu.ncsu.csc216.wolf_scheduler.course;
  * An Activity object knows its title, meetingDays, startTime, and endTime.
  * Activity is the super/parent class of Course and Event. Therefore, Activity works with the similar data shared by those two courses.
  * Activity handles general error checking and lets Course and Event deal with the more unique requirements for the other classes.
+ * Activity also checks whether two activities conflict, meaning they meet on the same day at overlapping times.
+ * An activity can be made read-only, after which its setters throw UnsupportedOperationException, so it can be shared by
+ * many threads without locking.
  * 
  * @author hmreese2
  *
  */
-public abstract class Activity {
+public abstract class Activity implements Conflict {
 
+	/** Meeting days mask bit for Monday ("M") */
+	public static final int MONDAY = 1;
+	/** Meeting days mask bit for Tuesday ("T") */
+	public static final int TUESDAY = 1 << 1;
+	/** Meeting days mask bit for Wednesday ("W") */
+	public static final int WEDNESDAY = 1 << 2;
+	/** Meeting days mask bit for Thursday ("H") */
+	public static final int THURSDAY = 1 << 3;
+	/** Meeting days mask bit for Friday ("F") */
+	public static final int FRIDAY = 1 << 4;
+	/** Meeting days mask bit for Saturday ("S") */
+	public static final int SATURDAY = 1 << 5;
+	/** Meeting days mask bit for Sunday ("U") */
+	public static final int SUNDAY = 1 << 6;
+	/** Meeting days mask bit for an Arranged activity ("A"), which has no meeting days */
+	public static final int ARRANGED = 1 << 7;
+	/** Meeting days mask of the weekdays Monday through Friday */
+	public static final int WEEKDAYS = MONDAY | TUESDAY | WEDNESDAY | THURSDAY | FRIDAY;
+	/** Meeting days mask of every day of the week */
+	public static final int ALL_DAYS = WEEKDAYS | SATURDAY | SUNDAY;
 	/** Represents the upper hour bound for a course's meeting time */
 	private static final int UPPER_HOUR = 24;
 	/** Represents the upper minute bound for a course's meeting time */
@@ -19,10 +42,14 @@ public abstract class Activity {
 	private String title;
 	/** Course's meeting days */
 	private String meetingDays;
+	/** Course's meeting days as a mask of day bits, computed when the meeting days are set */
+	private int meetingDaysMask;
 	/** Course's starting time */
 	private int startTime;
 	/** Course's ending time */
 	private int endTime;
+	/** Whether the activity can no longer be changed */
+	private boolean readOnly;
 
 	/**
 	 * Constructs an activity (applicable as either an "event" or "course activity object.
@@ -40,6 +67,32 @@ public abstract class Activity {
 		setMeetingDaysAndTime(meetingDays, startTime, endTime);
 	}
 
+	/**
+	 * Makes the activity read-only, so every setter throws UnsupportedOperationException from now on.  An activity can't
+	 * be made changeable again.
+	 */
+	public void makeReadOnly() {
+		readOnly = true;
+	}
+	
+	/**
+	 * Checks whether the activity is read-only.
+	 * @return true if the activity can no longer be changed
+	 */
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+	
+	/**
+	 * Checks that the activity can be changed.  Called first by every setter.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the activity is read-only
+	 */
+	protected void checkWritable() {
+		if (readOnly) {
+			throw new UnsupportedOperationException("Activity is read-only.");
+		}
+	}
+
 	/**
 	 * Gets title of course.
 	 * @return the title.
@@ -52,8 +105,10 @@ public abstract class Activity {
 	 * Sets title of course.
 	 * @param title the title to set.
 	 * @throws IllegalArgumentException with message "Invalid title." if title is null or empty string.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the activity is read-only.
 	 */
 	public void setTitle(String title) {
+		checkWritable();
 		// check for null or empty string value.
 		if (title == null || title.length() == 0) {
 			throw new IllegalArgumentException("Invalid title.");
@@ -71,6 +126,38 @@ public abstract class Activity {
 		return meetingDays;
 	}
 
+	/**
+	 * Gets meeting days for course as a mask of the day bits (MONDAY through SUNDAY), or ARRANGED if the course is Arranged.
+	 * @return the meetingDaysMask.
+	 */
+	public int getMeetingDaysMask() {
+		return meetingDaysMask;
+	}
+	
+	/**
+	 * Checks whether this activity and another activity meet on at least one of the same days.  Arranged activities don't
+	 * share a day with any activity.
+	 * @param activity the activity to compare meeting days with
+	 * @return true if the activities have a meeting day in common, false otherwise
+	 */
+	public boolean sharesMeetingDay(Activity activity) {
+		return (meetingDaysMask & activity.meetingDaysMask & ALL_DAYS) != 0;
+	}
+
+	/**
+	 * Checks whether this activity conflicts with another activity.  Two activities conflict if they share a meeting day and
+	 * their times overlap, including when one ends in the same minute that the other starts.  Arranged activities never conflict.
+	 * @param possibleConflictingActivity the activity that may conflict with this activity
+	 * @throws ConflictException if the activities conflict
+	 */
+	@Override
+	public void checkConflict(Activity possibleConflictingActivity) throws ConflictException {
+		if (sharesMeetingDay(possibleConflictingActivity) && startTime <= possibleConflictingActivity.endTime 
+				&& possibleConflictingActivity.startTime <= endTime) {
+			throw new ConflictException();
+		}
+	}
+
 	/**
 	 * Gets start time for course.
 	 * @return the startTime.
@@ -94,13 +181,33 @@ public abstract class Activity {
 	 * @param startTime the time that a activity starts.
 	 * @param endTime the time that a activity ends.
 	 * @throws IllegalArgumentException with message "Invalid meeting days and times." if days are null, empty, or invalid chars, or if times are invalid 
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the activity is read-only.
 	 */
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		checkWritable();
 		// check null or empty meeting days
 		if (meetingDays == null || meetingDays.length() == 0) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
-			
+		
+		// compute the day mask, which also checks that each day is a valid day listed once
+		int mask = "A".equals(meetingDays) ? ARRANGED : toMeetingDaysMask(meetingDays, ALL_DAYS);
+		setMeetingDaysMaskAndTime(meetingDays, mask, startTime, endTime);
+	}
+	
+	/**
+	 * Error checks activity meeting times and sets the meeting days, the mask already computed from them, and the times.
+	 * Course and Event check their own meeting days while computing the mask and call this method, so each mask is
+	 * computed only once.
+	 * @param meetingDays the days that a activity meets, already checked.
+	 * @param meetingDaysMask the mask of the meeting days, as returned by toMeetingDaysMask(), or ARRANGED.
+	 * @param startTime the time that a activity starts.
+	 * @param endTime the time that a activity ends.
+	 * @throws IllegalArgumentException with message "Invalid meeting days and times." if times are invalid 
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the activity is read-only.
+	 */
+	protected void setMeetingDaysMaskAndTime(String meetingDays, int meetingDaysMask, int startTime, int endTime) {
+		checkWritable();
 		// check that times are valid (startTime should always be LESS that endTime)
 		if (startTime > endTime) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
@@ -124,9 +231,56 @@ public abstract class Activity {
 		
 		// if all values are valid, set fields.
 		this.meetingDays = meetingDays;
+		this.meetingDaysMask = meetingDaysMask;
 		this.startTime = startTime;
 		this.endTime = endTime;
-		//}
+	}
+	
+	/**
+	 * Converts a String of meeting days into a mask of day bits, checking that every day is one of the allowed days and that
+	 * no day is listed more than once.
+	 * @param meetingDays the days that an activity meets, such as "MWF".
+	 * @param allowedDays mask of the days that the activity is allowed to meet.
+	 * @return mask of the day bits for the meeting days.
+	 * @throws IllegalArgumentException with message "Invalid meeting days and times." if a day is not allowed or is repeated.
+	 */
+	protected static int toMeetingDaysMask(String meetingDays, int allowedDays) {
+		int mask = 0;
+		for (int i = 0; i < meetingDays.length(); i++) {
+			int day = dayBit(meetingDays.charAt(i));
+			// a day is invalid if it's not allowed or has already been listed
+			if ((day & allowedDays) == 0 || (day & mask) != 0) {
+				throw new IllegalArgumentException("Invalid meeting days and times.");
+			}
+			mask |= day;
+		}
+		return mask;
+	}
+	
+	/**
+	 * Private helper method that gets the day bit for a meeting day letter.
+	 * @param day the meeting day letter.
+	 * @return the day bit, or 0 if the letter isn't a day of the week.
+	 */
+	private static int dayBit(char day) {
+		switch (day) {
+			case 'M':
+				return MONDAY;
+			case 'T':
+				return TUESDAY;
+			case 'W':
+				return WEDNESDAY;
+			case 'H':
+				return THURSDAY;
+			case 'F':
+				return FRIDAY;
+			case 'S':
+				return SATURDAY;
+			case 'U':
+				return SUNDAY;
+			default:
+				return 0;
+		}
 	}
 
 	/**
@@ -255,5 +409,13 @@ public abstract class Activity {
 	 * @return true if the activity is a duplicate of another activity object, otherwise false.
 	 */
 	public abstract boolean isDuplicate(Activity activity);
+	
+	/**
+	 * Appends the activity's record, the comma separated format returned by toString(), to a buffer without building
+	 * intermediate Strings.  This is the one place each record format is defined, and it is also the format the activity is
+	 * saved in by ActivityRecordIO, the schedule journal, and the record store.
+	 * @param record buffer to append the record to
+	 */
+	public abstract void appendRecord(StringBuilder record);
 
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+/**
+ * Interface for objects that can check whether they conflict with an Activity in a schedule.
+ * 
+ * @author hmreese2
+ *
+ */
+public interface Conflict {
+
+	/**
+	 * Checks whether the given activity conflicts with this object.
+	 * @param possibleConflictingActivity the activity that may conflict
+	 * @throws ConflictException if the activity conflicts with this object
+	 */
+	void checkConflict(Activity possibleConflictingActivity) throws ConflictException;
+
+}
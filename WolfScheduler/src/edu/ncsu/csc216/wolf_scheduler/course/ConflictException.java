@@ -0,0 +1,32 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+/**
+ * Checked exception thrown when two activities meet on the same day at overlapping times.
+ * 
+ * @author hmreese2
+ *
+ */
+public class ConflictException extends Exception {
+
+	/** ID used for serialization. */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a ConflictException with the given message.
+	 * @param message message describing the conflict
+	 */
+	public ConflictException(String message) {
+		super(message);
+	}
+	
+	/**
+	 * Constructs a ConflictException with the default message "Schedule conflict."
+	 */
+	public ConflictException() {
+		this("Schedule conflict.");
+	}
+
+}
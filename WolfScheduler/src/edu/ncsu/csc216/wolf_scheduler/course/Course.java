@@ -1,5 +1,7 @@
 package edu.ncsu.csc216.wolf_scheduler.course;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Constructs a course object that will be used store a course's individual object information.
  * 
@@ -8,6 +10,12 @@ package edu.ncsu.csc216.wolf_scheduler.course;
  * 
  * Inherits certain information, such as meetingDays, startTime, and endTime, from Activity. Information is handled in Activity for value setting and general error-checking.
  * 
+ * A Course also has a seat capacity, which is unlimited unless set, and a count of the seats taken.  Seats are taken and
+ * given back with compare-and-set on the count, so the schedules of many students can share one Course without locking and
+ * without the section ever going over capacity.  Capacity and seats taken are not part of a Course's equality.  Like the
+ * other fields, the capacity and which seats are counted can only be set before the Course is made read-only, such as by
+ * being put into a catalog; seats are still taken and given back after that.
+ * 
  * @author hmreese2
  *
  */
@@ -29,6 +37,8 @@ public class Course extends Activity {
 	private static final int MAX_CREDITS = 5;
 	/** Represents minimum credit hours a course can have */
 	private static final int MIN_CREDITS = 1;
+	/** Capacity of a course that has no seat limit */
+	public static final int UNLIMITED_CAPACITY = Integer.MAX_VALUE;
 	/** Course's name. */
 	private String name;
 	/** Course's section. */
@@ -37,6 +47,10 @@ public class Course extends Activity {
 	private int credits;
 	/** Course's instructor */
 	private String instructorId;
+	/** Course's seat capacity */
+	private volatile int capacity = UNLIMITED_CAPACITY;
+	/** Number of the course's seats that are taken, shared with the course's earlier versions by carrySeatsFrom() */
+	private volatile AtomicInteger enrolled = new AtomicInteger();
 	
 	/**
 	 * Constructs course object using values of all fields.
@@ -146,8 +160,10 @@ public class Course extends Activity {
 	 * Sets section of course.
 	 * @param section the section to set.
 	 * @throws IllegalArgumentException with message "Invalid section." if section is null or not 3 characters.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the course is read-only.
 	 */
 	public void setSection(String section) {
+		checkWritable();
 		// check for null or invalid length
 		if (section == null || section.length() != SECTION_LENGTH) {
 			throw new IllegalArgumentException("Invalid section.");
@@ -176,8 +192,10 @@ public class Course extends Activity {
 	 * Sets credits for course.
 	 * @param credits the credits to set.
 	 * @throws IllegalArgumentException with message "Invalid credits." if credits value is out of bounds.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the course is read-only.
 	 */
 	public void setCredits(int credits) {
+		checkWritable();
 		// check that value is within bounds.
 		if (credits < MIN_CREDITS || credits > MAX_CREDITS) {
 			throw new IllegalArgumentException("Invalid credits.");
@@ -199,8 +217,10 @@ public class Course extends Activity {
 	 * Sets instructor id for course.
 	 * @param instructorId the instructorId to set.
 	 * @throws IllegalArgumentException with message "Invalid instructor id." if parameter is null or empty string.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the course is read-only.
 	 */
 	public void setInstructorId(String instructorId) {
+		checkWritable();
 		// check null or empty string.
 		if (instructorId == null || instructorId.length() == 0) {
 			throw new IllegalArgumentException("Invalid instructor id.");
@@ -210,6 +230,87 @@ public class Course extends Activity {
 		this.instructorId = instructorId;
 	}
 	
+	/**
+	 * Gets seat capacity for course.
+	 * @return the capacity, or UNLIMITED_CAPACITY if the course has no seat limit.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+	
+	/**
+	 * Sets seat capacity for course.  Seats that are already taken are kept if the capacity is lowered below them, but no
+	 * more seats can be taken until enough are given back.
+	 * @param capacity the capacity to set, or UNLIMITED_CAPACITY for no seat limit.
+	 * @throws IllegalArgumentException with message "Invalid capacity." if capacity is negative.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the course is read-only.
+	 */
+	public void setCapacity(int capacity) {
+		checkWritable();
+		if (capacity < 0) {
+			throw new IllegalArgumentException("Invalid capacity.");
+		}
+		this.capacity = capacity;
+	}
+	
+	/**
+	 * Gets the number of seats taken in course.
+	 * @return the number of seats taken.
+	 */
+	public int getEnrolled() {
+		return enrolled.get();
+	}
+	
+	/**
+	 * Takes a seat in course if one is open.
+	 * @return true if a seat was taken, false if the course is full.
+	 */
+	public boolean reserveSeat() {
+		while (true) {
+			int taken = enrolled.get();
+			if (taken >= capacity) {
+				return false;
+			}
+			if (enrolled.compareAndSet(taken, taken + 1)) {
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Gives back a seat in course.  Nothing happens if no seats are taken.
+	 */
+	public void releaseSeat() {
+		while (true) {
+			int taken = enrolled.get();
+			if (taken == 0 || enrolled.compareAndSet(taken, taken - 1)) {
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Makes course count its seats together with an earlier version of the same section, so students holding a seat in
+	 * the earlier version keep it in this one.  From then on a seat taken or given back through either version is
+	 * counted once.  Called when a new version of a section replaces the old one in a catalog, before the new version is
+	 * made read-only.
+	 * @param previous the earlier version of the section.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the course is read-only.
+	 */
+	public void carrySeatsFrom(Course previous) {
+		checkWritable();
+		this.enrolled = previous.enrolled;
+	}
+	
+	/**
+	 * Checks whether course counts its seats together with another course, because one carried its seats from the other.
+	 * @param other the other course.
+	 * @return true if the two courses count the same seats.
+	 */
+	public boolean sharesSeatsWith(Course other) {
+		return other != null && enrolled == other.enrolled;
+	}
+	
 	/**
 	 * Error checks course meeting days and times and sets the appropriate value for the respective field.
 	 * If the meeting days for Course are Arranged ("A") then start and end times are set to 0.
@@ -219,9 +320,11 @@ public class Course extends Activity {
 	 * @param endTime the time that a course ends.
 	 * @throws IllegalArgumentException with message "Invalid meeting days and times." if days are null, empty, or invalid chars; 
 	 * If an arranged class has non-zero start/end times; If start/end time are incorrect times; If end time is less than start time.
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the course is read-only.
 	 */
 	@Override
 	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		checkWritable();
 		// check null or empty meeting days
 		if (meetingDays == null || meetingDays.length() == 0) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
@@ -233,42 +336,11 @@ public class Course extends Activity {
 				throw new IllegalArgumentException("Invalid meeting days and times.");
 			}
 			
-			// call super to set fields
-			super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+			// set fields
+			setMeetingDaysMaskAndTime(meetingDays, ARRANGED, startTime, endTime);
 		} else { // course is NOT Arranged
-			// variables that keep count of each week day Letter in meetingDays
-			int m = 0;
-			int t = 0;
-			int w = 0;
-			int h = 0;
-			int f = 0;
-			
-			// iterate through meetingDays 
-			for (int i = 0; i < meetingDays.length(); i++) {
-				char day = meetingDays.charAt(i);
-				
-				// count up the amount of times a day was listed
-				if (day == 'M') {
-					m++;
-				} else if (day == 'T') {
-					t++;
-				} else if (day == 'W') {
-					w++;
-				} else if (day == 'H') {
-					h++;
-				} else if (day == 'F') {
-					f++;
-				} else { // if any other letters are listed, throw IAE
-					throw new IllegalArgumentException("Invalid meeting days and times.");
-				}
-			}
-			
-			// check that the counts are valid (no day should be listed more than once)
-			if (m > 1 || t > 1 || w > 1 || h > 1 || f > 1) {
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-			
-			super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+			// each day must be a weekday listed no more than once
+			setMeetingDaysMaskAndTime(meetingDays, toMeetingDaysMask(meetingDays, WEEKDAYS), startTime, endTime);
 		}
 	}
 	
@@ -327,10 +399,23 @@ public class Course extends Activity {
 	 */
 	@Override
 	public String toString() {
-	    if ("A".equals(getMeetingDays())) {
-	        return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays();
-	    }
-	    return name + "," + getTitle() + "," + section + "," + credits + "," + instructorId + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime(); 
+		StringBuilder record = new StringBuilder();
+		appendRecord(record);
+		return record.toString();
+	}
+	
+	/**
+	 * Appends the Course's record to a buffer: name, title, section, credits, instructor id, and meeting days, followed by
+	 * the start and end times unless the Course is Arranged.
+	 * @param record buffer to append the record to
+	 */
+	@Override
+	public void appendRecord(StringBuilder record) {
+		record.append(name).append(',').append(getTitle()).append(',').append(section).append(',').append(credits).append(',')
+				.append(instructorId).append(',').append(getMeetingDays());
+		if (!"A".equals(getMeetingDays())) {
+			record.append(',').append(getStartTime()).append(',').append(getEndTime());
+		}
 	}
 
 	/**
@@ -46,8 +46,10 @@ public class Event extends Activity {
 	 * Error checks and sets the details of an event
 	 * @param eventDetails the eventDetails to set
 	 * @throws IllegalArgumentException with message "Invalid event details." if eventDetails is null
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the event is read-only.
 	 */
 	public void setEventDetails(String eventDetails) {
+		checkWritable();
 		if (eventDetails == null) {
 			throw new IllegalArgumentException("Invalid event details.");
 		}
@@ -62,53 +64,18 @@ public class Event extends Activity {
 	 * @param startTime the time that an event starts.
 	 * @param endTime the time that an event ends.
 	 * @throws IllegalArgumentException with message "Invalid meeting days and times." if days are null, empty, or invalid chars; 
+	 * @throws UnsupportedOperationException with message "Activity is read-only." if the event is read-only.
 	 */
 	@Override
-	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) { 
+	public void setMeetingDaysAndTime(String meetingDays, int startTime, int endTime) {
+		checkWritable();
 		// check null or empty meeting days
 		if (meetingDays == null || meetingDays.length() == 0) {
 			throw new IllegalArgumentException("Invalid meeting days and times.");
 		}
 		
-		// variables that keep count of each week day Letter in meetingDays
-		int m = 0;
-		int t = 0;
-		int w = 0;
-		int h = 0;
-		int f = 0;
-		int s = 0;
-		int u = 0;
-		
-		// iterate through meetingDays 
-		for (int i = 0; i < meetingDays.length(); i++) {
-			char day = meetingDays.charAt(i);
-			
-			// count up the amount of times a day was listed
-			if (day == 'M') {
-				m++;
-			} else if (day == 'T') {
-				t++;
-			} else if (day == 'W') {
-				w++;
-			} else if (day == 'H') {
-				h++;
-			} else if (day == 'F') {
-				f++;
-			} else if (day == 'S') {
-				s++;
-			} else if (day == 'U') {
-				u++;
-		    } else { // if any other letters are listed, throw IAE
-				throw new IllegalArgumentException("Invalid meeting days and times.");
-			}
-		}
-		
-		// check that the counts are valid (no day should be listed more than once)
-		if (m > 1 || t > 1 || w > 1 || h > 1 || f > 1 || s > 1 || u > 1) {
-			throw new IllegalArgumentException("Invalid meeting days and times.");
-		}
-		
-		super.setMeetingDaysAndTime(meetingDays, startTime, endTime);
+		// each day must be a day of the week listed no more than once
+		setMeetingDaysMaskAndTime(meetingDays, toMeetingDaysMask(meetingDays, ALL_DAYS), startTime, endTime);
 		
 	}
 
@@ -153,7 +120,19 @@ public class Event extends Activity {
 	 */
 	@Override
 	public String toString() {
-		return getTitle() + "," + getMeetingDays() + "," + getStartTime() + "," + getEndTime() + "," + eventDetails;
+		StringBuilder record = new StringBuilder();
+		appendRecord(record);
+		return record.toString();
+	}
+	
+	/**
+	 * Appends the Event's record to a buffer: title, meeting days, start time, end time, and details.
+	 * @param record buffer to append the record to
+	 */
+	@Override
+	public void appendRecord(StringBuilder record) {
+		record.append(getTitle()).append(',').append(getMeetingDays()).append(',').append(getStartTime()).append(',')
+				.append(getEndTime()).append(',').append(eventDetails);
 	}
 
 	/**
@@ -3,44 +3,235 @@
  */
 package edu.ncsu.csc216.wolf_scheduler.io;
 
-import java.io.File;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.List;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
 
 /**
- * Writes and saves activities to a file using a given filename
+ * Writes and saves activities to a file using a given filename, and reads previously saved activities back from a file
  * 
  * @author hmreese2
  *
  */
 public class ActivityRecordIO {
+	
+	/** Prefix of the header line that starts each schedule in a batch file */
+	public static final String SCHEDULE_HEADER = "#SCHEDULE";
+	/** Size of the buffer used when writing a batch of schedules */
+	private static final int BATCH_BUFFER_SIZE = 1 << 16;
+	/** Number of commas before the details in an Event record */
+	private static final int EVENT_DETAILS_FIELD = 4;
 
 	/**
-	 * Writes the given list of Courses to 
-	 * @param fileName file to write schedule of Courses to
-	 * @param activities list of Courses to write
+	 * Writes the given list of Activities to a file, one record per line in the same format as the Activity's toString().
+	 * The file is written as UTF-8 through a buffer and is closed even if a write fails.
+	 * @param fileName file to write schedule of Activities to
+	 * @param activities list of Activities to write
 	 * @throws IOException if cannot write to file
 	 */
 	public static void writeActivityRecords(String fileName, ArrayList<Activity> activities) throws IOException {
-//		PrintStream fileWriter = new PrintStream(new File(fileName));
-//	
-//		for (int i = 0; i < courses.size(); i++) {
-//		    fileWriter.println(courses.get(i).toString());
-//		}
-//	
-//		fileWriter.close();
+		try (BufferedWriter fileWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8))) {
+			writeRecords(fileWriter, activities, new StringBuilder());
+		}
+	}
+	
+	/**
+	 * Reads a file written by writeActivityRecords() and generates a list of the Activities in it, in order.  Each line is
+	 * read as a Course record if it is one, otherwise as an Event record.  Lines that are neither are ignored.
+	 * @param fileName file to read Activity records from
+	 * @return a list of valid Activities
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Activity> readActivityRecords(String fileName) throws FileNotFoundException {
+		BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8));
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		try (fileReader) {
+			String line = fileReader.readLine();
+			while (line != null) {
+				Activity a = readActivity(line);
+				if (a != null) {
+					activities.add(a);
+				}
+				line = fileReader.readLine();
+			}
+		} catch (IOException e) {
+			// stop reading, keeping the activities read so far
+		}
+		return activities;
+	}
+	
+	/**
+	 * Helper method that processes a line in the format of Course.toString() or Event.toString() into an Activity.
+	 * An Event record can never be read as a Course record, because an Event's end time would have to be between 1 and 5
+	 * (the valid credits) while its start time was a three digit section number.
+	 * @param line the line to process
+	 * @return the Course or Event in the line, or null if the line is neither
+	 */
+	static Activity readActivity(String line) {
+		Course course = CourseRecordIO.readCourse(line);
+		if (course != null) {
+			return course;
+		}
+		
+		// find the first four commas; everything after the fourth is the event details, which may contain commas
+		int[] comma = new int[EVENT_DETAILS_FIELD];
+		int from = 0;
+		for (int i = 0; i < EVENT_DETAILS_FIELD; i++) {
+			comma[i] = line.indexOf(',', from);
+			if (comma[i] < 0) {
+				return null;
+			}
+			from = comma[i] + 1;
+		}
+		
+		try {
+			int startTime = Integer.parseInt(line.substring(comma[1] + 1, comma[2]));
+			int endTime = Integer.parseInt(line.substring(comma[2] + 1, comma[3]));
+			return new Event(line.substring(0, comma[0]), line.substring(comma[0] + 1, comma[1]), startTime, endTime, 
+					line.substring(comma[3] + 1));
+		} catch (IllegalArgumentException e) {
+			// NumberFormatException is an IllegalArgumentException, so this covers bad times and invalid events
+			return null;
+		}
+	}
+	
+	/**
+	 * Writes the given list of Activities to a file so that the file is either left as it was or completely replaced.
+	 * The records are written to a temporary file in the same directory, forced to the storage device, and then moved
+	 * over the destination file in one step, so a reader never sees a partially written file.  The directory is forced
+	 * after the move, and the file keeps the permissions of the file it replaces.
+	 * @param fileName file to write schedule of Activities to
+	 * @param activities list of Activities to write
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeActivityRecordsAtomically(String fileName, ArrayList<Activity> activities) throws IOException {
+		Path target = Paths.get(fileName).toAbsolutePath();
+		Path temp = AtomicFiles.createTempFile(target);
+		try {
+			try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+				Writer fileWriter = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+				writeRecords(fileWriter, activities, new StringBuilder());
+				fileWriter.flush();
+				channel.force(true);
+			}
+			AtomicFiles.replace(temp, target);
+		} finally {
+			// only left behind if the write or move failed
+			Files.deleteIfExists(temp);
+		}
+	}
+	
+	/**
+	 * Writes many schedules to a single file, opening the file once and writing every schedule through the same buffer.
+	 * Each schedule starts with a header line "#SCHEDULE,[number of activities],[title]" followed by one line per Activity
+	 * in the same format as writeActivityRecords(), so a reader can find each schedule's records by counting lines.
+	 * @param fileName file to write the schedules to
+	 * @param titles titles of the schedules
+	 * @param schedules lists of Activities in each schedule, in the same order as the titles
+	 * @throws IllegalArgumentException if the number of titles and schedules are not the same
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeActivityRecordBatch(String fileName, ArrayList<String> titles, ArrayList<ArrayList<Activity>> schedules) throws IOException {
+		if (titles.size() != schedules.size()) {
+			throw new IllegalArgumentException("Each schedule must have a title.");
+		}
 		
-		PrintStream fileWriter = new PrintStream(new File(fileName));
-    	
-    	for (Activity a : activities) {
-    		fileWriter.println(a.toString());
-    	}
-    	
-    	fileWriter.close();
-	    
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			Writer fileWriter = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8), BATCH_BUFFER_SIZE);
+			StringBuilder record = new StringBuilder();
+			for (int i = 0; i < schedules.size(); i++) {
+				record.setLength(0);
+				record.append(SCHEDULE_HEADER).append(',').append(schedules.get(i).size()).append(',').append(titles.get(i))
+						.append(System.lineSeparator());
+				fileWriter.append(record);
+				writeRecords(fileWriter, schedules.get(i), record);
+			}
+			fileWriter.flush();
+		}
+	}
+	
+	/**
+	 * Helper method that formats a titled schedule as text, in the same format as one schedule written by 
+	 * writeActivityRecordBatch(): a header line "#SCHEDULE,[number of activities],[title]" followed by one line per Activity.
+	 * @param title title of the schedule
+	 * @param activities list of Activities in the schedule
+	 * @return the schedule as text
+	 */
+	static String formatSchedule(String title, List<Activity> activities) {
+		StringBuilder record = new StringBuilder();
+		record.append(SCHEDULE_HEADER).append(',').append(activities.size()).append(',').append(title).append('\n');
+		for (Activity a : activities) {
+			appendRecord(record, a);
+			record.append('\n');
+		}
+		return record.toString();
+	}
+	
+	/**
+	 * Helper method that reads a schedule formatted by formatSchedule().  Records that are not valid Activities are skipped.
+	 * @param text the schedule as text
+	 * @param activities list that the Activities in the schedule are added to, in order
+	 * @return title of the schedule, or null if the text doesn't start with a schedule header
+	 */
+	static String parseSchedule(String text, List<Activity> activities) {
+		String[] lines = text.split("\r?\n");
+		String[] header = lines[0].split(",", 3);
+		if (header.length != 3 || !SCHEDULE_HEADER.equals(header[0])) {
+			return null;
+		}
+		for (int i = 1; i < lines.length; i++) {
+			Activity a = readActivity(lines[i]);
+			if (a != null) {
+				activities.add(a);
+			}
+		}
+		return header[2];
+	}
+	
+	/**
+	 * Private helper method that writes each Activity as a line, reusing the given buffer to build each record.
+	 * @param writer writer to write the records to
+	 * @param activities list of Activities to write
+	 * @param record buffer that each record is built in
+	 * @throws IOException if cannot write to the writer
+	 */
+	private static void writeRecords(Writer writer, ArrayList<Activity> activities, StringBuilder record) throws IOException {
+		for (Activity a : activities) {
+			record.setLength(0);
+			appendRecord(record, a);
+			record.append(System.lineSeparator());
+			writer.append(record);
+		}
+	}
+	
+	/**
+	 * Helper method that appends an Activity's record to the buffer with Activity.appendRecord(), the same format as the
+	 * Activity's toString().
+	 * @param record buffer to append the record to
+	 * @param a the Activity to append
+	 */
+	static void appendRecord(StringBuilder record, Activity a) {
+		a.appendRecord(record);
 	}
 
 }
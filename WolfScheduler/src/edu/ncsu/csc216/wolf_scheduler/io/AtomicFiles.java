@@ -0,0 +1,100 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Helper methods for replacing a file atomically: the new contents are written to a temporary file in the same directory,
+ * forced to the storage device, and moved over the file in one step, and then the directory is forced so the move itself
+ * survives a crash.  Used by ActivityRecordIO, ScheduleJournal, TextFileRepository, and RecordStore.
+ * 
+ * @author hmreese2
+ *
+ */
+final class AtomicFiles {
+	
+	/**
+	 * AtomicFiles only has static methods.
+	 */
+	private AtomicFiles() {
+		// not constructed
+	}
+	
+	/**
+	 * Creates an empty temporary file next to a target file.  The temporary file gets the permissions a new file normally
+	 * gets, or the target's permissions if the target exists, so moving it over the target doesn't change who can read it.
+	 * @param target the file that will be replaced
+	 * @return the temporary file
+	 * @throws IOException if the file can't be created
+	 */
+	static Path createTempFile(Path target) throws IOException {
+		Path absolute = target.toAbsolutePath();
+		while (true) {
+			Path temp = absolute.resolveSibling(absolute.getFileName() + "." + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+			try {
+				Files.createFile(temp);
+			} catch (FileAlreadyExistsException e) {
+				continue;
+			}
+			try {
+				if (Files.exists(absolute) && Files.getFileAttributeView(temp, PosixFileAttributeView.class) != null) {
+					Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(absolute));
+				}
+			} catch (IOException e) {
+				Files.deleteIfExists(temp);
+				throw e;
+			}
+			return temp;
+		}
+	}
+	
+	/**
+	 * Moves a temporary file that has already been forced to the storage device over a target file in one step, falling
+	 * back to a plain replace where the file system can't move atomically, and then forces the directory so the move is
+	 * also on the storage device.
+	 * @param temp the temporary file
+	 * @param target the file to replace
+	 * @throws IOException if the file can't be moved or the directory can't be forced
+	 */
+	static void replace(Path temp, Path target) throws IOException {
+		try {
+			Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		
+		FileChannel directory;
+		try {
+			directory = FileChannel.open(target.toAbsolutePath().getParent(), StandardOpenOption.READ);
+		} catch (IOException e) {
+			// some platforms, such as Windows, can't open a directory; their moves are already durable
+			return;
+		}
+		try (directory) {
+			directory.force(true);
+		}
+	}
+	
+	/**
+	 * Forces a file's contents to the storage device.
+	 * @param file the file
+	 * @throws IOException if the file can't be forced
+	 */
+	static void force(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+/**
+ * Keeps count of what happened to each line while CourseRecordIO loaded a course catalog file.
+ * A line is either accepted as a new Course, rejected because the Course could not be constructed from it,
+ * or rejected because a Course with the same name and section was already accepted.
+ * 
+ * @author hmreese2
+ *
+ */
+public class CatalogLoadStatistics {
+	
+	/** Number of lines read from the file */
+	private int linesRead;
+	/** Number of lines that were accepted as Courses */
+	private int accepted;
+	/** Number of lines that were rejected because they were invalid */
+	private int rejectedInvalid;
+	/** Number of lines that were rejected because they duplicated an accepted Course */
+	private int rejectedDuplicate;
+
+	/**
+	 * Gets the number of lines read from the file.
+	 * @return the linesRead
+	 */
+	public int getLinesRead() {
+		return linesRead;
+	}
+
+	/**
+	 * Gets the number of lines that were accepted as Courses.
+	 * @return the accepted
+	 */
+	public int getAccepted() {
+		return accepted;
+	}
+
+	/**
+	 * Gets the number of lines that were rejected because they were invalid.
+	 * @return the rejectedInvalid
+	 */
+	public int getRejectedInvalid() {
+		return rejectedInvalid;
+	}
+
+	/**
+	 * Gets the number of lines that were rejected because they duplicated an accepted Course.
+	 * @return the rejectedDuplicate
+	 */
+	public int getRejectedDuplicate() {
+		return rejectedDuplicate;
+	}
+	
+	/**
+	 * Records a line that was accepted as a Course.
+	 */
+	void recordAccepted() {
+		linesRead++;
+		accepted++;
+	}
+	
+	/**
+	 * Records a line that was rejected because it was invalid.
+	 */
+	void recordInvalid() {
+		linesRead++;
+		rejectedInvalid++;
+	}
+	
+	/**
+	 * Records a line that was rejected because it duplicated an accepted Course.
+	 */
+	void recordDuplicate() {
+		linesRead++;
+		rejectedDuplicate++;
+	}
+
+	/**
+	 * Returns a summary of the load statistics.
+	 * @return String representation of the load statistics
+	 */
+	@Override
+	public String toString() {
+		return "Lines read: " + linesRead + ", accepted: " + accepted + ", invalid: " + rejectedInvalid 
+				+ ", duplicate: " + rejectedDuplicate;
+	}
+
+}
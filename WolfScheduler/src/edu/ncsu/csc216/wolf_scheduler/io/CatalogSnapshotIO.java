@@ -0,0 +1,156 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Writes a course catalog to a compact binary snapshot file and reads it back.  A snapshot is written once from a catalog
+ * that has already been read and validated by CourseRecordIO, and reading it avoids splitting and parsing text lines.
+ * 
+ * A snapshot contains a header (magic number and format version), a table of every distinct String in the catalog, and a
+ * fixed width record for each Course holding the table index of its name, title, section, instructor id, and meeting days,
+ * followed by its credits, start time, and end time.  Because Strings such as titles, instructor ids, and meeting days are
+ * shared by many sections, each is stored and allocated only once.
+ * 
+ * @author hmreese2
+ *
+ */
+public class CatalogSnapshotIO {
+	
+	/** Magic number at the start of every snapshot; its first byte can't start a valid UTF-8 course record */
+	private static final int MAGIC = 0xCA7A106E;
+	/** Version of the snapshot format written by this class */
+	private static final short VERSION = 1;
+	/** Size of the buffer used when writing a snapshot */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Writes the given catalog to a snapshot file.
+	 * @param fileName file to write the snapshot to
+	 * @param catalog list of Courses to write
+	 * @throws IOException if cannot write to file
+	 */
+	public static void writeCatalogSnapshot(String fileName, ArrayList<Course> catalog) throws IOException {
+		// build the string table, giving each distinct String an index in the order it is first seen
+		HashMap<String, Integer> index = new HashMap<String, Integer>();
+		ArrayList<String> strings = new ArrayList<String>();
+		int[] records = new int[catalog.size() * 5];
+		for (int i = 0; i < catalog.size(); i++) {
+			Course c = catalog.get(i);
+			records[i * 5] = stringIndex(c.getName(), index, strings);
+			records[i * 5 + 1] = stringIndex(c.getTitle(), index, strings);
+			records[i * 5 + 2] = stringIndex(c.getSection(), index, strings);
+			records[i * 5 + 3] = stringIndex(c.getInstructorId(), index, strings);
+			records[i * 5 + 4] = stringIndex(c.getMeetingDays(), index, strings);
+		}
+		
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName), BUFFER_SIZE))) {
+			out.writeInt(MAGIC);
+			out.writeShort(VERSION);
+			
+			out.writeInt(strings.size());
+			for (String s : strings) {
+				out.writeUTF(s);
+			}
+			
+			out.writeInt(catalog.size());
+			for (int i = 0; i < catalog.size(); i++) {
+				Course c = catalog.get(i);
+				for (int j = 0; j < 5; j++) {
+					out.writeInt(records[i * 5 + j]);
+				}
+				out.writeByte(c.getCredits());
+				out.writeShort(c.getStartTime());
+				out.writeShort(c.getEndTime());
+			}
+		}
+	}
+	
+	/**
+	 * Reads a catalog from a snapshot file written by writeCatalogSnapshot().  The whole file is read at once, and every
+	 * Course is constructed from the shared Strings in the string table.  Courses still go through their constructor's
+	 * checks so that a snapshot can never put an invalid Course in the catalog.
+	 * @param fileName file to read the snapshot from
+	 * @return the list of Courses in the snapshot, in the order they were written
+	 * @throws IOException if the file cannot be read, is not a snapshot, was written by an unsupported version, or is corrupt
+	 */
+	public static ArrayList<Course> readCatalogSnapshot(String fileName) throws IOException {
+		byte[] bytes = Files.readAllBytes(Paths.get(fileName));
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException("Not a catalog snapshot.");
+			}
+			if (in.readShort() != VERSION) {
+				throw new IOException("Unsupported catalog snapshot version.");
+			}
+			
+			String[] strings = new String[in.readInt()];
+			for (int i = 0; i < strings.length; i++) {
+				strings[i] = in.readUTF();
+			}
+			
+			int count = in.readInt();
+			ArrayList<Course> catalog = new ArrayList<Course>(count);
+			for (int i = 0; i < count; i++) {
+				String name = strings[in.readInt()];
+				String title = strings[in.readInt()];
+				String section = strings[in.readInt()];
+				String instructorId = strings[in.readInt()];
+				String meetingDays = strings[in.readInt()];
+				int credits = in.readByte();
+				int startTime = in.readShort();
+				int endTime = in.readShort();
+				catalog.add(new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime));
+			}
+			return catalog;
+		} catch (IndexOutOfBoundsException | NegativeArraySizeException | IllegalArgumentException e) {
+			throw new IOException("Corrupt catalog snapshot.", e);
+		}
+	}
+	
+	/**
+	 * Checks whether a file starts with the snapshot magic number.
+	 * @param fileName file to check
+	 * @return true if the file exists and starts like a snapshot, false otherwise
+	 */
+	public static boolean isCatalogSnapshot(String fileName) {
+		try (InputStream in = Files.newInputStream(Paths.get(fileName))) {
+			byte[] header = in.readNBytes(Integer.BYTES);
+			return header.length == Integer.BYTES && new DataInputStream(new ByteArrayInputStream(header)).readInt() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Private helper method that finds the index of a String in the string table, adding it if it is new.
+	 * @param s the String to find
+	 * @param index map from each String in the table to its index
+	 * @param strings the string table
+	 * @return index of the String in the table
+	 */
+	private static int stringIndex(String s, HashMap<String, Integer> index, ArrayList<String> strings) {
+		Integer i = index.get(s);
+		if (i == null) {
+			i = strings.size();
+			index.put(s, i);
+			strings.add(s);
+		}
+		return i;
+	}
+
+}
@@ -3,10 +3,27 @@
  */
 package edu.ncsu.csc216.wolf_scheduler.io;
 
+import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
@@ -18,6 +35,15 @@ import edu.ncsu.csc216.wolf_scheduler.course.Course;
  *
  */
 public class CourseRecordIO {
+	
+	/** Number of fields in a record for an arranged course */
+	private static final int ARRANGED_FIELDS = 6;
+	/** Number of fields in a record for a course with meeting times */
+	private static final int TIMED_FIELDS = 8;
+	/** Smallest number of bytes in a chunk parsed by the parallel loader */
+	private static final int MIN_CHUNK_SIZE = 1 << 20;
+	/** Number of chunks the parallel loader aims to give each worker thread */
+	private static final int CHUNKS_PER_THREAD = 4;
 
 	 /**
      * Reads course records from a file and generates a list of valid Courses.  Any invalid
@@ -26,88 +52,325 @@ public class CourseRecordIO {
      * @param fileName file to read Course records from
      * @return a list of valid Courses
      * @throws FileNotFoundException if the file cannot be found or read
-     * @throws IllegalArgumentException if there is an error constructing course.
      */
 	public static ArrayList<Course> readCourseRecords(String fileName) throws FileNotFoundException {
-	    Scanner fileReader = new Scanner(new FileInputStream(fileName));  //Create a file scanner to read the file
-	    ArrayList<Course> courses = new ArrayList<Course>(); //Create an empty array of Course objects
-	    while (fileReader.hasNextLine()) { //While we have more lines in the file
-	        try { //Attempt to do the following
-	            //Read the line, process it in readCourse, and get the object
-	            //If trying to construct a Course in readCourse() results in an exception, flow of control will transfer to the catch block, below
-	            Course course = readCourse(fileReader.nextLine()); 
+		return readCourseRecords(fileName, new CatalogLoadStatistics());
+	}
 
-	            //Create a flag to see if the newly created Course is a duplicate of something already in the list  
-	            boolean duplicate = false;
-	            //Look at all the courses in our list
-	            for (int i = 0; i < courses.size(); i++) {
-	                //Get the course at index i
-	                Course current = courses.get(i);
-	                //Check if the name and section are the same
-	                if (course.getName().equals(current.getName()) &&
-	                        course.getSection().equals(current.getSection())) {
-	                    //It's a duplicate!
-	                    duplicate = true;
-	                    break; //We can break out of the loop, no need to continue searching
-	                }
-	            }
-	            //If the course is NOT a duplicate
-	            if (!duplicate) {
+	/**
+	 * Reads course records from a file and generates a list of valid Courses, recording what happened to each
+	 * line in the given statistics.  Any invalid Courses are ignored, as are Courses with the same name and
+	 * section as a Course that was already read.  If an error occurs part way through reading the file, the
+	 * Courses read up to that point are returned.
+	 * @param fileName file to read Course records from
+	 * @param stats statistics that are updated as each line is read
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 */
+	public static ArrayList<Course> readCourseRecords(String fileName, CatalogLoadStatistics stats) throws FileNotFoundException {
+	    //Create a buffered reader to read the file line by line
+	    BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8));
+	    ArrayList<Course> courses = new ArrayList<Course>(); //Create an empty array of Course objects
+	    HashSet<String> seen = new HashSet<String>(); //Name and section of every course in the list
+	    try (fileReader) { //Close the reader b/c we're responsible with our file handles
+	        String line = fileReader.readLine();
+	        while (line != null) { //While we have more lines in the file
+	            //Read the line, process it in readCourse, and get the object (or null if the line is invalid)
+	            Course course = readCourse(line);
+	            
+	            if (course == null) {
+	                //The line is invalid b/c we couldn't create a course, skip it!
+	                stats.recordInvalid();
+	            } else if (seen.add(course.getName() + "," + course.getSection())) {
+	                //If the name and section haven't been seen, the course is NOT a duplicate
 	                courses.add(course); //Add to the ArrayList!
-	            } //Otherwise ignore
-	        } catch (IllegalArgumentException e) {
-	            //The line is invalid b/c we couldn't create a course, skip it!
+	                stats.recordAccepted();
+	            } else { //Otherwise ignore
+	                stats.recordDuplicate();
+	            }
+	            line = fileReader.readLine();
 	        }
+	    } catch (IOException e) {
+	        //Stop reading, keeping the courses read so far
 	    }
-	    //Close the Scanner b/c we're responsible with our file handles
-	    fileReader.close();
 	    //Return the ArrayList with all the courses we read!
 	    return courses;
 	}
     
-    /**
-     * Private helper method that processes information from each line of a file to collect values and construct a course 
-     * from the data provided in the lines of the file
-     * @param nextLine the next line that is being read and processed from the given file.
-     * @return course object that is constructed using the values processed from the line of the file.
-     * @throws IllegalArgumentException if there is an error constructing course.
-     */
-    private static Course readCourse(String nextLine) {
-		Scanner line = new Scanner(nextLine);
-		line.useDelimiter(",");
+	/**
+	 * Reads course records from a file again after it has changed, parsing only the lines that weren't in the file the
+	 * last time it was read.  The line cache maps the text of each line read last time to its Course (or to null for an
+	 * invalid line); lines with the same text get the same Course object, and the cache is replaced with the lines of the
+	 * file as it is now.  An empty cache reads the whole file.  Invalid Courses and duplicates are ignored the same as by
+	 * readCourseRecords().
+	 * @param fileName file to read Course records from
+	 * @param lineCache Courses of the lines read last time, keyed by line text; updated to the lines read this time
+	 * @return a list of valid Courses
+	 * @throws IOException if the file cannot be found or read; the line cache is not changed
+	 */
+	public static ArrayList<Course> rereadCourseRecords(String fileName, Map<String, Course> lineCache) throws IOException {
+		HashMap<String, Course> lines = new HashMap<String, Course>();
+		ArrayList<Course> courses = new ArrayList<Course>();
+		HashSet<String> seen = new HashSet<String>();
+		try (BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8))) {
+			String line = fileReader.readLine();
+			while (line != null) {
+				Course course;
+				if (lineCache.containsKey(line)) {
+					course = lineCache.get(line);
+				} else if (lines.containsKey(line)) {
+					course = lines.get(line);
+				} else {
+					course = readCourse(line);
+				}
+				lines.put(line, course);
+				if (course != null && seen.add(course.getName() + "," + course.getSection())) {
+					courses.add(course);
+				}
+				line = fileReader.readLine();
+			}
+		}
+		lineCache.clear();
+		lineCache.putAll(lines);
+		return courses;
+	}
+    
+	/**
+	 * Opens a lazily parsed stream of the valid Courses in a file, in file order.  Lines are read and parsed only as
+	 * the stream is consumed, so a caller that filters or aggregates the Courses in one pass never holds more than
+	 * one line in memory.  Because of that, Courses with the same name and section as an earlier Course are NOT
+	 * removed; use readCourseRecords() when the duplicate rule is needed.  The file is closed when the stream is 
+	 * closed, so the stream should be used in a try-with-resources statement, including when it is not fully consumed.
+	 * @param fileName file to read Course records from
+	 * @return a stream of the valid Courses in the file
+	 * @throws FileNotFoundException if the file cannot be found or read
+	 * @throws UncheckedIOException from the stream's operations if an error occurs while reading the file
+	 */
+	public static Stream<Course> streamCourseRecords(String fileName) throws FileNotFoundException {
+		BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8));
+		return fileReader.lines().map(CourseRecordIO::readCourse).filter(Objects::nonNull).onClose(() -> {
+			try {
+				fileReader.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Reads course records from a file in parallel and generates the same list of valid Courses as 
+	 * readCourseRecords().  The file is memory mapped and split into chunks that end on line breaks, the chunks
+	 * are parsed on the common ForkJoinPool, and the results are merged in file order so that the first occurrence 
+	 * of a Course's name and section is the one that is kept.
+	 * @param fileName file to read Course records from
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IOException if the file cannot be read
+	 */
+	public static ArrayList<Course> readCourseRecordsParallel(String fileName) throws IOException {
+		return readCourseRecordsParallel(fileName, 0);
+	}
+	
+	/**
+	 * Reads course records from a file in parallel using chunks of roughly the given size.
+	 * @param fileName file to read Course records from
+	 * @param chunkSize number of bytes in each chunk before it is extended to the next line break, or 0 to pick a 
+	 * size from the file size and the number of worker threads
+	 * @return a list of valid Courses
+	 * @throws FileNotFoundException if the file cannot be found
+	 * @throws IOException if the file cannot be read
+	 */
+	static ArrayList<Course> readCourseRecordsParallel(String fileName, int chunkSize) throws IOException {
+		if (!Files.isRegularFile(Paths.get(fileName))) {
+			throw new FileNotFoundException(fileName);
+		}
 		
-		try { 
-			String name = line.next();
-			String title = line.next();
-			String section = line.next();
-			int credits = line.nextInt();
-			String instructorId = line.next();
-			String meetingDays = line.next();
+		ArrayList<ForkJoinTask<ArrayList<Course>>> tasks = new ArrayList<ForkJoinTask<ArrayList<Course>>>();
+		try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long chunk = chunkSize;
+			if (chunk <= 0) {
+				int threads = ForkJoinPool.commonPool().getParallelism();
+				chunk = Math.min(Integer.MAX_VALUE / 2, Math.max(MIN_CHUNK_SIZE, size / (threads * CHUNKS_PER_THREAD)));
+			}
 			
-			if ("A".equals(meetingDays)) {
-				if (line.hasNext()) {
-					line.close();
-					throw new IllegalArgumentException();
-				} else {
-					line.close();
-					return new Course(name, title, section, credits, instructorId, meetingDays);
+			// split the file into chunks that each end just after a line break (or at the end of the file)
+			long start = 0;
+			while (start < size) {
+				long end = nextLineStart(channel, Math.min(size, start + chunk), size);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+				tasks.add(ForkJoinPool.commonPool().submit(() -> readChunk(buffer)));
+				start = end;
+			}
+			
+			// merge the chunks in file order, ignoring courses whose name and section have already been seen
+			ArrayList<Course> courses = new ArrayList<Course>();
+			HashSet<String> seen = new HashSet<String>();
+			for (ForkJoinTask<ArrayList<Course>> task : tasks) {
+				for (Course course : task.join()) {
+					if (seen.add(course.getName() + "," + course.getSection())) {
+						courses.add(course);
+					}
 				}
-			} else {
-				int startTime = line.nextInt();
-				int endTime = line.nextInt();
-				
-				if (line.hasNext()) {
-					line.close();
-					throw new IllegalArgumentException();
-				} else {
-					line.close();
-					return new Course(name, title, section, credits, instructorId, meetingDays, startTime, endTime);
+			}
+			return courses;
+		}
+	}
+	
+	/**
+	 * Private helper method that finds the position just after the first line break at or after the given position.
+	 * @param channel channel of the file being read
+	 * @param position position to start looking from
+	 * @param size size of the file
+	 * @return position of the start of the next line, or the size of the file if there are no more line breaks
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		while (position < size) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read <= 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
 				}
 			}
-		} catch (Exception e) {
-			line.close();
-			throw new IllegalArgumentException();
-		}			
+			position += read;
+		}
+		return size;
 	}
+	
+	/**
+	 * Private helper method that parses every line in a chunk of a course records file.  Lines end with a line
+	 * feed, a carriage return, or a carriage return followed by a line feed, the same as for BufferedReader.
+	 * @param buffer the bytes of the chunk
+	 * @return the valid Courses in the chunk, in order, including any duplicates
+	 */
+	private static ArrayList<Course> readChunk(ByteBuffer buffer) {
+		String text = StandardCharsets.UTF_8.decode(buffer).toString();
+		ArrayList<Course> courses = new ArrayList<Course>();
+		int start = 0;
+		while (start < text.length()) {
+			int end = start;
+			while (end < text.length() && text.charAt(end) != '\n' && text.charAt(end) != '\r') {
+				end++;
+			}
+			Course course = readCourse(text.substring(start, end));
+			if (course != null) {
+				courses.add(course);
+			}
+			
+			// skip the line break
+			if (end < text.length() - 1 && text.charAt(end) == '\r' && text.charAt(end + 1) == '\n') {
+				end++;
+			}
+			start = end + 1;
+		}
+		return courses;
+	}
+    
+    /**
+     * Helper method that processes information from a line of a file to collect values and construct a course 
+     * from the data provided in the line.  The line is split on commas in a single pass and integer fields are
+     * parsed in place, so a malformed line is reported by returning null rather than by throwing an exception.
+     * @param nextLine the next line that is being read and processed from the given file.
+     * @return course object that is constructed using the values processed from the line of the file, or null if
+     * the line is malformed or does not describe a valid course.
+     */
+    static Course readCourse(String nextLine) {
+    	// a leading or trailing comma doesn't start or end a field
+    	int start = 0;
+    	int end = nextLine.length();
+    	if (end > 0 && nextLine.charAt(0) == ',') {
+    		start = 1;
+    	}
+    	if (end > start && nextLine.charAt(end - 1) == ',') {
+    		end--;
+    	}
+    	
+    	// find where each field begins, giving up as soon as there are too many fields
+    	int[] fieldStart = new int[TIMED_FIELDS + 1];
+    	int fields = 0;
+    	fieldStart[fields++] = start;
+    	for (int i = start; i < end; i++) {
+    		if (nextLine.charAt(i) == ',') {
+    			if (fields == TIMED_FIELDS) {
+    				return null;
+    			}
+    			fieldStart[fields++] = i + 1;
+    		}
+    	}
+    	fieldStart[fields] = end + 1;
+    	if (fields != ARRANGED_FIELDS && fields != TIMED_FIELDS) {
+    		return null;
+    	}
+    	
+    	int credits = parseInt(nextLine, fieldStart[3], fieldStart[4] - 1);
+    	if (credits == Integer.MIN_VALUE) {
+    		return null;
+    	}
+    	String meetingDays = nextLine.substring(fieldStart[5], fieldStart[6] - 1);
+    	
+    	// arranged courses have no times, all other courses must have both times
+    	int startTime = 0;
+    	int endTime = 0;
+    	if ("A".equals(meetingDays)) {
+    		if (fields != ARRANGED_FIELDS) {
+    			return null;
+    		}
+    	} else {
+    		if (fields != TIMED_FIELDS) {
+    			return null;
+    		}
+    		startTime = parseInt(nextLine, fieldStart[6], fieldStart[7] - 1);
+    		endTime = parseInt(nextLine, fieldStart[7], fieldStart[8] - 1);
+    		if (startTime == Integer.MIN_VALUE || endTime == Integer.MIN_VALUE) {
+    			return null;
+    		}
+    	}
+    	
+    	try {
+    		return new Course(nextLine.substring(fieldStart[0], fieldStart[1] - 1), nextLine.substring(fieldStart[1], fieldStart[2] - 1),
+    				nextLine.substring(fieldStart[2], fieldStart[3] - 1), credits, nextLine.substring(fieldStart[4], fieldStart[5] - 1),
+    				meetingDays, startTime, endTime);
+    	} catch (IllegalArgumentException e) {
+    		// the fields are well formed but don't make a valid course
+    		return null;
+    	}
+	}
+    
+    /**
+     * Private helper method that parses a signed decimal integer from part of a line without creating a substring.
+     * @param line the line containing the integer
+     * @param from index of the first character of the integer
+     * @param to index one past the last character of the integer
+     * @return the parsed integer, or Integer.MIN_VALUE if the characters are not a valid integer
+     */
+    private static int parseInt(String line, int from, int to) {
+    	boolean negative = false;
+    	if (from < to && (line.charAt(from) == '-' || line.charAt(from) == '+')) {
+    		negative = line.charAt(from) == '-';
+    		from++;
+    	}
+    	if (from >= to) {
+    		return Integer.MIN_VALUE;
+    	}
+    	
+    	long value = 0;
+    	for (int i = from; i < to; i++) {
+    		char c = line.charAt(i);
+    		if (c < '0' || c > '9') {
+    			return Integer.MIN_VALUE;
+    		}
+    		value = value * 10 + (c - '0');
+    		if (value > Integer.MAX_VALUE) {
+    			return Integer.MIN_VALUE;
+    		}
+    	}
+    	return (int) (negative ? -value : value);
+    }
 
 }
@@ -0,0 +1,410 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An embedded key-value store kept in one file, used to read and change single courses and schedules without rewriting a
+ * whole text file.
+ * 
+ * The file starts with a header (magic number and format version) followed by slots.  Each slot holds a status byte, the
+ * length of its key, the length of its value, the place of its key in the store's order, a checksum, the key, and the
+ * value.  An index from each key to its slot is built by scanning the file when the store is opened, so each get() is one
+ * read at a known position.  A live slot is never overwritten: put() writes the value to a new slot at the end of the file
+ * and then marks the old slot dead, so if the program stops between the two, at least one of them is left whole.  Writes
+ * go to the operating system right away, and sync() forces them to the storage device; only forced writes are sure to
+ * survive a power failure, and the operating system may store unforced writes in any order.  Opening the store drops a
+ * last slot that runs past the end of the file or whose checksum doesn't match, since it was being written when the
+ * program stopped.  A slot like that anywhere else means the file is damaged, and the store isn't opened.
+ * 
+ * compact() and replacePrefix() write a new file with only the live slots to a temporary file, force it to the storage
+ * device, and move it over the store in one step, so the store is either left as it was or fully replaced.
+ * 
+ * @author hmreese2
+ *
+ */
+public class RecordStore implements Closeable {
+	
+	/** Magic number at the start of every store file */
+	private static final int MAGIC = 0x57534B56;
+	/** Version of the store format written by this class */
+	private static final int VERSION = 2;
+	/** Size of the file header */
+	private static final int HEADER_SIZE = 8;
+	/** Size of the fixed part of a slot: status, key length, value length, order, and checksum */
+	private static final int SLOT_HEADER_SIZE = 21;
+	/** Offset in a slot of its checksum */
+	private static final int CHECKSUM_OFFSET = 17;
+	/** Status of a slot holding a current value */
+	private static final byte LIVE = 1;
+	/** Status of a slot whose value was replaced or removed */
+	private static final byte DEAD = 0;
+	
+	/** Channel the file is read and written through */
+	private FileChannel channel;
+	/** File offset, value length, and order of the slot of each key, in the order the keys were first stored */
+	private final LinkedHashMap<String, long[]> index;
+	/** Number of bytes in dead slots */
+	private long deadBytes;
+	/** Offset of the end of the last slot */
+	private long end;
+	/** Order given to the next new key */
+	private long nextOrder;
+	/** Name of the store file */
+	private final String fileName;
+
+	/**
+	 * Opens a store, creating the file if it doesn't exist.  A slot that was only partly written when the program stopped
+	 * is dropped.
+	 * @param fileName name of the store file
+	 * @throws IOException with message "Not a record store." if the file isn't a store, with message "Corrupt record
+	 * store." if a slot before the last one is damaged, or if the file can't be opened
+	 */
+	public RecordStore(String fileName) throws IOException {
+		this.fileName = fileName;
+		this.index = new LinkedHashMap<String, long[]>();
+		open();
+	}
+	
+	/**
+	 * Gets the value stored for a key.
+	 * @param key the key
+	 * @return the value, or null if the key isn't stored
+	 * @throws IOException if the file can't be read
+	 */
+	public synchronized String get(String key) throws IOException {
+		long[] slot = index.get(key);
+		if (slot == null) {
+			return null;
+		}
+		int keyLength = key.getBytes(StandardCharsets.UTF_8).length;
+		return StandardCharsets.UTF_8.decode(read(slot[0] + SLOT_HEADER_SIZE + keyLength, (int) slot[1])).toString();
+	}
+	
+	/**
+	 * Stores a value for a key, replacing any value already stored for it.  A key that is already stored keeps its place in
+	 * the store's order.
+	 * @param key the key
+	 * @param value the value
+	 * @throws IOException if the file can't be written
+	 */
+	public synchronized void put(String key, String value) throws IOException {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+		long[] slot = index.get(key);
+		long order = slot == null ? nextOrder++ : slot[2];
+		
+		// write a new slot, then mark the old slot dead so the program stopping between them leaves at least one of them live
+		ByteBuffer buffer = slot(keyBytes, valueBytes, order);
+		long offset = end;
+		write(buffer, offset);
+		end += buffer.capacity();
+		if (slot != null) {
+			markDead(slot, keyBytes.length);
+		}
+		index.put(key, new long[] {offset, valueBytes.length, order});
+	}
+	
+	/**
+	 * Removes the value stored for a key.
+	 * @param key the key
+	 * @return true if the key was stored
+	 * @throws IOException if the file can't be written
+	 */
+	public synchronized boolean remove(String key) throws IOException {
+		long[] slot = index.remove(key);
+		if (slot == null) {
+			return false;
+		}
+		markDead(slot, key.getBytes(StandardCharsets.UTF_8).length);
+		return true;
+	}
+	
+	/**
+	 * Gets the stored keys that start with a prefix, in the order they were first stored.
+	 * @param prefix the prefix
+	 * @return the keys
+	 */
+	public synchronized ArrayList<String> keys(String prefix) {
+		ArrayList<String> keys = new ArrayList<String>();
+		for (String key : index.keySet()) {
+			if (key.startsWith(prefix)) {
+				keys.add(key);
+			}
+		}
+		return keys;
+	}
+	
+	/**
+	 * Gets the number of stored keys.
+	 * @return number of keys
+	 */
+	public synchronized int size() {
+		return index.size();
+	}
+	
+	/**
+	 * Forces every change to the storage device.
+	 * @throws IOException if the file can't be written
+	 */
+	public synchronized void sync() throws IOException {
+		channel.force(false);
+	}
+	
+	/**
+	 * Rewrites the file without dead slots, if at least half of it is dead.
+	 * @return true if the file was rewritten
+	 * @throws IOException if the file can't be rewritten; the store is left as it was
+	 */
+	public synchronized boolean compact() throws IOException {
+		if (deadBytes * 2 < end) {
+			return false;
+		}
+		rewrite(values(""));
+		return true;
+	}
+	
+	/**
+	 * Replaces every value whose key starts with a prefix with the given values, in one step.  Other keys are kept.  The
+	 * given keys are put in the store's order in the order of the map, after the other keys.
+	 * @param prefix prefix of the keys to replace
+	 * @param values the new keys and values
+	 * @throws IOException if the file can't be rewritten; the store is left as it was
+	 */
+	public synchronized void replacePrefix(String prefix, Map<String, String> values) throws IOException {
+		LinkedHashMap<String, String> contents = new LinkedHashMap<String, String>();
+		for (Map.Entry<String, String> entry : values("").entrySet()) {
+			if (!entry.getKey().startsWith(prefix)) {
+				contents.put(entry.getKey(), entry.getValue());
+			}
+		}
+		contents.putAll(values);
+		rewrite(contents);
+	}
+	
+	/**
+	 * Forces every change to the storage device and closes the store.
+	 * @throws IOException if the file can't be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		try {
+			channel.force(true);
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Private helper method that opens the file and builds the index.
+	 * @throws IOException if the file can't be read, or isn't a store
+	 */
+	private void open() throws IOException {
+		index.clear();
+		deadBytes = 0;
+		nextOrder = 0;
+		channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE);
+		long size = channel.size();
+		if (size == 0) {
+			write(header(), 0);
+			end = HEADER_SIZE;
+			return;
+		}
+		
+		ByteBuffer header = size < HEADER_SIZE ? null : read(0, HEADER_SIZE);
+		if (header == null || header.getInt() != MAGIC || header.getInt() != VERSION) {
+			channel.close();
+			throw new IOException("Not a record store.");
+		}
+		
+		// scan the slots, stopping at a slot that runs past the end of the file or whose checksum doesn't match; only the
+		// last write can be cut short, so a bad slot that ends before the end of the file means the file is damaged
+		long offset = HEADER_SIZE;
+		while (offset + SLOT_HEADER_SIZE <= size) {
+			ByteBuffer fixed = read(offset, SLOT_HEADER_SIZE);
+			int keyLength = fixed.getInt(1);
+			int valueLength = fixed.getInt(5);
+			long next = offset + SLOT_HEADER_SIZE + keyLength + valueLength;
+			if (next > size) {
+				break;
+			}
+			ByteBuffer slot = keyLength < 0 || valueLength < 0 ? null : read(offset, (int) (next - offset));
+			if (slot == null || slot.getInt(CHECKSUM_OFFSET) != checksum(slot.array())) {
+				if (next < size) {
+					channel.close();
+					throw new IOException("Corrupt record store.");
+				}
+				break;
+			}
+			long order = slot.getLong(9);
+			nextOrder = Math.max(nextOrder, order + 1);
+			if (slot.get(0) == LIVE) {
+				String key = new String(slot.array(), SLOT_HEADER_SIZE, keyLength, StandardCharsets.UTF_8);
+				long[] old = index.put(key, new long[] {offset, valueLength, order});
+				if (old != null) {
+					// a crash came between writing the new slot and marking the old one dead
+					markDead(old, keyLength);
+				}
+			} else {
+				deadBytes += next - offset;
+			}
+			offset = next;
+		}
+		end = offset;
+		channel.truncate(end);
+		
+		// put the keys back in the order they were first stored, since replaced values move to the end of the file
+		ArrayList<Map.Entry<String, long[]>> live = new ArrayList<Map.Entry<String, long[]>>(index.entrySet());
+		live.sort(Comparator.comparingLong(entry -> entry.getValue()[2]));
+		index.clear();
+		for (Map.Entry<String, long[]> entry : live) {
+			index.put(entry.getKey(), entry.getValue());
+		}
+	}
+	
+	/**
+	 * Private helper method that writes a new file holding the given keys and values to a temporary file, forces it, moves
+	 * it over the store, and reopens the store.  If any step fails, the store is reopened as it was.
+	 * @param contents the keys and values, in the store's order
+	 * @throws IOException if the file can't be rewritten
+	 */
+	private void rewrite(Map<String, String> contents) throws IOException {
+		Path target = Paths.get(fileName);
+		Path temp = AtomicFiles.createTempFile(target);
+		try {
+			try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				ByteBuffer buffer = header();
+				while (buffer.hasRemaining()) {
+					out.write(buffer);
+				}
+				long order = 0;
+				for (Map.Entry<String, String> entry : contents.entrySet()) {
+					buffer = slot(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue().getBytes(StandardCharsets.UTF_8),
+							order++);
+					while (buffer.hasRemaining()) {
+						out.write(buffer);
+					}
+				}
+				out.force(true);
+			}
+			channel.close();
+			AtomicFiles.replace(temp, target);
+		} finally {
+			// only left behind if the write or move failed
+			Files.deleteIfExists(temp);
+			// read the new file, or the old one if the new one couldn't replace it
+			channel.close();
+			open();
+		}
+	}
+	
+	/**
+	 * Private helper method that reads every stored key and value whose key starts with a prefix.
+	 * @param prefix the prefix
+	 * @return the keys and values, in the store's order
+	 * @throws IOException if the file can't be read
+	 */
+	private LinkedHashMap<String, String> values(String prefix) throws IOException {
+		LinkedHashMap<String, String> values = new LinkedHashMap<String, String>();
+		for (String key : keys(prefix)) {
+			values.put(key, get(key));
+		}
+		return values;
+	}
+	
+	/**
+	 * Private helper method that builds the file header.
+	 * @return the header, ready to be written
+	 */
+	private static ByteBuffer header() {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		return header.putInt(MAGIC).putInt(VERSION).flip();
+	}
+	
+	/**
+	 * Private helper method that builds a live slot.
+	 * @param key the key
+	 * @param value the value
+	 * @param order place of the key in the store's order
+	 * @return the slot, ready to be written
+	 */
+	private static ByteBuffer slot(byte[] key, byte[] value, long order) {
+		ByteBuffer buffer = ByteBuffer.allocate(SLOT_HEADER_SIZE + key.length + value.length);
+		buffer.put(LIVE).putInt(key.length).putInt(value.length).putLong(order).putInt(0).put(key).put(value);
+		buffer.putInt(CHECKSUM_OFFSET, checksum(buffer.array()));
+		return buffer.flip();
+	}
+	
+	/**
+	 * Private helper method that computes the checksum of a slot.  The status byte isn't covered, so marking the slot dead
+	 * doesn't change it.
+	 * @param slot the whole slot
+	 * @return the checksum
+	 */
+	private static int checksum(byte[] slot) {
+		CRC32 crc = new CRC32();
+		crc.update(slot, 1, CHECKSUM_OFFSET - 1);
+		crc.update(slot, SLOT_HEADER_SIZE, slot.length - SLOT_HEADER_SIZE);
+		return (int) crc.getValue();
+	}
+	
+	/**
+	 * Private helper method that marks a slot dead.
+	 * @param slot file offset and value length of the slot
+	 * @param keyLength length of the slot's key in bytes
+	 * @throws IOException if the file can't be written
+	 */
+	private void markDead(long[] slot, int keyLength) throws IOException {
+		ByteBuffer status = ByteBuffer.allocate(1);
+		status.put(DEAD).flip();
+		write(status, slot[0]);
+		deadBytes += SLOT_HEADER_SIZE + keyLength + slot[1];
+	}
+	
+	/**
+	 * Private helper method that reads bytes at a position in the file.
+	 * @param position position to read from
+	 * @param length number of bytes to read
+	 * @return the bytes, ready to be read
+	 * @throws IOException if the bytes can't be read
+	 */
+	private ByteBuffer read(long position, int length) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length);
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new IOException("Corrupt record store.");
+			}
+		}
+		return buffer.flip();
+	}
+	
+	/**
+	 * Private helper method that writes bytes at a position in the file.
+	 * @param buffer the bytes to write
+	 * @param position position to write to
+	 * @throws IOException if the bytes can't be written
+	 */
+	private void write(ByteBuffer buffer, long position) throws IOException {
+		long at = position;
+		while (buffer.hasRemaining()) {
+			at += channel.write(buffer, at);
+		}
+	}
+
+}
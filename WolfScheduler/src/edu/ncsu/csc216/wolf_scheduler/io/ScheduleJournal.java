@@ -0,0 +1,375 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * An append-only journal of the changes made to one schedule, so the schedule can be rebuilt after the program stops.
+ * 
+ * Each change is one line: "ADD,[index],[record]" where the record is in the format of ActivityRecordIO,
+ * "REMOVE,[index]", "RESET", or "TITLE,[title]".  Each line is handed to the operating system as soon as the change is
+ * logged, so no change is lost if only the program stops.  Lines are forced to the storage device together, once every
+ * group of changes or when commit() is called, so many changes share the cost of one write to the device; changes since
+ * the last commit can be lost if the machine stops.  The journal is never left unreadable: only lines that end in a line
+ * break are read, so a partly written last line is ignored even if what was written of it looks like a complete change.
+ * 
+ * To keep the journal short, compact() replaces it with a snapshot of the schedule in the batch format of
+ * ActivityRecordIO.writeActivityRecordBatch(), a "#SCHEDULE,[number of activities],[title]" header followed by the
+ * records, and later changes are added after the snapshot.
+ * 
+ * @author hmreese2
+ *
+ */
+public class ScheduleJournal implements Closeable {
+	
+	/** Kind of entry that adds an activity to the schedule */
+	public static final int ADD = 0;
+	/** Kind of entry that removes an activity from the schedule */
+	public static final int REMOVE = 1;
+	/** Kind of entry that resets the schedule */
+	public static final int RESET = 2;
+	/** Kind of entry that changes the title */
+	public static final int TITLE = 3;
+	/** Default number of changes forced to the storage device together */
+	public static final int DEFAULT_GROUP_SIZE = 32;
+	/** Keywords of the kinds of entries, indexed by kind */
+	private static final String[] KEYWORDS = {"ADD", "REMOVE", "RESET", "TITLE"};
+	
+	/** Path of the journal file */
+	private final Path path;
+	/** Number of changes forced to the storage device together */
+	private final int groupSize;
+	/** Stream the journal is appended through */
+	private FileOutputStream out;
+	/** Buffered writer over the stream */
+	private Writer writer;
+	/** Number of changes written since the last commit */
+	private int pending;
+	/** Number of changes written since the last compaction */
+	private int entryCount;
+	/** Buffer used to build each line */
+	private final StringBuilder line = new StringBuilder();
+
+	/**
+	 * Opens a journal for appending, creating the file if it doesn't exist.
+	 * @param fileName name of the journal file
+	 * @throws IOException if the file can't be opened
+	 */
+	public ScheduleJournal(String fileName) throws IOException {
+		this(fileName, DEFAULT_GROUP_SIZE);
+	}
+	
+	/**
+	 * Opens a journal for appending, creating the file if it doesn't exist.
+	 * @param fileName name of the journal file
+	 * @param groupSize number of changes forced to the storage device together
+	 * @throws IllegalArgumentException with message "Invalid group size." if groupSize is less than 1
+	 * @throws IOException if the file can't be opened
+	 */
+	public ScheduleJournal(String fileName, int groupSize) throws IOException {
+		if (groupSize < 1) {
+			throw new IllegalArgumentException("Invalid group size.");
+		}
+		this.path = Paths.get(fileName).toAbsolutePath();
+		this.groupSize = groupSize;
+		open();
+	}
+	
+	/**
+	 * Records that an activity was added to the schedule.
+	 * @param idx index the activity went to in the schedule
+	 * @param a the activity
+	 * @throws IOException if the journal can't be written
+	 */
+	public void logAdd(int idx, Activity a) throws IOException {
+		line.setLength(0);
+		line.append(KEYWORDS[ADD]).append(',').append(idx).append(',');
+		ActivityRecordIO.appendRecord(line, a);
+		write();
+	}
+	
+	/**
+	 * Records that an activity was removed from the schedule.
+	 * @param idx index of the activity in the schedule
+	 * @throws IOException if the journal can't be written
+	 */
+	public void logRemove(int idx) throws IOException {
+		line.setLength(0);
+		line.append(KEYWORDS[REMOVE]).append(',').append(idx);
+		write();
+	}
+	
+	/**
+	 * Records that the schedule was reset.
+	 * @throws IOException if the journal can't be written
+	 */
+	public void logReset() throws IOException {
+		line.setLength(0);
+		line.append(KEYWORDS[RESET]);
+		write();
+	}
+	
+	/**
+	 * Records that the title of the schedule was changed.
+	 * @param title the new title
+	 * @throws IOException if the journal can't be written
+	 */
+	public void logTitle(String title) throws IOException {
+		line.setLength(0);
+		line.append(KEYWORDS[TITLE]).append(',').append(title);
+		write();
+	}
+	
+	/**
+	 * Forces every change written so far to the storage device.
+	 * @throws IOException if the journal can't be written
+	 */
+	public void commit() throws IOException {
+		out.getChannel().force(false);
+		pending = 0;
+	}
+	
+	/**
+	 * Gets the number of changes written since the journal was opened or last compacted.
+	 * @return number of changes
+	 */
+	public int getEntryCount() {
+		return entryCount;
+	}
+	
+	/**
+	 * Replaces the journal with a snapshot of the schedule.  The snapshot is written to a temporary file, forced to the
+	 * storage device, and moved over the journal in one step, so the journal is either left as it was or replaced.
+	 * @param title title of the schedule
+	 * @param schedule activities in the schedule
+	 * @throws IOException if the snapshot can't be written
+	 */
+	public void compact(String title, List<Activity> schedule) throws IOException {
+		commit();
+		Path temp = AtomicFiles.createTempFile(path);
+		try {
+			ArrayList<String> titles = new ArrayList<String>();
+			titles.add(title);
+			ArrayList<ArrayList<Activity>> schedules = new ArrayList<ArrayList<Activity>>();
+			schedules.add(new ArrayList<Activity>(schedule));
+			ActivityRecordIO.writeActivityRecordBatch(temp.toString(), titles, schedules);
+			AtomicFiles.force(temp);
+			
+			writer.close();
+			AtomicFiles.replace(temp, path);
+		} finally {
+			// only left behind if the write or move failed
+			Files.deleteIfExists(temp);
+			// append to the snapshot, or to the old journal if the snapshot couldn't replace it
+			writer.close();
+			open();
+		}
+		entryCount = 0;
+	}
+	
+	/**
+	 * Commits the journal and closes it.
+	 * @throws IOException if the journal can't be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			commit();
+		} finally {
+			writer.close();
+		}
+	}
+	
+	/**
+	 * Reads the changes in a journal, in order.  A snapshot at the start of the journal is read as a reset, a title change,
+	 * and an add for each of its records.  Anything after the last line break, such as a line that was being written when
+	 * the program stopped, is ignored, and reading stops at the first line that isn't a complete change.
+	 * @param fileName name of the journal file
+	 * @return the changes in the journal; empty if the file doesn't exist
+	 * @throws IOException if the file can't be read
+	 */
+	public static ArrayList<Entry> readEntries(String fileName) throws IOException {
+		ArrayList<Entry> entries = new ArrayList<Entry>();
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(Paths.get(fileName));
+		} catch (NoSuchFileException e) {
+			return entries;
+		}
+		
+		// a line is only complete once its line break is written, so the text ends at the last one
+		int end = bytes.length;
+		while (end > 0 && bytes[end - 1] != '\n') {
+			end--;
+		}
+		
+		try (BufferedReader reader = new BufferedReader(new StringReader(new String(bytes, 0, end, StandardCharsets.UTF_8)))) {
+			String text = reader.readLine();
+			
+			// snapshot written by compact()
+			if (text != null && text.startsWith(ActivityRecordIO.SCHEDULE_HEADER + ",")) {
+				int comma = text.indexOf(',', ActivityRecordIO.SCHEDULE_HEADER.length() + 1);
+				if (comma < 0) {
+					return entries;
+				}
+				int count = Integer.parseInt(text.substring(ActivityRecordIO.SCHEDULE_HEADER.length() + 1, comma));
+				entries.add(new Entry(RESET, -1, null, null));
+				entries.add(new Entry(TITLE, -1, null, text.substring(comma + 1)));
+				for (int i = 0; i < count; i++) {
+					Activity a = ActivityRecordIO.readActivity(String.valueOf(reader.readLine()));
+					if (a == null) {
+						return entries;
+					}
+					entries.add(new Entry(ADD, i, a, null));
+				}
+				text = reader.readLine();
+			}
+			
+			while (text != null) {
+				Entry entry = readEntry(text);
+				if (entry == null) {
+					break;
+				}
+				entries.add(entry);
+				text = reader.readLine();
+			}
+		} catch (NumberFormatException e) {
+			// header is damaged, keep the entries read so far
+		}
+		return entries;
+	}
+	
+	/**
+	 * Private helper method that processes one line of the journal into a change.
+	 * @param text the line
+	 * @return the change, or null if the line isn't a complete change
+	 */
+	private static Entry readEntry(String text) {
+		int comma = text.indexOf(',');
+		String keyword = comma < 0 ? text : text.substring(0, comma);
+		try {
+			if (KEYWORDS[RESET].equals(keyword) && comma < 0) {
+				return new Entry(RESET, -1, null, null);
+			} else if (KEYWORDS[TITLE].equals(keyword) && comma >= 0) {
+				return new Entry(TITLE, -1, null, text.substring(comma + 1));
+			} else if (KEYWORDS[REMOVE].equals(keyword) && comma >= 0) {
+				return new Entry(REMOVE, Integer.parseInt(text.substring(comma + 1)), null, null);
+			} else if (KEYWORDS[ADD].equals(keyword) && comma >= 0) {
+				int second = text.indexOf(',', comma + 1);
+				if (second < 0) {
+					return null;
+				}
+				Activity a = ActivityRecordIO.readActivity(text.substring(second + 1));
+				return a == null ? null : new Entry(ADD, Integer.parseInt(text.substring(comma + 1, second)), a, null);
+			}
+		} catch (NumberFormatException e) {
+			// fall through to an incomplete change
+		}
+		return null;
+	}
+	
+	/**
+	 * Private helper method that writes the line being built and hands it to the operating system, committing if a group
+	 * of changes has been written.
+	 * @throws IOException if the journal can't be written
+	 */
+	private void write() throws IOException {
+		line.append(System.lineSeparator());
+		writer.append(line);
+		writer.flush();
+		entryCount++;
+		if (++pending >= groupSize) {
+			commit();
+		}
+	}
+	
+	/**
+	 * Private helper method that opens the journal file for appending.
+	 * @throws IOException if the file can't be opened
+	 */
+	private void open() throws IOException {
+		out = new FileOutputStream(path.toFile(), true);
+		writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		pending = 0;
+	}
+	
+	/**
+	 * One change read from a journal.
+	 */
+	public static class Entry {
+		
+		/** Kind of change: ADD, REMOVE, RESET, or TITLE */
+		private final int kind;
+		/** Index in the schedule of the added or removed activity */
+		private final int index;
+		/** The added activity */
+		private final Activity activity;
+		/** The new title */
+		private final String title;
+		
+		/**
+		 * Constructs an Entry.
+		 * @param kind kind of change
+		 * @param index index in the schedule of the added or removed activity
+		 * @param activity the added activity
+		 * @param title the new title
+		 */
+		Entry(int kind, int index, Activity activity, String title) {
+			this.kind = kind;
+			this.index = index;
+			this.activity = activity;
+			this.title = title;
+		}
+		
+		/**
+		 * Gets the kind of change.
+		 * @return ADD, REMOVE, RESET, or TITLE
+		 */
+		public int getKind() {
+			return kind;
+		}
+		
+		/**
+		 * Gets the index in the schedule of the added or removed activity.
+		 * @return the index, or -1 for a reset or title change
+		 */
+		public int getIndex() {
+			return index;
+		}
+		
+		/**
+		 * Gets the added activity, as read from its record.
+		 * @return the activity, or null if the change isn't an add
+		 */
+		public Activity getActivity() {
+			return activity;
+		}
+		
+		/**
+		 * Gets the new title.
+		 * @return the title, or null if the change isn't a title change
+		 */
+		public String getTitle() {
+			return title;
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * ScheduleRepository is where a course catalog and the students' schedules are kept between runs of the program.
+ * TextFileRepository keeps them in the same text files as CourseRecordIO and ActivityRecordIO, and StoreRepository keeps
+ * them in a RecordStore so that one course or one schedule can be read or changed without rewriting the others.
+ * 
+ * @author hmreese2
+ *
+ */
+public interface ScheduleRepository extends Closeable {
+	
+	/**
+	 * Reads every Course in the catalog, in catalog order.
+	 * @return the Courses in the catalog
+	 * @throws IOException if the catalog can't be read
+	 */
+	ArrayList<Course> loadCatalog() throws IOException;
+	
+	/**
+	 * Replaces the catalog with the given Courses.
+	 * @param courses the Courses in the catalog, in catalog order
+	 * @throws IOException if the catalog can't be written
+	 */
+	void saveCatalog(List<Course> courses) throws IOException;
+	
+	/**
+	 * Replaces the catalog's Course with the same name and section as the given Course, or adds the Course to the end of
+	 * the catalog if there isn't one.
+	 * @param course the Course to save
+	 * @throws IOException if the catalog can't be written
+	 */
+	void updateCourse(Course course) throws IOException;
+	
+	/**
+	 * Reads a student's schedule.
+	 * @param studentId id of the student
+	 * @param activities list that the Activities in the schedule are added to, in order
+	 * @return title of the schedule, or null if the student has no saved schedule
+	 * @throws IllegalArgumentException with message "Invalid student id." if the id is null, empty, or contains 
+	 * characters other than letters, digits, '_', '-' and '.'
+	 * @throws IOException if the schedule can't be read
+	 */
+	String loadSchedule(String studentId, List<Activity> activities) throws IOException;
+	
+	/**
+	 * Saves a student's schedule, replacing any schedule already saved for the student.
+	 * @param studentId id of the student
+	 * @param title title of the schedule
+	 * @param activities the Activities in the schedule, in order
+	 * @throws IllegalArgumentException with message "Invalid student id." if the id is null, empty, or contains 
+	 * characters other than letters, digits, '_', '-' and '.'
+	 * @throws IOException if the schedule can't be written
+	 */
+	void saveSchedule(String studentId, String title, List<Activity> activities) throws IOException;
+	
+	/**
+	 * Checks that a student id can be used as a key or file name.
+	 * @param studentId id of the student
+	 * @throws IllegalArgumentException with message "Invalid student id." if the id is null, empty, or contains 
+	 * characters other than letters, digits, '_', '-' and '.'
+	 */
+	static void checkStudentId(String studentId) {
+		if (studentId == null || !studentId.matches("[A-Za-z0-9_.\\-]+")) {
+			throw new IllegalArgumentException("Invalid student id.");
+		}
+	}
+
+}
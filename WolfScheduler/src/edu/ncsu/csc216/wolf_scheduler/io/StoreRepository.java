@@ -0,0 +1,147 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * A ScheduleRepository that keeps the catalog and every student's schedule in one RecordStore.  Each Course is stored under
+ * the key "course:[name],[section]" as a course record, and each schedule under the key "student:[student id]" in the
+ * format written by formatSchedule(), so changing one Course or one schedule writes only that value.  Replacing the whole
+ * catalog rewrites the store in one step, so a crash leaves either the old catalog or the new one.
+ * 
+ * @author hmreese2
+ *
+ */
+public class StoreRepository implements ScheduleRepository {
+	
+	/** Prefix of the key of each Course */
+	private static final String COURSE_PREFIX = "course:";
+	/** Prefix of the key of each schedule */
+	private static final String STUDENT_PREFIX = "student:";
+	
+	/** Store the catalog and schedules are kept in */
+	private final RecordStore store;
+	
+	/**
+	 * Opens a StoreRepository, creating the store file if it doesn't exist.
+	 * @param fileName name of the store file
+	 * @throws IOException if the store file can't be opened or isn't a store
+	 */
+	public StoreRepository(String fileName) throws IOException {
+		this.store = new RecordStore(fileName);
+	}
+
+	/**
+	 * Reads every Course in the store, in the order they were first saved.  Records that aren't valid Courses are skipped.
+	 * @return the Courses in the catalog
+	 * @throws IOException if the store can't be read
+	 */
+	@Override
+	public ArrayList<Course> loadCatalog() throws IOException {
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (String key : store.keys(COURSE_PREFIX)) {
+			String record = store.get(key);
+			Course c = record == null ? null : CourseRecordIO.readCourse(record);
+			if (c != null) {
+				courses.add(c);
+			}
+		}
+		return courses;
+	}
+
+	/**
+	 * Replaces every Course in the store with the given Courses in one step, which also forces the store to the storage
+	 * device.  As in CourseCatalog, the first Course with a name and section wins.
+	 * @param courses the Courses in the catalog, in catalog order
+	 * @throws IOException if the store can't be written; the store is left as it was
+	 */
+	@Override
+	public void saveCatalog(List<Course> courses) throws IOException {
+		LinkedHashMap<String, String> records = new LinkedHashMap<String, String>();
+		for (Course c : courses) {
+			records.putIfAbsent(key(c), record(c));
+		}
+		store.replacePrefix(COURSE_PREFIX, records);
+	}
+
+	/**
+	 * Replaces the Course with the same name and section in the store, or adds it, and forces the store to the storage device.
+	 * @param course the Course to save
+	 * @throws IOException if the store can't be written
+	 */
+	@Override
+	public void updateCourse(Course course) throws IOException {
+		store.put(key(course), record(course));
+		store.compact();
+		store.sync();
+	}
+
+	/**
+	 * Reads a student's schedule from the store.
+	 * @param studentId id of the student
+	 * @param activities list that the Activities in the schedule are added to, in order
+	 * @return title of the schedule, or null if the student has no schedule in the store
+	 * @throws IllegalArgumentException with message "Invalid student id." if the id is not valid
+	 * @throws IOException if the store can't be read
+	 */
+	@Override
+	public String loadSchedule(String studentId, List<Activity> activities) throws IOException {
+		ScheduleRepository.checkStudentId(studentId);
+		String text = store.get(STUDENT_PREFIX + studentId);
+		return text == null ? null : ActivityRecordIO.parseSchedule(text, activities);
+	}
+
+	/**
+	 * Saves a student's schedule to the store and forces the store to the storage device.
+	 * @param studentId id of the student
+	 * @param title title of the schedule
+	 * @param activities the Activities in the schedule, in order
+	 * @throws IllegalArgumentException with message "Invalid student id." if the id is not valid
+	 * @throws IOException if the store can't be written
+	 */
+	@Override
+	public void saveSchedule(String studentId, String title, List<Activity> activities) throws IOException {
+		ScheduleRepository.checkStudentId(studentId);
+		store.put(STUDENT_PREFIX + studentId, ActivityRecordIO.formatSchedule(title, activities));
+		store.compact();
+		store.sync();
+	}
+
+	/**
+	 * Closes the store.
+	 * @throws IOException if the store can't be written
+	 */
+	@Override
+	public void close() throws IOException {
+		store.close();
+	}
+	
+	/**
+	 * Private helper method that gets the key of a Course.
+	 * @param c the Course
+	 * @return key of the Course
+	 */
+	private static String key(Course c) {
+		return COURSE_PREFIX + c.getName() + "," + c.getSection();
+	}
+	
+	/**
+	 * Private helper method that formats a Course as a course record.
+	 * @param c the Course
+	 * @return the course record
+	 */
+	private static String record(Course c) {
+		StringBuilder record = new StringBuilder();
+		ActivityRecordIO.appendRecord(record, c);
+		return record.toString();
+	}
+
+}
@@ -0,0 +1,137 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * A ScheduleRepository that keeps the catalog in a course records file read by CourseRecordIO, and each student's schedule
+ * in its own file "[student id].txt" in a directory.  Changing one Course rewrites the whole catalog file, so this is best
+ * for small catalogs and for catalogs that are edited by hand.  Files are replaced atomically, so a crash never leaves a
+ * partly written file behind.
+ * 
+ * @author hmreese2
+ *
+ */
+public class TextFileRepository implements ScheduleRepository {
+	
+	/** Course records file of the catalog */
+	private final Path catalogFile;
+	/** Directory that the schedule files are kept in */
+	private final Path scheduleDirectory;
+	
+	/**
+	 * Constructs a TextFileRepository.
+	 * @param catalogFile name of the course records file of the catalog
+	 * @param scheduleDirectory name of the directory that the schedule files are kept in; it is created when the first
+	 * schedule is saved
+	 */
+	public TextFileRepository(String catalogFile, String scheduleDirectory) {
+		this.catalogFile = Paths.get(catalogFile);
+		this.scheduleDirectory = Paths.get(scheduleDirectory);
+	}
+
+	/**
+	 * Reads every Course in the catalog file with CourseRecordIO.readCourseRecords().
+	 * @return the Courses in the catalog
+	 * @throws FileNotFoundException if the catalog file can't be found or read
+	 */
+	@Override
+	public ArrayList<Course> loadCatalog() throws FileNotFoundException {
+		return CourseRecordIO.readCourseRecords(catalogFile.toString());
+	}
+
+	/**
+	 * Replaces the catalog file with the given Courses.
+	 * @param courses the Courses in the catalog, in catalog order
+	 * @throws IOException if the catalog file can't be written
+	 */
+	@Override
+	public void saveCatalog(List<Course> courses) throws IOException {
+		ActivityRecordIO.writeActivityRecordsAtomically(catalogFile.toString(), new ArrayList<Activity>(courses));
+	}
+
+	/**
+	 * Replaces the Course with the same name and section in the catalog file by reading and rewriting the whole file.
+	 * @param course the Course to save
+	 * @throws IOException if the catalog file can't be read or written
+	 */
+	@Override
+	public void updateCourse(Course course) throws IOException {
+		ArrayList<Course> courses = loadCatalog();
+		boolean found = false;
+		for (int i = 0; i < courses.size() && !found; i++) {
+			Course c = courses.get(i);
+			if (c.getName().equals(course.getName()) && c.getSection().equals(course.getSection())) {
+				courses.set(i, course);
+				found = true;
+			}
+		}
+		if (!found) {
+			courses.add(course);
+		}
+		saveCatalog(courses);
+	}
+
+	/**
+	 * Reads a student's schedule from the student's schedule file.
+	 * @param studentId id of the student
+	 * @param activities list that the Activities in the schedule are added to, in order
+	 * @return title of the schedule, or null if the student has no schedule file
+	 * @throws IllegalArgumentException with message "Invalid student id." if the id can't be used as a file name
+	 * @throws IOException if the schedule file can't be read
+	 */
+	@Override
+	public String loadSchedule(String studentId, List<Activity> activities) throws IOException {
+		ScheduleRepository.checkStudentId(studentId);
+		Path file = scheduleDirectory.resolve(studentId + ".txt");
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		return ActivityRecordIO.parseSchedule(new String(Files.readAllBytes(file), StandardCharsets.UTF_8), activities);
+	}
+
+	/**
+	 * Saves a student's schedule by atomically replacing the student's schedule file.
+	 * @param studentId id of the student
+	 * @param title title of the schedule
+	 * @param activities the Activities in the schedule, in order
+	 * @throws IllegalArgumentException with message "Invalid student id." if the id can't be used as a file name
+	 * @throws IOException if the schedule file can't be written
+	 */
+	@Override
+	public void saveSchedule(String studentId, String title, List<Activity> activities) throws IOException {
+		ScheduleRepository.checkStudentId(studentId);
+		Files.createDirectories(scheduleDirectory);
+		Path target = scheduleDirectory.resolve(studentId + ".txt");
+		Path temp = AtomicFiles.createTempFile(target);
+		try {
+			Files.write(temp, ActivityRecordIO.formatSchedule(title, activities).getBytes(StandardCharsets.UTF_8));
+			AtomicFiles.force(temp);
+			AtomicFiles.replace(temp, target);
+		} finally {
+			// only left behind if the write or move failed
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Does nothing, since no files are held open between calls.
+	 */
+	@Override
+	public void close() {
+		// no files are held open
+	}
+
+}
@@ -0,0 +1,124 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * The differences between two versions of a course catalog, keyed by course name and section.  A section is added if only
+ * the new catalog has it, removed if only the old catalog has it, and modified if both catalogs have it but as different
+ * Course objects.  CatalogReloader keeps the old Course object for every section whose record didn't change, so a modified
+ * section is always one whose record did change.
+ * 
+ * @author hmreese2
+ *
+ */
+public class CatalogDelta {
+	
+	/** The old catalog */
+	private final CourseCatalog oldCatalog;
+	/** The new catalog */
+	private final CourseCatalog newCatalog;
+	/** Sections only in the new catalog, in new catalog order */
+	private final List<Course> added;
+	/** Sections only in the old catalog, in old catalog order */
+	private final List<Course> removed;
+	/** New versions of the sections that changed, in new catalog order */
+	private final List<Course> modified;
+
+	/**
+	 * Constructs the differences between two catalogs.
+	 * @param oldCatalog the old catalog
+	 * @param newCatalog the new catalog
+	 */
+	CatalogDelta(CourseCatalog oldCatalog, CourseCatalog newCatalog) {
+		this.oldCatalog = oldCatalog;
+		this.newCatalog = newCatalog;
+		ArrayList<Course> addedCourses = new ArrayList<Course>();
+		ArrayList<Course> removedCourses = new ArrayList<Course>();
+		ArrayList<Course> modifiedCourses = new ArrayList<Course>();
+		for (Course c : newCatalog.getCourses()) {
+			Course old = oldCatalog.getCourse(c.getName(), c.getSection());
+			if (old == null) {
+				addedCourses.add(c);
+			} else if (old != c) {
+				modifiedCourses.add(c);
+			}
+		}
+		for (Course c : oldCatalog.getCourses()) {
+			if (newCatalog.getCourse(c.getName(), c.getSection()) == null) {
+				removedCourses.add(c);
+			}
+		}
+		this.added = Collections.unmodifiableList(addedCourses);
+		this.removed = Collections.unmodifiableList(removedCourses);
+		this.modified = Collections.unmodifiableList(modifiedCourses);
+	}
+	
+	/**
+	 * Gets the sections that are only in the new catalog.
+	 * @return an unmodifiable list of the added Courses, in new catalog order
+	 */
+	public List<Course> getAdded() {
+		return added;
+	}
+	
+	/**
+	 * Gets the sections that are only in the old catalog.
+	 * @return an unmodifiable list of the removed Courses, in old catalog order
+	 */
+	public List<Course> getRemoved() {
+		return removed;
+	}
+	
+	/**
+	 * Gets the new versions of the sections that are in both catalogs but changed.
+	 * @return an unmodifiable list of the modified Courses, in new catalog order
+	 */
+	public List<Course> getModified() {
+		return modified;
+	}
+	
+	/**
+	 * Checks whether the catalogs have the same sections with the same records.
+	 * @return true if no section was added, removed, or modified
+	 */
+	public boolean isEmpty() {
+		return added.isEmpty() && removed.isEmpty() && modified.isEmpty();
+	}
+	
+	/**
+	 * Gets the old catalog.
+	 * @return the old catalog
+	 */
+	public CourseCatalog getOldCatalog() {
+		return oldCatalog;
+	}
+	
+	/**
+	 * Gets the new catalog.
+	 * @return the new catalog
+	 */
+	public CourseCatalog getNewCatalog() {
+		return newCatalog;
+	}
+	
+	/**
+	 * Finds what a Course from the old catalog became in the new catalog.
+	 * @param c a Course
+	 * @return the new version of the Course if it was modified, null if it was removed, or the Course itself if it
+	 * didn't change or isn't from the old catalog
+	 */
+	Course getReplacement(Course c) {
+		if (oldCatalog.getCourse(c.getName(), c.getSection()) != c) {
+			return c;
+		}
+		return newCatalog.getCourse(c.getName(), c.getSection());
+	}
+
+}
@@ -0,0 +1,259 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * Keeps a course catalog up to date with its course records file while students' schedules are in use, so the registrar
+ * can change the file without the program being restarted.
+ * 
+ * Each reload reads the file with CourseRecordIO.rereadCourseRecords(), which only parses the lines that changed, and keeps
+ * the old Course object of every section whose record is the same, so seats taken in unchanged sections are kept.  The
+ * differences from the current catalog are found as a CatalogDelta, and the new catalog is published through a volatile
+ * field, so getCatalog() never blocks and always returns a whole catalog.  Each registered WolfScheduler is then told about
+ * the change and fixes its schedule, keeping the sections it drops for WolfScheduler.takeDroppedSections().  A modified
+ * section keeps the seat capacity of its old version and, before the new catalog is published, carries its old version's
+ * seats, so a student can't take the seat of a student who hasn't been moved to the new version yet.
+ * 
+ * start() watches the file's directory with a WatchService and reloads after the file stops changing for DEBOUNCE_MILLIS.
+ * A file that is rewritten in place can be read part way through a write, so the registrar should replace the file in one
+ * step, such as by moving a new file over it.
+ * 
+ * @author hmreese2
+ *
+ */
+public class CatalogReloader implements Closeable {
+	
+	/** Milliseconds the file must go without changing before it is reloaded */
+	public static final long DEBOUNCE_MILLIS = 200;
+	
+	/** Course records file of the catalog */
+	private final Path file;
+	/** The current catalog */
+	private volatile CourseCatalog catalog;
+	/** Courses of the lines of the file as it was last read, keyed by line text */
+	private final HashMap<String, Course> lineCache;
+	/** WolfSchedulers that are told when the catalog changes */
+	private final Set<WolfScheduler> schedulers;
+	/** Watch service of the file's directory, or null if the file isn't being watched */
+	private WatchService watcher;
+	/** Thread that waits for the file to change, or null if the file isn't being watched */
+	private Thread watchThread;
+
+	/**
+	 * Constructs a CatalogReloader and reads the catalog from a course records file.
+	 * @param fileName name of the course records file
+	 * @throws IllegalArgumentException with message "Cannot find file." if the file can't be read
+	 */
+	public CatalogReloader(String fileName) {
+		this.file = Paths.get(fileName).toAbsolutePath();
+		this.lineCache = new HashMap<String, Course>();
+		this.schedulers = ConcurrentHashMap.newKeySet();
+		this.catalog = new CourseCatalog(read(new CourseCatalog(new ArrayList<Course>())));
+	}
+	
+	/**
+	 * Gets the current catalog without blocking.
+	 * @return the current catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalog;
+	}
+	
+	/**
+	 * Registers a WolfScheduler to be told when the catalog changes.  If the WolfScheduler uses a different catalog, its
+	 * schedule is brought up to date with the current catalog first.
+	 * @param ws the WolfScheduler
+	 */
+	public synchronized void register(WolfScheduler ws) {
+		if (ws.getCatalog() != catalog) {
+			ws.catalogChanged(new CatalogDelta(ws.getCatalog(), catalog));
+		}
+		schedulers.add(ws);
+	}
+	
+	/**
+	 * Stops telling a WolfScheduler when the catalog changes.
+	 * @param ws the WolfScheduler
+	 * @return true if the WolfScheduler was registered
+	 */
+	public boolean unregister(WolfScheduler ws) {
+		return schedulers.remove(ws);
+	}
+	
+	/**
+	 * Reads the file again and, if any section changed, publishes the new catalog and tells every registered WolfScheduler.
+	 * @return the differences between the old and new catalog
+	 * @throws IllegalArgumentException with message "Cannot find file." if the file can't be read; the catalog is not changed
+	 */
+	public synchronized CatalogDelta reload() {
+		CourseCatalog old = catalog;
+		ArrayList<Course> courses = read(old);
+		
+		// a section whose record changed keeps the capacity and seats of its old version
+		CatalogDelta delta = new CatalogDelta(old, new CourseCatalog(courses, old));
+		if (!delta.isEmpty()) {
+			catalog = delta.getNewCatalog();
+			for (WolfScheduler ws : schedulers) {
+				ws.catalogChanged(delta);
+			}
+		}
+		return delta;
+	}
+	
+	/**
+	 * Publishes a new catalog where a section has a new seat capacity, such as when the registrar opens more seats, and
+	 * tells every registered WolfScheduler.  Seats already taken in the section are kept.  The capacity isn't in the file,
+	 * so later reloads keep it.
+	 * @param name name of the section's course
+	 * @param section the section
+	 * @param capacity the new capacity, or Course.UNLIMITED_CAPACITY for no seat limit
+	 * @return the differences between the old and new catalog
+	 * @throws IllegalArgumentException with message "Course doesn't exist." if the catalog has no such section, or with
+	 * message "Invalid capacity." if capacity is negative; the catalog is not changed
+	 */
+	public synchronized CatalogDelta updateCapacity(String name, String section, int capacity) {
+		CourseCatalog old = catalog;
+		CatalogDelta delta = new CatalogDelta(old, old.withCapacity(name, section, capacity));
+		catalog = delta.getNewCatalog();
+		for (WolfScheduler ws : schedulers) {
+			ws.catalogChanged(delta);
+		}
+		return delta;
+	}
+	
+	/**
+	 * Starts watching the file, reloading the catalog on a background thread each time the file changes.  Errors reading
+	 * the file are ignored, leaving the catalog as it was until the file changes again.
+	 * @throws IllegalArgumentException with message "Cannot find file." if the file's directory can't be watched
+	 */
+	public synchronized void start() {
+		if (watchThread != null) {
+			return;
+		}
+		try {
+			watcher = FileSystems.getDefault().newWatchService();
+			file.getParent().register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		watchThread = new Thread(this::watch, "catalog-reloader");
+		watchThread.setDaemon(true);
+		watchThread.start();
+	}
+	
+	/**
+	 * Stops watching the file.
+	 * @throws IOException if the watch service can't be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		Thread thread;
+		synchronized (this) {
+			thread = watchThread;
+			watchThread = null;
+			if (watcher != null) {
+				watcher.close();
+				watcher = null;
+			}
+		}
+		if (thread != null) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Private helper method run by the watch thread that waits for the file to change and reloads the catalog, until the
+	 * watch service is closed.
+	 */
+	private void watch() {
+		WatchService service;
+		synchronized (this) {
+			service = watcher;
+		}
+		try {
+			while (true) {
+				// wait for something in the directory to change, then until nothing has changed for DEBOUNCE_MILLIS
+				boolean changed = changed(service.take());
+				WatchKey key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+				while (key != null) {
+					changed |= changed(key);
+					key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				try {
+					if (changed) {
+						reload();
+					}
+				} catch (IllegalArgumentException e) {
+					// the file can't be read right now, keep the current catalog
+				}
+			}
+		} catch (ClosedWatchServiceException | InterruptedException e) {
+			// stop watching
+		}
+	}
+	
+	/**
+	 * Private helper method that checks whether the events of a watch key include a change to the file, and resets the key.
+	 * @param key the watch key
+	 * @return true if the file changed
+	 */
+	private boolean changed(WatchKey key) {
+		boolean changed = false;
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+				changed = true;
+			}
+		}
+		key.reset();
+		return changed;
+	}
+	
+	/**
+	 * Private helper method that reads the file, keeping the Course object of the old catalog for every section whose
+	 * record is the same.
+	 * @param old the old catalog
+	 * @return the Courses in the file
+	 * @throws IllegalArgumentException with message "Cannot find file." if the file can't be read
+	 */
+	private ArrayList<Course> read(CourseCatalog old) {
+		ArrayList<Course> courses;
+		try {
+			courses = CourseRecordIO.rereadCourseRecords(file.toString(), lineCache);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			Course previous = old.getCourse(c.getName(), c.getSection());
+			if (c.equals(previous)) {
+				courses.set(i, previous);
+			}
+		}
+		return courses;
+	}
+
+}
@@ -0,0 +1,86 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Index of the meeting times of the activities in a schedule, used to find a conflicting activity without comparing against
+ * every scheduled activity.  For each day of the week, the index keeps the activities that meet on that day sorted by start time.
+ * Because the index only ever holds activities that don't conflict with each other, the intervals on a day never overlap, so the
+ * only activity that can conflict with a new activity on a day is the one with the latest start time that is not after the new
+ * activity's end time.  Each lookup is a TreeMap floor search per meeting day, O(log n).
+ * 
+ * Arranged activities have no meeting times and are never added to the index.
+ * 
+ * @author hmreese2
+ *
+ */
+public class ConflictIndex {
+	
+	/** Number of days in a week */
+	private static final int DAYS = 7;
+	/** Activities meeting on each day (Monday through Sunday, in Activity day bit order) keyed by start time */
+	private final List<TreeMap<Integer, Activity>> days;
+
+	/**
+	 * Constructs an empty ConflictIndex.
+	 */
+	public ConflictIndex() {
+		days = new ArrayList<TreeMap<Integer, Activity>>(DAYS);
+		for (int i = 0; i < DAYS; i++) {
+			days.add(new TreeMap<Integer, Activity>());
+		}
+	}
+	
+	/**
+	 * Finds a scheduled activity that conflicts with the given activity, as defined by Activity.checkConflict().
+	 * @param activity the activity to check
+	 * @return an activity in the index that conflicts with the given activity, or null if there is none
+	 */
+	public Activity findConflict(Activity activity) {
+		int mask = activity.getMeetingDaysMask() & Activity.ALL_DAYS;
+		for (int day = 0; day < DAYS; day++) {
+			if ((mask & (1 << day)) != 0) {
+				Map.Entry<Integer, Activity> latest = days.get(day).floorEntry(activity.getEndTime());
+				if (latest != null && latest.getValue().getEndTime() >= activity.getStartTime()) {
+					return latest.getValue();
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Adds an activity to the index.  The activity must not conflict with any activity already in the index.
+	 * @param activity the activity to add
+	 */
+	public void add(Activity activity) {
+		int mask = activity.getMeetingDaysMask() & Activity.ALL_DAYS;
+		for (int day = 0; day < DAYS; day++) {
+			if ((mask & (1 << day)) != 0) {
+				days.get(day).put(activity.getStartTime(), activity);
+			}
+		}
+	}
+	
+	/**
+	 * Removes an activity from the index.
+	 * @param activity the activity to remove
+	 */
+	public void remove(Activity activity) {
+		int mask = activity.getMeetingDaysMask() & Activity.ALL_DAYS;
+		for (int day = 0; day < DAYS; day++) {
+			if ((mask & (1 << day)) != 0) {
+				days.get(day).remove(activity.getStartTime(), activity);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,284 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.io.CatalogSnapshotIO;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+
+/**
+ * A course catalog that is loaded once and indexed for the lookups WolfScheduler needs.  A CourseCatalog is never changed
+ * after it is constructed, and its Courses are made read-only when it is constructed, so one catalog can be shared by the
+ * WolfSchedulers of many students at the same time without locking.  A change to the catalog is made by building a new
+ * version with withCourse(), withoutCourse(), or withCapacity() and publishing it, such as with
+ * SchedulerRegistry.updateCatalog(); readers of the old version are not affected.  A Course in a new version that replaces
+ * a different version of the same section takes that version's capacity and counts its seats together with it before the
+ * Course is made read-only, so students holding a seat keep it and no other student can take it while they are moved to
+ * the new version.
+ * 
+ * @author hmreese2
+ *
+ */
+public class CourseCatalog {
+	
+	/** Courses in the catalog, in file order */
+	private final List<Course> courses;
+	/** Index of the Courses keyed by course name and section, used for constant-time lookups */
+	private final HashMap<String, Course> index;
+	/** Sections of each Course keyed by course name, in catalog order, used by the schedule generator */
+	private final HashMap<String, List<Course>> sections;
+	/** Meeting days mask, start minute, and end minute of each Course, three entries per Course in catalog order */
+	private final int[] times;
+
+	/**
+	 * Constructs a CourseCatalog from a course record input file, or from a catalog snapshot written by CatalogSnapshotIO.
+	 * @param fileName name of the file that the catalog is read from
+	 * @throws IllegalArgumentException with message "Cannot find file." if there is an issue reading the course records
+	 */
+	public CourseCatalog(String fileName) {
+		this(fileName, false);
+	}
+	
+	/**
+	 * Constructs a CourseCatalog from a course record input file, optionally reading the file with the parallel loader for
+	 * very large catalogs.  If the file is a catalog snapshot written by CatalogSnapshotIO, it is read as a snapshot instead.
+	 * @param fileName name of the file that the catalog is read from
+	 * @param parallelLoad true if the course records should be read with CourseRecordIO.readCourseRecordsParallel()
+	 * @throws IllegalArgumentException with message "Cannot find file." if there is an issue reading the course records
+	 */
+	public CourseCatalog(String fileName, boolean parallelLoad) {
+		this(load(fileName, parallelLoad));
+	}
+	
+	/**
+	 * Constructs a CourseCatalog from a list of Courses.  The list is copied, so later changes to it don't affect the catalog,
+	 * but the Courses themselves are not: each Course in the list is made read-only, so the caller can no longer change
+	 * it either.
+	 * @param courses the Courses in the catalog, in catalog order
+	 */
+	public CourseCatalog(List<Course> courses) {
+		this(courses, null);
+	}
+	
+	/**
+	 * Constructs a new version of a catalog from a list of Courses.  Each Course that replaces a different version of the
+	 * same section in the previous version, and doesn't already count its seats with it, takes that version's capacity and
+	 * seats before it is made read-only.  A replacing Course that is already read-only, such as one from another catalog,
+	 * is copied first.
+	 * @param courses the Courses in the catalog, in catalog order
+	 * @param previous the version this catalog replaces, or null if there is none
+	 */
+	CourseCatalog(List<Course> courses, CourseCatalog previous) {
+		ArrayList<Course> list = new ArrayList<Course>(courses);
+		if (previous != null) {
+			for (int i = 0; i < list.size(); i++) {
+				Course c = list.get(i);
+				Course old = previous.getCourse(c.getName(), c.getSection());
+				if (old != null && old != c && !c.sharesSeatsWith(old)) {
+					if (c.isReadOnly()) {
+						c = copyOf(c);
+						list.set(i, c);
+					}
+					c.setCapacity(old.getCapacity());
+					c.carrySeatsFrom(old);
+				}
+			}
+		}
+		this.courses = Collections.unmodifiableList(list);
+		for (Course c : this.courses) {
+			c.makeReadOnly();
+		}
+		
+		// index catalog by name and section (first occurrence wins, matching the catalog order)
+		this.index = new HashMap<String, Course>();
+		this.sections = new HashMap<String, List<Course>>();
+		for (Course c : this.courses) {
+			if (index.putIfAbsent(key(c.getName(), c.getSection()), c) == null) {
+				sections.computeIfAbsent(c.getName(), k -> new ArrayList<Course>()).add(c);
+			}
+		}
+		
+		// precompute the meeting times of each catalog course for fit checks
+		this.times = new int[this.courses.size() * 3];
+		for (int i = 0; i < this.courses.size(); i++) {
+			Course c = this.courses.get(i);
+			times[i * 3] = c.getMeetingDaysMask();
+			times[i * 3 + 1] = OccupancyBitmap.minuteOfDay(c.getStartTime());
+			times[i * 3 + 2] = OccupancyBitmap.minuteOfDay(c.getEndTime());
+		}
+	}
+	
+	/**
+	 * Gets the Courses in the catalog, in catalog order.
+	 * @return an unmodifiable list of the Courses
+	 */
+	public List<Course> getCourses() {
+		return courses;
+	}
+	
+	/**
+	 * Gets the number of Courses in the catalog.
+	 * @return number of Courses
+	 */
+	public int size() {
+		return courses.size();
+	}
+	
+	/**
+	 * Finds a Course in the catalog using its name and section.
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return the Course, or null if the catalog has no such Course
+	 */
+	public Course getCourse(String name, String section) {
+		return index.get(key(name, section));
+	}
+	
+	/**
+	 * Gets the sections of a Course in the catalog.
+	 * @param name name of the Course
+	 * @return an unmodifiable list of the sections in catalog order, or null if the catalog has no Course with the name
+	 */
+	public List<Course> getSections(String name) {
+		List<Course> list = sections.get(name);
+		return list == null ? null : Collections.unmodifiableList(list);
+	}
+	
+	/**
+	 * Builds a new version of the catalog with a Course added, or with it replacing the Course with the same name and section
+	 * in the same place.  This catalog is not changed.  The given Course itself goes into the new version and is made
+	 * read-only, so the caller can no longer change it.  A replacing Course takes the capacity and seats of the Course it
+	 * replaces; use withCapacity() to change the capacity of a section.
+	 * @param course the Course to add
+	 * @return the new version of the catalog
+	 * @throws IllegalArgumentException with message "Invalid course." if course is null
+	 */
+	public CourseCatalog withCourse(Course course) {
+		if (course == null) {
+			throw new IllegalArgumentException("Invalid course.");
+		}
+		ArrayList<Course> updated = new ArrayList<Course>(courses);
+		Course old = getCourse(course.getName(), course.getSection());
+		if (old == null) {
+			updated.add(course);
+		} else {
+			updated.set(updated.indexOf(old), course);
+		}
+		return new CourseCatalog(updated, this);
+	}
+	
+	/**
+	 * Builds a new version of the catalog without the Course with a name and section.  This catalog is not changed.
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @return the new version of the catalog, or this catalog if it has no such Course
+	 */
+	public CourseCatalog withoutCourse(String name, String section) {
+		Course old = getCourse(name, section);
+		if (old == null) {
+			return this;
+		}
+		ArrayList<Course> updated = new ArrayList<Course>(courses);
+		updated.removeIf(c -> c.getName().equals(name) && c.getSection().equals(section));
+		return new CourseCatalog(updated, this);
+	}
+	
+	/**
+	 * Builds a new version of the catalog where the Course with a name and section has a new seat capacity.  This catalog is
+	 * not changed.  The section is replaced by a copy that keeps counting the seats already taken, which are kept if the
+	 * capacity is lowered below them.
+	 * @param name name of the Course
+	 * @param section section of the Course
+	 * @param capacity the new capacity, or Course.UNLIMITED_CAPACITY for no seat limit
+	 * @return the new version of the catalog
+	 * @throws IllegalArgumentException with message "Course doesn't exist." if the catalog has no such Course, or with
+	 * message "Invalid capacity." if capacity is negative
+	 */
+	public CourseCatalog withCapacity(String name, String section, int capacity) {
+		Course old = getCourse(name, section);
+		if (old == null) {
+			throw new IllegalArgumentException("Course doesn't exist.");
+		}
+		Course resized = copyOf(old);
+		resized.setCapacity(capacity);
+		resized.carrySeatsFrom(old);
+		ArrayList<Course> updated = new ArrayList<Course>(courses);
+		updated.set(updated.indexOf(old), resized);
+		return new CourseCatalog(updated, this);
+	}
+	
+	/**
+	 * Gets the meeting days mask of the Course at an index, as returned by Activity.getMeetingDaysMask().
+	 * @param idx index of the Course in the catalog
+	 * @return meeting days mask
+	 */
+	int getMeetingDaysMask(int idx) {
+		return times[idx * 3];
+	}
+	
+	/**
+	 * Gets the minute of the day that the Course at an index starts.
+	 * @param idx index of the Course in the catalog
+	 * @return start minute
+	 */
+	int getStartMinute(int idx) {
+		return times[idx * 3 + 1];
+	}
+	
+	/**
+	 * Gets the minute of the day that the Course at an index ends.
+	 * @param idx index of the Course in the catalog
+	 * @return end minute
+	 */
+	int getEndMinute(int idx) {
+		return times[idx * 3 + 2];
+	}
+	
+	/**
+	 * Private helper method that reads the Courses of a catalog file.
+	 * @param fileName name of the file that the catalog is read from
+	 * @param parallelLoad true if the course records should be read with CourseRecordIO.readCourseRecordsParallel()
+	 * @return the Courses in the file
+	 * @throws IllegalArgumentException with message "Cannot find file." if there is an issue reading the course records
+	 */
+	private static ArrayList<Course> load(String fileName, boolean parallelLoad) {
+		try {
+			if (CatalogSnapshotIO.isCatalogSnapshot(fileName)) {
+				return CatalogSnapshotIO.readCatalogSnapshot(fileName);
+			} else if (parallelLoad) {
+				return CourseRecordIO.readCourseRecordsParallel(fileName);
+			} else {
+				return CourseRecordIO.readCourseRecords(fileName);
+			}
+		} catch (Exception e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+	}
+	
+	/**
+	 * Private helper method that makes a writable copy of a Course, without its capacity or seats.
+	 * @param c the Course
+	 * @return the copy
+	 */
+	private static Course copyOf(Course c) {
+		return new Course(c.getName(), c.getTitle(), c.getSection(), c.getCredits(), c.getInstructorId(), c.getMeetingDays(),
+				c.getStartTime(), c.getEndTime());
+	}
+	
+	/**
+	 * Private helper method that builds the key used to index a Course by its name and section.
+	 * @param name name of the course
+	 * @param section section of the course
+	 * @return index key for the course
+	 */
+	private static String key(String name, String section) {
+		return name + "," + section;
+	}
+
+}
@@ -0,0 +1,162 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Arrays;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+
+/**
+ * Bitmap of the minutes of the week that are taken by the activities in a schedule, with one bit for each of the 7 x 1440
+ * minutes of the week.  An activity takes every minute from its start time through its end time on each of its meeting days,
+ * which matches Activity.checkConflict(), so checking whether an activity fits is a few AND operations on the words spanned by
+ * its meeting times rather than a comparison against every scheduled activity.
+ * 
+ * Arranged activities have no meeting times, so they never take any minutes.
+ * 
+ * @author hmreese2
+ *
+ */
+public class OccupancyBitmap {
+	
+	/** Number of days in a week */
+	private static final int DAYS = 7;
+	/** Number of minutes in a day */
+	private static final int MINUTES_PER_DAY = 24 * 60;
+	/** Number of bits in a word of the bitmap */
+	private static final int WORD_BITS = Long.SIZE;
+	/** Bits of the bitmap, where bit (day * 1440 + minute of day) is set if that minute is taken */
+	private final long[] words;
+
+	/**
+	 * Constructs an empty OccupancyBitmap where every minute is free.
+	 */
+	public OccupancyBitmap() {
+		words = new long[(DAYS * MINUTES_PER_DAY + WORD_BITS - 1) / WORD_BITS];
+	}
+	
+	/**
+	 * Constructs an OccupancyBitmap with the same taken minutes as another bitmap.
+	 * @param other the bitmap to copy
+	 */
+	public OccupancyBitmap(OccupancyBitmap other) {
+		words = other.words.clone();
+	}
+	
+	/**
+	 * Checks whether every minute that the activity meets is free.
+	 * @param activity the activity to check
+	 * @return true if the activity doesn't overlap any taken minute, false otherwise
+	 */
+	public boolean isFree(Activity activity) {
+		return isFree(activity.getMeetingDaysMask(), minuteOfDay(activity.getStartTime()), minuteOfDay(activity.getEndTime()));
+	}
+	
+	/**
+	 * Checks whether every minute from the start minute through the end minute on each of the given days is free.
+	 * @param meetingDaysMask mask of Activity day bits
+	 * @param startMinute first minute of the day, from 0 to 1439
+	 * @param endMinute last minute of the day, from startMinute to 1439
+	 * @return true if none of the minutes are taken, false otherwise
+	 */
+	public boolean isFree(int meetingDaysMask, int startMinute, int endMinute) {
+		for (int day = 0; day < DAYS; day++) {
+			if ((meetingDaysMask & (1 << day)) != 0 && intersects(day * MINUTES_PER_DAY + startMinute, day * MINUTES_PER_DAY + endMinute)) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Marks every minute that the activity meets as taken.
+	 * @param activity the activity that takes the minutes
+	 */
+	public void occupy(Activity activity) {
+		update(activity, true);
+	}
+	
+	/**
+	 * Marks every minute that the activity meets as free.  Since activities in a schedule don't conflict, no other activity
+	 * shares these minutes.
+	 * @param activity the activity that no longer takes the minutes
+	 */
+	public void release(Activity activity) {
+		update(activity, false);
+	}
+	
+	/**
+	 * Marks every minute of the week as free.
+	 */
+	public void clear() {
+		Arrays.fill(words, 0);
+	}
+	
+	/**
+	 * Converts a time in 24 hour HHMM format to the number of minutes since midnight.
+	 * @param time the time in HHMM format
+	 * @return the minute of the day
+	 */
+	public static int minuteOfDay(int time) {
+		return time / 100 * 60 + time % 100;
+	}
+	
+	/**
+	 * Private helper method that sets or clears the bits for every minute that the activity meets.
+	 * @param activity the activity whose minutes are updated
+	 * @param taken true to set the bits, false to clear them
+	 */
+	private void update(Activity activity, boolean taken) {
+		int mask = activity.getMeetingDaysMask();
+		int startMinute = minuteOfDay(activity.getStartTime());
+		int endMinute = minuteOfDay(activity.getEndTime());
+		for (int day = 0; day < DAYS; day++) {
+			if ((mask & (1 << day)) != 0) {
+				int from = day * MINUTES_PER_DAY + startMinute;
+				int to = day * MINUTES_PER_DAY + endMinute;
+				for (int w = from / WORD_BITS; w <= to / WORD_BITS; w++) {
+					if (taken) {
+						words[w] |= wordMask(w, from, to);
+					} else {
+						words[w] &= ~wordMask(w, from, to);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Private helper method that checks whether any bit from one bit through another is set.
+	 * @param from the first bit
+	 * @param to the last bit, inclusive
+	 * @return true if any of the bits are set
+	 */
+	private boolean intersects(int from, int to) {
+		for (int w = from / WORD_BITS; w <= to / WORD_BITS; w++) {
+			if ((words[w] & wordMask(w, from, to)) != 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Private helper method that gets the bits of a word that lie between two bits of the bitmap.
+	 * @param w index of the word
+	 * @param from the first bit of the bitmap
+	 * @param to the last bit of the bitmap, inclusive
+	 * @return mask of the bits in the word from the first bit through the last bit
+	 */
+	private static long wordMask(int w, int from, int to) {
+		long mask = -1L;
+		if (w == from / WORD_BITS) {
+			mask &= -1L << (from % WORD_BITS);
+		}
+		if (w == to / WORD_BITS) {
+			mask &= -1L >>> (WORD_BITS - 1 - to % WORD_BITS);
+		}
+		return mask;
+	}
+
+}
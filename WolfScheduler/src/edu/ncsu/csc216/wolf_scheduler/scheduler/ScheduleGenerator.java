@@ -0,0 +1,279 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Searches for combinations of course sections that don't conflict with each other or with a set of fixed activities, and
+ * keeps the best ones according to a ScheduleScorer.
+ * 
+ * The search backtracks through the courses one at a time, trying each section whose meeting times are still free in an
+ * OccupancyBitmap, so any partial combination with a conflict is abandoned as soon as it is found.  Courses with fewer sections
+ * are tried first to keep the search tree narrow.  Sections without an open seat are never chosen, and a partial combination
+ * is abandoned once its credits, plus the fewest credits the remaining courses could add, go over the credit limit.  Each
+ * section of the first course is searched as a separate task on the common ForkJoinPool.  The search stops early when the time limit is reached, in which case the best combinations found so
+ * far are returned and wasCutShort() is true.
+ * 
+ * @author hmreese2
+ *
+ */
+public class ScheduleGenerator {
+	
+	/** Greatest number of combinations that are returned */
+	private final int maxResults;
+	/** Greatest number of milliseconds that the search may take */
+	private final long timeLimitMillis;
+	/** Scorer used to rank combinations */
+	private final ScheduleScorer scorer;
+	/** True if the last search stopped because it reached the time limit */
+	private volatile boolean cutShort;
+
+	/**
+	 * Constructs a ScheduleGenerator.
+	 * @param maxResults greatest number of combinations to return
+	 * @param timeLimitMillis greatest number of milliseconds the search may take
+	 * @param scorer scorer used to rank combinations
+	 * @throws IllegalArgumentException if maxResults or timeLimitMillis is not positive, or scorer is null
+	 */
+	public ScheduleGenerator(int maxResults, long timeLimitMillis, ScheduleScorer scorer) {
+		if (maxResults <= 0 || timeLimitMillis <= 0 || scorer == null) {
+			throw new IllegalArgumentException("Invalid schedule generator settings.");
+		}
+		this.maxResults = maxResults;
+		this.timeLimitMillis = timeLimitMillis;
+		this.scorer = scorer;
+	}
+	
+	/**
+	 * Finds the best combinations that take one section from each list of sections, where no two sections conflict, no section
+	 * conflicts with a fixed activity, and every section has an open seat.
+	 * @param choices the sections that can be chosen for each course
+	 * @param fixed activities that every combination must fit around
+	 * @return the best combinations, best first, each listing its sections in the same order as the choices
+	 */
+	public ArrayList<ArrayList<Course>> generate(List<? extends List<Course>> choices, List<? extends Activity> fixed) {
+		return generate(choices, fixed, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Finds the best combinations that take one section from each list of sections, where no two sections conflict, no section
+	 * conflicts with a fixed activity, every section has an open seat, and the sections' credits add up to no more than a limit.
+	 * @param choices the sections that can be chosen for each course
+	 * @param fixed activities that every combination must fit around
+	 * @param creditLimit greatest number of credits a combination may have
+	 * @return the best combinations, best first, each listing its sections in the same order as the choices
+	 */
+	public ArrayList<ArrayList<Course>> generate(List<? extends List<Course>> choices, List<? extends Activity> fixed, int creditLimit) {
+		cutShort = false;
+		long deadline = System.nanoTime() + timeLimitMillis * 1_000_000L;
+		ArrayList<ArrayList<Course>> results = new ArrayList<ArrayList<Course>>();
+		if (choices.isEmpty()) {
+			return results;
+		}
+		
+		// search courses with fewer sections first, remembering where each belongs in the results
+		Integer[] order = new Integer[choices.size()];
+		for (int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingInt(i -> choices.get(i).size()));
+		Course[][] sections = new Course[order.length][];
+		for (int i = 0; i < order.length; i++) {
+			sections[i] = choices.get(order[i]).toArray(new Course[0]);
+		}
+		
+		// fewest credits that the courses from each depth onward can add, used to prune on the credit limit
+		int[] minCredits = new int[order.length + 1];
+		for (int i = order.length - 1; i >= 0; i--) {
+			int fewest = Integer.MAX_VALUE;
+			for (Course c : sections[i]) {
+				fewest = Math.min(fewest, c.getCredits());
+			}
+			minCredits[i] = (int) Math.min(Integer.MAX_VALUE, (long) minCredits[i + 1] + fewest);
+		}
+		if (minCredits[0] > creditLimit) {
+			return results;
+		}
+		
+		// search each section of the first course as its own task
+		ArrayList<ForkJoinTask<PriorityQueue<Combination>>> tasks = new ArrayList<ForkJoinTask<PriorityQueue<Combination>>>();
+		for (Course first : sections[0]) {
+			tasks.add(ForkJoinPool.commonPool().submit(() -> {
+				PriorityQueue<Combination> best = new PriorityQueue<Combination>();
+				OccupancyBitmap occupancy = new OccupancyBitmap();
+				for (Activity a : fixed) {
+					if (!occupancy.isFree(a)) {
+						return best;
+					}
+					occupancy.occupy(a);
+				}
+				if (fits(first, occupancy, first.getCredits() + minCredits[1], creditLimit)) {
+					Course[] chosen = new Course[sections.length];
+					chosen[0] = first;
+					occupancy.occupy(first);
+					search(sections, 1, chosen, first.getCredits(), occupancy, order, best, deadline, minCredits, creditLimit);
+				}
+				return best;
+			}));
+		}
+		
+		// merge the best combinations of every task
+		PriorityQueue<Combination> best = new PriorityQueue<Combination>();
+		for (ForkJoinTask<PriorityQueue<Combination>> task : tasks) {
+			for (Combination c : task.join()) {
+				keep(best, c);
+			}
+		}
+		ArrayList<Combination> sorted = new ArrayList<Combination>(best);
+		Collections.sort(sorted, Collections.reverseOrder());
+		for (Combination c : sorted) {
+			results.add(c.sections);
+		}
+		return results;
+	}
+	
+	/**
+	 * Checks whether the last search stopped because it reached the time limit.
+	 * @return true if the last search was cut short
+	 */
+	public boolean wasCutShort() {
+		return cutShort;
+	}
+	
+	/**
+	 * Private helper method that chooses a section for each remaining course, backtracking on conflicts.
+	 * @param sections sections of each course, in search order
+	 * @param depth index of the course to choose a section for
+	 * @param chosen sections chosen so far, in search order
+	 * @param credits credits of the sections chosen so far
+	 * @param occupancy minutes taken by the fixed activities and chosen sections
+	 * @param order index in the results of each course in search order
+	 * @param best the best combinations found so far
+	 * @param deadline System.nanoTime() value at which the search stops
+	 * @param minCredits fewest credits that the courses from each depth onward can add
+	 * @param creditLimit greatest number of credits a combination may have
+	 */
+	private void search(Course[][] sections, int depth, Course[] chosen, int credits, OccupancyBitmap occupancy, Integer[] order,
+			PriorityQueue<Combination> best, long deadline, int[] minCredits, int creditLimit) {
+		if (cutShort || System.nanoTime() > deadline) {
+			cutShort = true;
+			return;
+		}
+		if (depth == sections.length) {
+			Course[] inOrder = new Course[chosen.length];
+			for (int i = 0; i < chosen.length; i++) {
+				inOrder[order[i]] = chosen[i];
+			}
+			ArrayList<Course> combination = new ArrayList<Course>(Arrays.asList(inOrder));
+			keep(best, new Combination(combination, scorer.score(combination)));
+			return;
+		}
+		
+		for (Course c : sections[depth]) {
+			if (fits(c, occupancy, credits + c.getCredits() + minCredits[depth + 1], creditLimit)) {
+				chosen[depth] = c;
+				occupancy.occupy(c);
+				search(sections, depth + 1, chosen, credits + c.getCredits(), occupancy, order, best, deadline, minCredits, creditLimit);
+				occupancy.release(c);
+			}
+		}
+	}
+	
+	/**
+	 * Private helper method that checks whether a section can be chosen.
+	 * @param c the section
+	 * @param occupancy minutes taken by the fixed activities and chosen sections
+	 * @param fewestCredits fewest credits a combination with the section could have
+	 * @param creditLimit greatest number of credits a combination may have
+	 * @return true if the section's meeting times are free, it has an open seat, and the credit limit can still be met
+	 */
+	private static boolean fits(Course c, OccupancyBitmap occupancy, int fewestCredits, int creditLimit) {
+		return fewestCredits <= creditLimit && c.getEnrolled() < c.getCapacity() && occupancy.isFree(c);
+	}
+	
+	/**
+	 * Private helper method that adds a combination to the best combinations, dropping the worst if there are too many.
+	 * @param best the best combinations, worst at the head
+	 * @param c the combination to add
+	 */
+	private void keep(PriorityQueue<Combination> best, Combination c) {
+		best.add(c);
+		if (best.size() > maxResults) {
+			best.poll();
+		}
+	}
+	
+	/**
+	 * A combination of sections with its score.  Combinations are ordered by score, and combinations with the same score are
+	 * ordered by their course names and sections so that results don't depend on which task found them.
+	 */
+	private static class Combination implements Comparable<Combination> {
+		
+		/** One section of each course */
+		private final ArrayList<Course> sections;
+		/** Score of the combination */
+		private final int score;
+		/** Names and sections of the combination, used to break ties */
+		private final String key;
+		
+		/**
+		 * Constructs a Combination.
+		 * @param sections one section of each course
+		 * @param score score of the combination
+		 */
+		Combination(ArrayList<Course> sections, int score) {
+			this.sections = sections;
+			this.score = score;
+			StringBuilder sb = new StringBuilder();
+			for (Course c : sections) {
+				sb.append(c.getName()).append('-').append(c.getSection()).append(';');
+			}
+			this.key = sb.toString();
+		}
+
+		/**
+		 * Compares combinations by score; with equal scores, the combination whose names and sections sort first is greater.
+		 * @param other the combination to compare to
+		 * @return negative, zero, or positive as this combination is worse than, the same as, or better than the other
+		 */
+		@Override
+		public int compareTo(Combination other) {
+			if (score != other.score) {
+				return Integer.compare(score, other.score);
+			}
+			return other.key.compareTo(key);
+		}
+		
+		/**
+		 * Checks whether two combinations have the same sections.
+		 * @param obj the object to compare
+		 * @return true if obj is a Combination with the same sections
+		 */
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Combination && key.equals(((Combination) obj).key);
+		}
+		
+		/**
+		 * Generates a hash code from the sections.
+		 * @return hash code of the combination
+		 */
+		@Override
+		public int hashCode() {
+			return key.hashCode();
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Scores a combination of course sections found by the ScheduleGenerator, where a higher score is a better schedule.
+ * 
+ * @author hmreese2
+ *
+ */
+public interface ScheduleScorer {
+	
+	/** Prefers schedules that meet on the fewest days of the week */
+	ScheduleScorer FEWEST_DAYS = sections -> {
+		int days = 0;
+		for (Course c : sections) {
+			days |= c.getMeetingDaysMask() & Activity.ALL_DAYS;
+		}
+		return -Integer.bitCount(days);
+	};
+	
+	/** Prefers schedules whose earliest class starts latest in the day; arranged sections don't count */
+	ScheduleScorer LATEST_START = sections -> {
+		int earliest = 2400;
+		for (Course c : sections) {
+			if ((c.getMeetingDaysMask() & Activity.ALL_DAYS) != 0) {
+				earliest = Math.min(earliest, c.getStartTime());
+			}
+		}
+		return earliest;
+	};
+
+	/**
+	 * Scores a combination of sections.
+	 * @param sections one section of each requested course
+	 * @return the score, where higher is better
+	 */
+	int score(List<Course> sections);
+
+}
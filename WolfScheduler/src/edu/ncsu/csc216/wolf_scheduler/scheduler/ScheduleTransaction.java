@@ -0,0 +1,120 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * A list of schedule changes that WolfScheduler.applyTransaction() applies all together or not at all, such as dropping one
+ * section of a course and adding another.
+ * 
+ * Drops are applied before adds, so an added course or event is checked against the schedule without the dropped
+ * activities.  Events are checked for valid fields when they are added to the transaction.
+ * 
+ * @author hmreese2
+ *
+ */
+public class ScheduleTransaction {
+	
+	/** Name and section of each course to add, in order */
+	private final ArrayList<String[]> courseAdds;
+	/** Name and section of each course to drop */
+	private final ArrayList<String[]> courseDrops;
+	/** Events to add, in order */
+	private final ArrayList<Event> eventAdds;
+	/** Titles of events to drop */
+	private final ArrayList<String> eventDrops;
+
+	/**
+	 * Constructs an empty ScheduleTransaction.
+	 */
+	public ScheduleTransaction() {
+		courseAdds = new ArrayList<String[]>();
+		courseDrops = new ArrayList<String[]>();
+		eventAdds = new ArrayList<Event>();
+		eventDrops = new ArrayList<String>();
+	}
+	
+	/**
+	 * Adds a course from the catalog to the transaction.
+	 * @param name name of the course
+	 * @param section section of the course
+	 */
+	public void addCourse(String name, String section) {
+		courseAdds.add(new String[] {name, section});
+	}
+	
+	/**
+	 * Drops a course in the schedule in the transaction.
+	 * @param name name of the course
+	 * @param section section of the course
+	 */
+	public void dropCourse(String name, String section) {
+		courseDrops.add(new String[] {name, section});
+	}
+	
+	/**
+	 * Adds an event to the transaction.
+	 * @param eventTitle title of event
+	 * @param eventMeetingDays days that an event meets
+	 * @param eventStartTime time that an event starts
+	 * @param eventEndTime time that an event ends
+	 * @param eventDetails details of an event
+	 * @throws IllegalArgumentException if the event's fields are invalid
+	 */
+	public void addEvent(String eventTitle, String eventMeetingDays, int eventStartTime, int eventEndTime, String eventDetails) {
+		eventAdds.add(new Event(eventTitle, eventMeetingDays, eventStartTime, eventEndTime, eventDetails));
+	}
+	
+	/**
+	 * Drops an event in the schedule in the transaction.
+	 * @param eventTitle title of the event
+	 */
+	public void dropEvent(String eventTitle) {
+		eventDrops.add(eventTitle);
+	}
+	
+	/**
+	 * Checks whether the transaction has no changes.
+	 * @return true if the transaction has no changes
+	 */
+	public boolean isEmpty() {
+		return courseAdds.isEmpty() && courseDrops.isEmpty() && eventAdds.isEmpty() && eventDrops.isEmpty();
+	}
+	
+	/**
+	 * Gets the courses to add.
+	 * @return name and section of each course to add
+	 */
+	ArrayList<String[]> getCourseAdds() {
+		return courseAdds;
+	}
+	
+	/**
+	 * Gets the courses to drop.
+	 * @return name and section of each course to drop
+	 */
+	ArrayList<String[]> getCourseDrops() {
+		return courseDrops;
+	}
+	
+	/**
+	 * Gets the events to add.
+	 * @return the events to add
+	 */
+	ArrayList<Event> getEventAdds() {
+		return eventAdds;
+	}
+	
+	/**
+	 * Gets the events to drop.
+	 * @return titles of the events to drop
+	 */
+	ArrayList<String> getEventDrops() {
+		return eventDrops;
+	}
+
+}
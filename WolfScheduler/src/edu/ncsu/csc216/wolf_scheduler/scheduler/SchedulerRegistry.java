@@ -0,0 +1,166 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Keeps a WolfScheduler session for each student, all sharing one CourseCatalog.  Sessions are created the first time a
+ * student's id is seen and can be looked up, created, and removed by many threads at the same time.  Each session is
+ * synchronized on its own WolfScheduler, so students don't wait on each other to change their schedules.
+ * 
+ * The catalog is published through a volatile field.  updateCatalog() builds a new version of the catalog, publishes it,
+ * and moves every session to it, while getCatalog() and getSession() keep returning without ever waiting for an update.
+ * A section replaced by a new version with CourseCatalog.withCourse() keeps its capacity and seats, carried over when the
+ * new version is built, so students still being moved keep their seats.
+ * 
+ * @author hmreese2
+ *
+ */
+public class SchedulerRegistry {
+	
+	/** Current version of the course catalog shared by every session */
+	private volatile CourseCatalog catalog;
+	/** Waitlists of full courses shared by every session */
+	private final WaitlistManager waitlists;
+	/** Sessions keyed by student id */
+	private final ConcurrentHashMap<String, WolfScheduler> sessions;
+
+	/**
+	 * Constructs a SchedulerRegistry with no sessions whose sessions reject full courses.
+	 * @param catalog the course catalog shared by every session
+	 * @throws IllegalArgumentException with message "Invalid catalog." if catalog is null
+	 */
+	public SchedulerRegistry(CourseCatalog catalog) {
+		this(catalog, null);
+	}
+	
+	/**
+	 * Constructs a SchedulerRegistry with no sessions whose sessions put students on waitlists when courses are full.
+	 * @param catalog the course catalog shared by every session
+	 * @param waitlists the waitlists shared by every session, or null if full courses are rejected
+	 * @throws IllegalArgumentException with message "Invalid catalog." if catalog is null
+	 */
+	public SchedulerRegistry(CourseCatalog catalog, WaitlistManager waitlists) {
+		if (catalog == null) {
+			throw new IllegalArgumentException("Invalid catalog.");
+		}
+		this.catalog = catalog;
+		this.waitlists = waitlists;
+		this.sessions = new ConcurrentHashMap<String, WolfScheduler>();
+	}
+	
+	/**
+	 * Gets the current version of the course catalog shared by every session, without blocking.
+	 * @return the course catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalog;
+	}
+	
+	/**
+	 * Publishes a new version of the course catalog and moves every session to it, as described by 
+	 * WolfScheduler.catalogChanged().  Updates are made one at a time, each building on the version published by the last.
+	 * @param update function that builds the new version from the current version, such as 
+	 * {@code c -> c.withCourse(course)}
+	 * @return the differences between the old and new versions
+	 * @throws IllegalArgumentException with message "Invalid catalog." if the update returns null; the catalog is not changed
+	 */
+	public synchronized CatalogDelta updateCatalog(UnaryOperator<CourseCatalog> update) {
+		CourseCatalog next = update.apply(catalog);
+		if (next == null) {
+			throw new IllegalArgumentException("Invalid catalog.");
+		}
+		CourseCatalog old = catalog;
+		CatalogDelta delta = new CatalogDelta(old, next);
+		catalog = next;
+		for (WolfScheduler ws : sessions.values()) {
+			if (ws.getCatalog() == old) {
+				ws.catalogChanged(delta);
+			} else {
+				moveToCatalog(ws);
+			}
+		}
+		return delta;
+	}
+	
+	/**
+	 * Gets the waitlists shared by every session.
+	 * @return the waitlists, or null if full courses are rejected
+	 */
+	public WaitlistManager getWaitlists() {
+		return waitlists;
+	}
+	
+	/**
+	 * Gets a student's session, creating a session with an empty schedule if the student doesn't have one.
+	 * @param studentId id of the student
+	 * @return the student's WolfScheduler
+	 * @throws IllegalArgumentException with message "Invalid student id." if studentId is null or empty
+	 */
+	public WolfScheduler getSession(String studentId) {
+		checkStudentId(studentId);
+		WolfScheduler ws = sessions.computeIfAbsent(studentId, id -> new WolfScheduler(catalog, waitlists));
+		// the session was created or looked up while an update was being published; it catches up without the registry's
+		// lock, and catalogChanged() ignores the move if the update moved the session first
+		moveToCatalog(ws);
+		return ws;
+	}
+	
+	/**
+	 * Checks whether a student has a session.
+	 * @param studentId id of the student
+	 * @return true if the student has a session
+	 */
+	public boolean hasSession(String studentId) {
+		return studentId != null && sessions.containsKey(studentId);
+	}
+	
+	/**
+	 * Removes a student's session.  The student leaves every waitlist and gives back the seats of every scheduled course, so
+	 * waiting students are promoted into them; the removed WolfScheduler is left with an empty schedule.
+	 * @param studentId id of the student
+	 * @return the removed WolfScheduler, or null if the student had no session
+	 */
+	public WolfScheduler removeSession(String studentId) {
+		WolfScheduler ws = studentId == null ? null : sessions.remove(studentId);
+		if (ws != null) {
+			ws.endSession();
+		}
+		return ws;
+	}
+	
+	/**
+	 * Gets the number of sessions.
+	 * @return number of sessions
+	 */
+	public int getSessionCount() {
+		return sessions.size();
+	}
+	
+	/**
+	 * Private helper method that moves a session to the current version of the catalog, if it isn't already using it.
+	 * @param ws the session
+	 */
+	private void moveToCatalog(WolfScheduler ws) {
+		CourseCatalog current = catalog;
+		CourseCatalog from = ws.getCatalog();
+		if (from != current) {
+			ws.catalogChanged(new CatalogDelta(from, current));
+		}
+	}
+	
+	/**
+	 * Private helper method that checks a student id.
+	 * @param studentId id of the student
+	 * @throws IllegalArgumentException with message "Invalid student id." if studentId is null or empty
+	 */
+	private static void checkStudentId(String studentId) {
+		if (studentId == null || studentId.isEmpty()) {
+			throw new IllegalArgumentException("Invalid student id.");
+		}
+	}
+
+}
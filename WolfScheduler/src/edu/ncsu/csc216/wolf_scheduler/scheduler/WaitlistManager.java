@@ -0,0 +1,240 @@
+/**
+ * 
+ */
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Keeps a first-in, first-out waitlist for each full course section and promotes waiting students when seats open up.
+ * 
+ * A student joins a section's waitlist when the section is full, or when other students are already waiting for it, so
+ * a student who has been waiting is never passed by a student who hasn't.  When a seat is given back, promotion runs on a
+ * background Executor: it takes the open seat for the student at the head of the waitlist and enrolls them, re-running
+ * the duplicate, conflict, and credit checks of WolfScheduler.addCourseToSchedule() against their schedule as it is at that
+ * moment, and checking that the section is still in their catalog.  Students who no longer pass the checks are dropped from
+ * the waitlist, which WolfScheduler.takeDroppedSections() reports to them, and the seat goes to the next student.
+ * 
+ * The waitlists are lock-free queues; only promotion for one section is serialized, so different sections promote at the
+ * same time.  The manager counts promotions and their latency, measured from the seat being given back to the student
+ * being enrolled.
+ * 
+ * @author hmreese2
+ *
+ */
+public class WaitlistManager {
+	
+	/** Executor that runs promotions */
+	private final Executor executor;
+	/** Waitlists keyed by course name and section */
+	private final ConcurrentHashMap<String, Waitlist> waitlists;
+	/** Number of students promoted from a waitlist */
+	private final LongAdder promotions;
+	/** Total nanoseconds between seats being given back and students being promoted into them */
+	private final LongAdder promotionNanos;
+	/** Greatest number of students that have been on one waitlist at once */
+	private final LongAccumulator maxDepth;
+
+	/**
+	 * Constructs a WaitlistManager that promotes students on the common ForkJoinPool.
+	 */
+	public WaitlistManager() {
+		this(ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Constructs a WaitlistManager that promotes students on the given Executor.  If schedules are changed from more than one
+	 * thread, the executor must run promotions on threads of its own, since promotion locks the schedules it enrolls into.
+	 * @param executor the executor that runs promotions
+	 * @throws IllegalArgumentException with message "Invalid executor." if executor is null
+	 */
+	public WaitlistManager(Executor executor) {
+		if (executor == null) {
+			throw new IllegalArgumentException("Invalid executor.");
+		}
+		this.executor = executor;
+		this.waitlists = new ConcurrentHashMap<String, Waitlist>();
+		this.promotions = new LongAdder();
+		this.promotionNanos = new LongAdder();
+		this.maxDepth = new LongAccumulator(Math::max, 0);
+	}
+	
+	/**
+	 * Adds a student's schedule to the end of a course's waitlist.
+	 * @param c the course
+	 * @param session the student's schedule
+	 * @return the student's position on the waitlist, starting at 1, or 0 if the student was already on it
+	 */
+	int join(Course c, WolfScheduler session) {
+		Waitlist waitlist = waitlists.computeIfAbsent(key(c), k -> new Waitlist());
+		if (!waitlist.members.add(session)) {
+			return 0;
+		}
+		waitlist.queue.offer(session);
+		int depth = waitlist.size.incrementAndGet();
+		maxDepth.accumulate(depth);
+		
+		// a seat may have opened before the student joined
+		seatReleased(c);
+		return depth;
+	}
+	
+	/**
+	 * Removes a student's schedule from a course's waitlist.
+	 * @param c the course
+	 * @param session the student's schedule
+	 * @return true if the student was on the waitlist
+	 */
+	boolean leave(Course c, WolfScheduler session) {
+		Waitlist waitlist = waitlists.get(key(c));
+		if (waitlist == null || !waitlist.members.remove(session)) {
+			return false;
+		}
+		waitlist.queue.remove(session);
+		waitlist.size.decrementAndGet();
+		return true;
+	}
+	
+	/**
+	 * Removes a student's schedule from every waitlist it is on.
+	 * @param session the student's schedule
+	 */
+	void leaveAll(WolfScheduler session) {
+		for (Waitlist waitlist : waitlists.values()) {
+			if (waitlist.members.remove(session)) {
+				waitlist.queue.remove(session);
+				waitlist.size.decrementAndGet();
+			}
+		}
+	}
+	
+	/**
+	 * Checks whether any students are waiting for a course.
+	 * @param c the course
+	 * @return true if the course's waitlist isn't empty
+	 */
+	boolean hasWaiting(Course c) {
+		Waitlist waitlist = waitlists.get(key(c));
+		return waitlist != null && waitlist.size.get() > 0;
+	}
+	
+	/**
+	 * Checks whether a student is on a course's waitlist.
+	 * @param c the course
+	 * @param session the student's schedule
+	 * @return true if the student is on the waitlist
+	 */
+	boolean isWaiting(Course c, WolfScheduler session) {
+		Waitlist waitlist = waitlists.get(key(c));
+		return waitlist != null && waitlist.members.contains(session);
+	}
+	
+	/**
+	 * Starts promoting students from a course's waitlist after one of its seats is given back.
+	 * @param c the course
+	 */
+	void seatReleased(Course c) {
+		Waitlist waitlist = waitlists.get(key(c));
+		if (waitlist != null && waitlist.size.get() > 0) {
+			long released = System.nanoTime();
+			executor.execute(() -> promote(c, waitlist, released));
+		}
+	}
+	
+	/**
+	 * Gets the number of students on a course's waitlist.
+	 * @param c the course
+	 * @return the length of the waitlist
+	 */
+	public int getWaitlistSize(Course c) {
+		Waitlist waitlist = waitlists.get(key(c));
+		return waitlist == null ? 0 : waitlist.size.get();
+	}
+	
+	/**
+	 * Gets the greatest number of students that have been on one waitlist at once.
+	 * @return the greatest waitlist length
+	 */
+	public int getMaxWaitlistSize() {
+		return (int) maxDepth.get();
+	}
+	
+	/**
+	 * Gets the number of students that have been promoted from a waitlist.
+	 * @return the number of promotions
+	 */
+	public long getPromotionCount() {
+		return promotions.sum();
+	}
+	
+	/**
+	 * Gets the average time between a seat being given back and a waiting student being enrolled in it.
+	 * @return the average promotion latency in nanoseconds, or 0 if no students have been promoted
+	 */
+	public long getAveragePromotionLatency() {
+		long count = promotions.sum();
+		return count == 0 ? 0 : promotionNanos.sum() / count;
+	}
+	
+	/**
+	 * Private helper method that gives the open seats of a course to the students at the head of its waitlist.
+	 * @param c the course
+	 * @param waitlist the course's waitlist
+	 * @param released System.nanoTime() value when the seat was given back
+	 */
+	private void promote(Course c, Waitlist waitlist, long released) {
+		synchronized (waitlist) {
+			while (waitlist.size.get() > 0 && c.reserveSeat()) {
+				WolfScheduler session = waitlist.queue.poll();
+				if (session == null) {
+					c.releaseSeat();
+					return;
+				}
+				if (!waitlist.members.remove(session)) {
+					// the student left the waitlist while being polled
+					c.releaseSeat();
+					continue;
+				}
+				waitlist.size.decrementAndGet();
+				if (session.enrollFromWaitlist(c)) {
+					promotions.increment();
+					promotionNanos.add(System.nanoTime() - released);
+				} else {
+					c.releaseSeat();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Private helper method that builds the key used to find a course's waitlist by its name and section.
+	 * @param c the course
+	 * @return waitlist key for the course
+	 */
+	private static String key(Course c) {
+		return c.getName() + "," + c.getSection();
+	}
+	
+	/**
+	 * The waitlist of one course section.
+	 */
+	private static class Waitlist {
+		
+		/** Schedules of the waiting students, in the order they joined */
+		private final ConcurrentLinkedQueue<WolfScheduler> queue = new ConcurrentLinkedQueue<WolfScheduler>();
+		/** Schedules of the waiting students, for constant-time membership checks */
+		private final Set<WolfScheduler> members = ConcurrentHashMap.newKeySet();
+		/** Number of waiting students */
+		private final AtomicInteger size = new AtomicInteger();
+	}
+
+}
@@ -3,14 +3,22 @@
  */
 package edu.ncsu.csc216.wolf_scheduler.scheduler;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 import edu.ncsu.csc216.wolf_scheduler.course.Event;
 import edu.ncsu.csc216.wolf_scheduler.io.ActivityRecordIO;
-import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.ScheduleJournal;
+import edu.ncsu.csc216.wolf_scheduler.io.ScheduleRepository;
 
 /**
  * WolfScheduler class is the primary class responsible for managing and and allowing the user to manipulate data related
@@ -20,35 +28,150 @@ import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
  * and remove courses and events from the schedule. Additionally, WolfScheduler provides the functionality to view and display the activities and schedule information
  * in the form of a 2D String array.
  * 
+ * The course catalog is a CourseCatalog that never changes, so many WolfSchedulers can share one catalog.  Each WolfScheduler
+ * holds one student's schedule, and its methods are synchronized on the WolfScheduler so different students' schedules can be
+ * changed at the same time without a shared lock.  A WolfScheduler registered with a CatalogReloader is moved to each new
+ * version of the catalog as the course records file changes, and a session of a SchedulerRegistry is moved to each version
+ * published by SchedulerRegistry.updateCatalog().
+ * 
+ * Changes to the schedule and its title can be undone and redone.  Each change is recorded as the steps needed to reverse it,
+ * such as the index an added activity went to, rather than as a copy of the schedule, and resetting the schedule keeps the
+ * old schedule so undoing the reset only swaps it back.  Only the last MAX_HISTORY changes are kept.
+ * 
+ * A schedule can also be kept in a ScheduleJournal, which records each change before it is made so the schedule can be
+ * rebuilt by openJournal() after the program stops.  The journal is compacted into a snapshot of the schedule after every
+ * COMPACT_THRESHOLD changes.
+ * 
+ * The catalog and schedules can also be kept in a ScheduleRepository, either as text files or in a RecordStore, with
+ * saveSchedule() and loadSchedule().
+ * 
  * @author hmreese2
  *
  */
 public class WolfScheduler {
 	
+	/** Default maximum number of credits that can be in a schedule */
+	public static final int DEFAULT_MAX_CREDITS = 18;
+	/** Greatest number of changes that can be undone */
+	public static final int MAX_HISTORY = 100;
+	/** Number of changes written to the journal before it is compacted */
+	public static final int COMPACT_THRESHOLD = 1000;
+	/** Kind of step that adds an activity to the schedule */
+	private static final int ADD = 0;
+	/** Kind of step that removes an activity from the schedule */
+	private static final int REMOVE = 1;
+	/** Kind of step that resets the schedule */
+	private static final int RESET = 2;
+	/** Kind of step that changes the title */
+	private static final int TITLE = 3;
+	
 	/** Represents the title of the schedule in the WolfScheduler view */
 	private String title;
-	/** Represents an ArrayList of Courses available in a course catalog. */
-	private ArrayList<Course> catalog;
+	/** Represents the Courses available in a course catalog, possibly shared with other WolfSchedulers; replaced by catalogChanged() */
+	private volatile CourseCatalog catalog;
 	/** Represents an ArrayList of Activities currently in a schedule */
 	private ArrayList<Activity> schedule;
+	/** Names of the Courses currently in the schedule, used for the constant-time enrollment duplicate check */
+	private HashSet<String> scheduledCourseNames;
+	/** Meeting times of the activities currently in the schedule, used to reject conflicting activities */
+	private ConflictIndex conflicts;
+	/** Minutes of the week taken by the activities currently in the schedule, used for what-if checks */
+	private OccupancyBitmap occupancy;
+	/** Total credits of the Courses currently in the schedule, kept up to date as the schedule changes */
+	private int scheduledCredits;
+	/** Maximum number of credits that can be in the schedule */
+	private int maxCredits;
+	/** Waitlists of full courses shared with other WolfSchedulers, or null if full courses are rejected */
+	private final WaitlistManager waitlists;
+	/** Changes that can be undone, most recent first, each as the steps it made */
+	private final ArrayDeque<ArrayList<Step>> undoHistory = new ArrayDeque<ArrayList<Step>>();
+	/** Changes that can be redone, most recently undone first */
+	private final ArrayDeque<ArrayList<Step>> redoHistory = new ArrayDeque<ArrayList<Step>>();
+	/** Steps of the change being made by importSchedule() or applyTransaction(), or null if changes are single steps */
+	private ArrayList<Step> currentEdit;
+	/** Journal that changes to the schedule are written to, or null if the schedule isn't journaled */
+	private ScheduleJournal journal;
+	/** Whether the last generateSchedules() search stopped because it reached its time limit */
+	private boolean generationCutShort;
+	/** Whether the journal was closed because a change the student didn't make couldn't be written to it */
+	private boolean journalFailed;
+	/** Whether the session was ended by endSession(), after which waitlist promotions are refused */
+	private boolean ended;
+	/** Short display arrays of the sections dropped by catalog changes or waitlist promotion and not yet reported by takeDroppedSections() */
+	private final ArrayList<String[]> droppedSections = new ArrayList<String[]>();
 
 	/**
 	 * Constructs a WolfScheduler object with an empty schedule ArrayList, title set to "My Schedule", and catalog ArrayList full
-	 * of the courses added from a given course record input file.
+	 * of the courses added from a given course record input file, or from a catalog snapshot written by CatalogSnapshotIO.
 	 * @param fileName name of file that is being used to construct the course catalog of the WolfScheduler
 	 * @throws IllegalArgumentException with message "Cannot find file." if there is an issue reading the course records and populating course catalog object.
 	 */
 	public WolfScheduler(String fileName) {
+		this(fileName, false);
+	}
+
+	/**
+	 * Constructs a WolfScheduler object with an empty schedule ArrayList, title set to "My Schedule", and catalog ArrayList full
+	 * of the courses added from a given course record input file, optionally reading the file with the parallel loader for very large catalogs.
+	 * If the file is a catalog snapshot written by CatalogSnapshotIO, it is read as a snapshot instead.
+	 * @param fileName name of file that is being used to construct the course catalog of the WolfScheduler
+	 * @param parallelLoad true if the course records should be read with CourseRecordIO.readCourseRecordsParallel()
+	 * @throws IllegalArgumentException with message "Cannot find file." if there is an issue reading the course records and populating course catalog object.
+	 */
+	public WolfScheduler(String fileName, boolean parallelLoad) {
+		this(new CourseCatalog(fileName, parallelLoad));
+	}
+	
+	/**
+	 * Constructs a WolfScheduler object with an empty schedule ArrayList, title set to "My Schedule", and a course catalog
+	 * read from a ScheduleRepository.
+	 * @param repository the repository the course catalog is read from
+	 * @throws IllegalArgumentException with message "Cannot find file." if the repository can't read the catalog
+	 */
+	public WolfScheduler(ScheduleRepository repository) {
+		this(loadCatalog(repository));
+	}
+	
+	/**
+	 * Constructs a WolfScheduler object with an empty schedule ArrayList and title set to "My Schedule" that uses a course
+	 * catalog that has already been loaded.  The catalog can be shared with other WolfSchedulers.
+	 * @param catalog the course catalog of the WolfScheduler
+	 * @throws IllegalArgumentException with message "Invalid catalog." if catalog is null
+	 */
+	public WolfScheduler(CourseCatalog catalog) {
+		this(catalog, null);
+	}
+	
+	/**
+	 * Constructs a WolfScheduler object with an empty schedule ArrayList and title set to "My Schedule" that uses a course
+	 * catalog that has already been loaded, and puts the student on a waitlist when a course is full.  The catalog and
+	 * waitlists can be shared with other WolfSchedulers.
+	 * @param catalog the course catalog of the WolfScheduler
+	 * @param waitlists the waitlists of full courses, or null if full courses are rejected
+	 * @throws IllegalArgumentException with message "Invalid catalog." if catalog is null
+	 */
+	public WolfScheduler(CourseCatalog catalog, WaitlistManager waitlists) {
+		if (catalog == null) {
+			throw new IllegalArgumentException("Invalid catalog.");
+		}
+		this.catalog = catalog;
+		this.waitlists = waitlists;
 		// construct empty ArrayList for schedule field
 		this.schedule = new ArrayList<Activity>();
+		this.scheduledCourseNames = new HashSet<String>();
+		this.conflicts = new ConflictIndex();
+		this.occupancy = new OccupancyBitmap();
+		this.maxCredits = DEFAULT_MAX_CREDITS;
 		// initialize title to "My Schedule"
 		this.title = "My Schedule";
-		// add Course objects from file to catalog
-		try {
-			this.catalog = CourseRecordIO.readCourseRecords(fileName);
-		} catch (Exception e) {
-			throw new IllegalArgumentException("Cannot find file.");
-		}
+	}
+	
+	/**
+	 * Gets the course catalog of the WolfScheduler.
+	 * @return the course catalog
+	 */
+	public CourseCatalog getCatalog() {
+		return catalog;
 	}
 
 	/**
@@ -58,27 +181,62 @@ public class WolfScheduler {
 	 * @return 2D String array representation of the course catalog.
 	 */
 	public String[][] getCourseCatalog() {
+		// read the catalog once, since a newer version can be published at any time
+		List<Course> courses = catalog.getCourses();
+		
 		// check if any courses exist
-		if (catalog.isEmpty()) {
+		if (courses.size() == 0) {
 			return new String[0][0];
 		}
 		
 		// construct a String[][] for course catalog
-		String[][] arr = new String[catalog.size()][3];
-        for (int i = 0; i < catalog.size(); i++) {
-            Course c = catalog.get(i);
+		String[][] arr = new String[courses.size()][3];
+        for (int i = 0; i < courses.size(); i++) {
+            Course c = courses.get(i);
             arr[i] = c.getShortDisplayArray();
         }
         return arr;
 	}
 
+	/**
+	 * Gets a 2D String array of the courses in the course catalog that fit the current schedule, in catalog order.  A course fits
+	 * if no course with the same name is in the schedule, its meeting times don't conflict with the schedule, its credits
+	 * don't take the schedule over the maximum credit load, and it has an open seat.
+	 * Format: a row for each Course, 4 columns for course name, section, title, and meetingString.
+	 * @return 2D String array representation of the catalog courses that could be added to the schedule.
+	 */
+	public String[][] getFittingCourses() {
+		return getFittingCourses(false);
+	}
+	
+	/**
+	 * Gets a 2D String array of the courses in the course catalog that fit the current schedule, in catalog order, optionally
+	 * checking the catalog courses in parallel for very large catalogs.  The schedule must not be changed while the courses are checked.
+	 * Format: a row for each Course, 4 columns for course name, section, title, and meetingString.
+	 * @param parallel true if the catalog courses should be checked in parallel
+	 * @return 2D String array representation of the catalog courses that could be added to the schedule.
+	 */
+	public synchronized String[][] getFittingCourses(boolean parallel) {
+		IntStream indexes = IntStream.range(0, catalog.size());
+		if (parallel) {
+			indexes = indexes.parallel();
+		}
+		int creditsLeft = maxCredits - scheduledCredits;
+		List<Course> courses = catalog.getCourses();
+		return indexes.filter(i -> !scheduledCourseNames.contains(courses.get(i).getName())
+				&& courses.get(i).getCredits() <= creditsLeft
+				&& courses.get(i).getEnrolled() < courses.get(i).getCapacity()
+				&& occupancy.isFree(catalog.getMeetingDaysMask(i), catalog.getStartMinute(i), catalog.getEndMinute(i)))
+				.mapToObj(i -> courses.get(i).getShortDisplayArray()).toArray(String[][]::new);
+	}
+
 	/**
 	 * Gets 2D String array of the activities (course + event) currently in the schedule.
 	 * Format: a row for each activity, 3 columns for activity name, section, and title.
 	 * If no activity exists in schedule, an empty 2D String array is returned.
 	 * @return 2D String array representation of the courses listed in the schedule.
 	 */
-	public String[][] getScheduledActivities() {
+	public synchronized String[][] getScheduledActivities() {
 		// check if any activities exist
 		if (schedule.isEmpty()) {
 			return new String[0][0];
@@ -100,7 +258,7 @@ public class WolfScheduler {
 	 * If no activities are in the schedule, return an empty 2D String array.
 	 * @return 2D String array representation of the full information from a activity schedule.
 	 */
-	public String[][] getFullScheduledActivities() {
+	public synchronized String[][] getFullScheduledActivities() {
 		// check if any activities exist
 		if (schedule.isEmpty()) {
 			return new String[0][0];
@@ -124,15 +282,8 @@ public class WolfScheduler {
 	 * @return course from course catalog using the given course name and section, or null if course DNE.
 	 */
 	public Course getCourseFromCatalog(String name, String section) {
-		// iterate through catalog until a course is found
-		for (int i = 0; i < catalog.size(); i++) {
-			if (catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section)) {
-				return catalog.get(i);
-			}
-		}
-		
-		// else if no course can be found, return null
-		return null;
+		// look up course in the catalog index, null if course DNE
+		return catalog.getCourse(name, section);
 	}
 
 	/**
@@ -143,30 +294,130 @@ public class WolfScheduler {
 	 * @return true if course can be added to schedule (DNE), false if it cannot.
 	 * @throws IllegalArgumentException with message "You are already enrolled in [course name]" if course name already 
 	 * exists in schedule.
+	 * @throws IllegalArgumentException with message "The course cannot be added due to a conflict." if the course meets at
+	 * the same time as an activity in the schedule.
+	 * @throws IllegalArgumentException with message "The course cannot be added because it exceeds the maximum credit load."
+	 * if the course's credits would take the schedule over the maximum credit load.
+	 * @throws IllegalArgumentException with message "The course is full." if every seat in the course is taken and there
+	 * are no waitlists.
+	 * @throws IllegalArgumentException with message "The course is full. You are number [position] on the waitlist." if
+	 * every seat in the course is taken, or other students are waiting for it, and the student was added to its waitlist.
+	 * @throws IllegalArgumentException with message "You are already on the waitlist for [course name]" if the course is
+	 * full and the student is already waiting for it.
 	 */
-	public boolean addCourseToSchedule(String name, String section) {
-		// see if course exists in catalog
-		for (int i = 0; i < catalog.size(); i++) {
-			if (catalog.get(i).getName().equals(name) && catalog.get(i).getSection().equals(section)) {
-				
-				// check if course name is already in schedule
-				for (int j = 0; j < schedule.size(); j++) {
-					
-					if (catalog.get(i).isDuplicate(schedule.get(j))) {
-						throw new IllegalArgumentException("You are already enrolled in " + name);
-					}
-				}
-				
-				// if course doesn't exist, add course to schedule and return true
-				schedule.add(catalog.get(i));
-				return true;
-				
-			}
+	public synchronized boolean addCourseToSchedule(String name, String section) {
+		// see if course exists in catalog, otherwise course can't be added, return false
+		Course c = getCourseFromCatalog(name, section);
+		if (c == null) {
+			return false;
 		}
 		
-		// otherwise course can't be added, return false
-		return false;
+		// check if course name is already in schedule
+		if (scheduledCourseNames.contains(c.getName())) {
+			throw new IllegalArgumentException("You are already enrolled in " + name);
+		}
+		
+		// check that course doesn't conflict with the schedule
+		if (conflicts.findConflict(c) != null) {
+			throw new IllegalArgumentException("The course cannot be added due to a conflict.");
+		}
 		
+		// check that course doesn't take the schedule over the maximum credit load
+		if (scheduledCredits + c.getCredits() > maxCredits) {
+			throw new IllegalArgumentException("The course cannot be added because it exceeds the maximum credit load.");
+		}
+		
+		// take a seat in the course, which is shared with every other schedule using the catalog; students on the
+		// waitlist get open seats first
+		if (waitlists != null && (waitlists.hasWaiting(c) || !c.reserveSeat())) {
+			int position = waitlists.join(c, this);
+			if (position == 0) {
+				throw new IllegalArgumentException("You are already on the waitlist for " + name);
+			}
+			throw new IllegalArgumentException("The course is full. You are number " + position + " on the waitlist.");
+		} else if (waitlists == null && !c.reserveSeat()) {
+			throw new IllegalArgumentException("The course is full.");
+		}
+		
+		// if course doesn't exist, add course to schedule and return true; if the journal can't be written, the seat is
+		// given back unless the course made it into the schedule
+		try {
+			addToSchedule(c);
+		} catch (IllegalArgumentException e) {
+			if (!isScheduled(c)) {
+				releaseSeat(c);
+			}
+			throw e;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks whether a course from the catalog could be added to the schedule without changing the schedule.  The course
+	 * fits if it exists, no course with the same name is in the schedule, its meeting times are free in the schedule, its
+	 * credits don't take the schedule over the maximum credit load, and it has an open seat.
+	 * @param name name of the course
+	 * @param section section of the course
+	 * @return true if addCourseToSchedule() would add the course, false otherwise
+	 */
+	public synchronized boolean fitsSchedule(String name, String section) {
+		Course c = getCourseFromCatalog(name, section);
+		return c != null && !scheduledCourseNames.contains(c.getName()) && occupancy.isFree(c)
+				&& scheduledCredits + c.getCredits() <= maxCredits && c.getEnrolled() < c.getCapacity();
+	}
+
+	/**
+	 * Generates the best combinations of catalog sections for the given course names, where no two sections conflict, no
+	 * section conflicts with an activity already in the schedule, every section has an open seat that no waitlisted student
+	 * is ahead of, and the combination fits in the credits left under the maximum credit load.  The schedule itself isn't changed.
+	 * @param courseNames names of the courses to take; repeated names are ignored
+	 * @param maxResults greatest number of combinations to return
+	 * @param timeLimitMillis greatest number of milliseconds to search; the best combinations found so far are returned when it
+	 * runs out, and wasGenerationCutShort() is then true
+	 * @param scorer scorer used to rank combinations, such as ScheduleScorer.FEWEST_DAYS
+	 * @return the best combinations, best first, each listing one section of each course in the order the names were given;
+	 * empty if any course isn't in the catalog or no combination fits
+	 * @throws IllegalArgumentException with message "You are already enrolled in [course name]" if a course name already
+	 * exists in schedule.
+	 * @throws IllegalArgumentException if maxResults or timeLimitMillis is not positive, or scorer is null
+	 */
+	public synchronized ArrayList<ArrayList<Course>> generateSchedules(String[] courseNames, int maxResults, long timeLimitMillis,
+			ScheduleScorer scorer) {
+		ScheduleGenerator generator = new ScheduleGenerator(maxResults, timeLimitMillis, scorer);
+		generationCutShort = false;
+		ArrayList<List<Course>> choices = new ArrayList<List<Course>>();
+		HashSet<String> seen = new HashSet<String>();
+		for (String name : courseNames) {
+			if (scheduledCourseNames.contains(name)) {
+				throw new IllegalArgumentException("You are already enrolled in " + name);
+			}
+			if (!seen.add(name)) {
+				continue;
+			}
+			List<Course> sections = catalog.getSections(name);
+			if (sections == null) {
+				return new ArrayList<ArrayList<Course>>();
+			}
+			if (waitlists != null) {
+				// sections with students waiting are full for this student, as in addCourseToSchedule()
+				ArrayList<Course> open = new ArrayList<Course>(sections);
+				open.removeIf(waitlists::hasWaiting);
+				sections = open;
+			}
+			choices.add(sections);
+		}
+		ArrayList<ArrayList<Course>> results = generator.generate(choices, schedule, maxCredits - scheduledCredits);
+		generationCutShort = generator.wasCutShort();
+		return results;
+	}
+	
+	/**
+	 * Checks whether the last generateSchedules() search stopped because it reached its time limit, so better combinations
+	 * than the ones returned may exist.
+	 * @return true if the last search was cut short
+	 */
+	public synchronized boolean wasGenerationCutShort() {
+		return generationCutShort;
 	}
 
 	/**
@@ -175,54 +426,88 @@ public class WolfScheduler {
 	 * @param idx index of activity in schedule that is to be removed
 	 * @return true if activity exists in schedule and activity has been removed, otherwise return false
 	 */
-	public boolean removeActivityFromSchedule(int idx) {
-		
-		try {
-			// get activity from schedule
-			Activity removed = schedule.get(idx);
-			
-			for (int i = 0; i < schedule.size(); i++) {
-				// find activity to remove in the schedule
-				if (removed.equals(schedule.get(i))) {
-					// if match is found, remove course and return true
-					schedule.remove(idx);
-					return true;
-				}
-			}
-		} catch (IndexOutOfBoundsException e) {
+	public synchronized boolean removeActivityFromSchedule(int idx) {
+		// check that the index refers to an activity in the schedule
+		if (idx < 0 || idx >= schedule.size()) {
 			return false;
 		}
 		
-		// otherwise return false
-		return false;
+		removeFromSchedule(idx);
+		return true;
 	}
 
 	/**
 	 * Creates a new empty ArrayList for the schedule
 	 */
-	public void resetSchedule() {
-		this.schedule = new ArrayList<Activity>();
+	public synchronized void resetSchedule() {
+		SavedSchedule saved = new SavedSchedule(schedule, scheduledCourseNames, conflicts, occupancy, scheduledCredits);
+		clearSchedule();
+		
+		// give back the seats of the courses that were in the schedule
+		for (Activity a : saved.schedule) {
+			if (a instanceof Course) {
+				releaseSeat((Course) a);
+			}
+		}
+		record(new Step(RESET, -1, null, saved));
+	}
+	
+	/**
+	 * Gets the total credits of the courses in the schedule.  The total is kept up to date as the schedule changes, so
+	 * it is not recomputed on each call.
+	 * @return total credits of the courses in the schedule
+	 */
+	public synchronized int getScheduledCredits() {
+		return scheduledCredits;
+	}
+	
+	/**
+	 * Gets the maximum number of credits that can be in the schedule.
+	 * @return maximum credit load
+	 */
+	public synchronized int getMaxCredits() {
+		return maxCredits;
+	}
+	
+	/**
+	 * Sets the maximum number of credits that can be in the schedule.  Courses already in the schedule are kept even if
+	 * they are over the new maximum, but no more courses can be added until the schedule is back under it.
+	 * @param maxCredits maximum credit load
+	 * @throws IllegalArgumentException with message "Invalid maximum credits." if maxCredits is less than 1
+	 */
+	public synchronized void setMaxCredits(int maxCredits) {
+		if (maxCredits < 1) {
+			throw new IllegalArgumentException("Invalid maximum credits.");
+		}
+		this.maxCredits = maxCredits;
 	}
 
 	/**
 	 * Gets title of schedule
 	 * @return title of schedule
 	 */
-	public String getScheduleTitle() {
+	public synchronized String getScheduleTitle() {
 		return title;
 	}
 
 	/**
-	 * Error checks and sets title of schedule
+	 * Error checks and sets title of schedule.  The title is written on one line of saved schedules and journals, so it
+	 * can't contain line breaks.
 	 * @param title title of schedule
-	 * @throws IllegalArgumentException with message "Title cannot be null." if title is null
+	 * @throws IllegalArgumentException with message "Title cannot be null." if title is null, or with message "Title cannot
+	 * contain line breaks." if title contains a line break
 	 */
-	public void setScheduleTitle(String title) {
+	public synchronized void setScheduleTitle(String title) {
 		if (title == null) {
 			throw new IllegalArgumentException("Title cannot be null.");
 		}
+		if (title.indexOf('\n') >= 0 || title.indexOf('\r') >= 0) {
+			throw new IllegalArgumentException("Title cannot contain line breaks.");
+		}
 		
-		this.title = title;		
+		String oldTitle = this.title;
+		changeTitle(title);
+		record(new Step(TITLE, -1, null, new String[] {oldTitle, title}));
 	}
 	
 	/**
@@ -232,8 +517,153 @@ public class WolfScheduler {
 	 * throws an IOException while attempting to export the schedule
 	 */
 	public void exportSchedule(String filename) {
+		exportSchedule(filename, false);
+	}
+	
+	/**
+	 * Saves schedule to a given file, optionally replacing the file atomically with ActivityRecordIO.writeActivityRecordsAtomically()
+	 * so that a crash part way through the export never leaves a truncated schedule file behind.
+	 * @param filename name of file that student's schedule will be saved to
+	 * @param atomic true if the file should be replaced atomically
+	 * @throws IllegalArgumentException with message "The file cannot be saved." if ActivityRecordIO
+	 * throws an IOException while attempting to export the schedule
+	 */
+	public synchronized void exportSchedule(String filename, boolean atomic) {
+		try {
+			if (atomic) {
+				ActivityRecordIO.writeActivityRecordsAtomically(filename, schedule);
+			} else {
+				ActivityRecordIO.writeActivityRecords(filename, schedule);
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+
+	/**
+	 * Replaces the schedule with the activities in a file written by exportSchedule(), reading the file with 
+	 * ActivityRecordIO.readActivityRecords().  Courses are looked up in the catalog by name and section, so the scheduled
+	 * Course is always the catalog's Course.  Courses that are no longer in the catalog and activities that can't be
+	 * added to the schedule (such as duplicates) are skipped.
+	 * @param filename name of file that the schedule is restored from
+	 * @return number of activities restored to the schedule
+	 * @throws IllegalArgumentException with message "Cannot find file." if the file cannot be read; the schedule is
+	 * not changed
+	 */
+	public synchronized int importSchedule(String filename) {
+		ArrayList<Activity> activities;
+		try {
+			activities = ActivityRecordIO.readActivityRecords(filename);
+		} catch (FileNotFoundException e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		
+		beginEdit();
+		restore(activities);
+		endEdit();
+		return schedule.size();
+	}
+	
+	/**
+	 * Saves the schedule and its title to a ScheduleRepository under a student's id.
+	 * @param repository the repository the schedule is saved to
+	 * @param studentId id of the student
+	 * @throws IllegalArgumentException with message "Invalid student id." if the repository can't use the id, or with
+	 * message "The file cannot be saved." if the repository can't save the schedule
+	 */
+	public synchronized void saveSchedule(ScheduleRepository repository, String studentId) {
+		try {
+			repository.saveSchedule(studentId, title, schedule);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+	}
+	
+	/**
+	 * Replaces the schedule and its title with a student's schedule saved in a ScheduleRepository by saveSchedule().
+	 * Activities are restored the same way as by importSchedule(), and the whole load can be undone as one change.
+	 * @param repository the repository the schedule is read from
+	 * @param studentId id of the student
+	 * @return number of activities restored to the schedule
+	 * @throws IllegalArgumentException with message "Invalid student id." if the repository can't use the id, or with
+	 * message "Cannot find file." if the student has no saved schedule or the repository can't read it; the schedule is
+	 * not changed
+	 */
+	public synchronized int loadSchedule(ScheduleRepository repository, String studentId) {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		String savedTitle;
+		try {
+			savedTitle = repository.loadSchedule(studentId, activities);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		if (savedTitle == null) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		
+		beginEdit();
+		restore(activities);
+		setScheduleTitle(savedTitle);
+		endEdit();
+		return schedule.size();
+	}
+	
+	/**
+	 * Private helper method that reads a course catalog from a ScheduleRepository.
+	 * @param repository the repository the course catalog is read from
+	 * @return the course catalog
+	 * @throws IllegalArgumentException with message "Cannot find file." if the repository can't read the catalog
+	 */
+	private static CourseCatalog loadCatalog(ScheduleRepository repository) {
+		try {
+			return new CourseCatalog(repository.loadCatalog());
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+	}
+	
+	/**
+	 * Private helper method that resets the schedule and adds the given activities to it, looking up each Course in the
+	 * catalog and skipping activities that can't be added.
+	 * @param activities the activities to add to the schedule
+	 */
+	private void restore(List<Activity> activities) {
+		resetSchedule();
+		for (Activity a : activities) {
+			try {
+				if (a instanceof Course) {
+					Course c = (Course) a;
+					addCourseToSchedule(c.getName(), c.getSection());
+				} else {
+					Event e = (Event) a;
+					addEventToSchedule(e.getTitle(), e.getMeetingDays(), e.getStartTime(), e.getEndTime(), e.getEventDetails());
+				}
+			} catch (IllegalArgumentException e) {
+				// activity can't be added to the schedule, skip it
+			}
+		}
+	}
+
+	/**
+	 * Saves the schedules of many WolfSchedulers to a single file with ActivityRecordIO.writeActivityRecordBatch(), so the
+	 * file is opened only once for the whole batch.  Each schedule is written with a header containing its title.
+	 * @param filename name of file that the schedules will be saved to
+	 * @param schedulers the WolfSchedulers whose schedules are saved, in order
+	 * @throws IllegalArgumentException with message "The file cannot be saved." if ActivityRecordIO
+	 * throws an IOException while attempting to export the schedules
+	 */
+	public static void exportSchedules(String filename, ArrayList<WolfScheduler> schedulers) {
+		ArrayList<String> titles = new ArrayList<String>(schedulers.size());
+		ArrayList<ArrayList<Activity>> schedules = new ArrayList<ArrayList<Activity>>(schedulers.size());
+		for (WolfScheduler ws : schedulers) {
+			synchronized (ws) {
+				titles.add(ws.title);
+				schedules.add(new ArrayList<Activity>(ws.schedule));
+			}
+		}
+		
 		try {
-			ActivityRecordIO.writeActivityRecords(filename, schedule);
+			ActivityRecordIO.writeActivityRecordBatch(filename, titles, schedules);
 		} catch (IOException e) {
 			throw new IllegalArgumentException("The file cannot be saved.");
 		}
@@ -247,8 +677,9 @@ public class WolfScheduler {
 	 * @param eventEndTime time that an event ends
 	 * @param eventDetails details of an event
 	 * @throws IllegalArgumentException with message "You have already created an event called [event title]." if new Event is a duplicate of an existing Event in schedule
+	 * @throws IllegalArgumentException with message "The event cannot be added due to a conflict." if the event meets at the same time as an activity in the schedule
 	 */
-	public void addEventToSchedule(String eventTitle, String eventMeetingDays, int eventStartTime, int eventEndTime,
+	public synchronized void addEventToSchedule(String eventTitle, String eventMeetingDays, int eventStartTime, int eventEndTime,
 			String eventDetails) {
 		Event e = new Event(eventTitle, eventMeetingDays, eventStartTime, eventEndTime, eventDetails);
 		// check that event doesn't already exist in schedule
@@ -258,8 +689,873 @@ public class WolfScheduler {
 			}
 		}
 		
+		// check that event doesn't conflict with the schedule
+		if (conflicts.findConflict(e) != null) {
+			throw new IllegalArgumentException("The event cannot be added due to a conflict.");
+		}
+		
 		// add event to schedule
-		schedule.add(e);
+		addToSchedule(e);
+	}
+	
+	/**
+	 * Applies every change in a transaction to the schedule, or none of them.  The courses and events to drop are found first,
+	 * then the courses and events to add are checked, in that order, against the schedule as it will be after the drops and
+	 * earlier adds, with the same checks as addCourseToSchedule() and addEventToSchedule().  A full course is rejected even
+	 * when there are waitlists, since the student can't be both waiting and enrolled.  If any check fails, the schedule is
+	 * not changed.
+	 * @param transaction the changes to apply
+	 * @throws IllegalArgumentException with message "[course name] is not in the schedule." or "[event title] is not in the
+	 * schedule." if an activity to drop isn't in the schedule
+	 * @throws IllegalArgumentException with message "Course doesn't exist." if a course to add isn't in the catalog
+	 * @throws IllegalArgumentException with the message of addCourseToSchedule() or addEventToSchedule() if an activity
+	 * can't be added
+	 */
+	public synchronized void applyTransaction(ScheduleTransaction transaction) {
+		// find the activities to drop
+		boolean[] dropped = new boolean[schedule.size()];
+		for (String[] drop : transaction.getCourseDrops()) {
+			markDropped(dropped, drop[0], drop[1]);
+		}
+		for (String eventTitle : transaction.getEventDrops()) {
+			markDropped(dropped, eventTitle, null);
+		}
+		
+		// start from the schedule without the dropped activities
+		OccupancyBitmap finalOccupancy = new OccupancyBitmap(occupancy);
+		HashSet<String> finalNames = new HashSet<String>(scheduledCourseNames);
+		HashSet<String> finalEvents = new HashSet<String>();
+		int finalCredits = scheduledCredits;
+		for (int i = 0; i < schedule.size(); i++) {
+			Activity a = schedule.get(i);
+			if (dropped[i]) {
+				finalOccupancy.release(a);
+				if (a instanceof Course) {
+					finalNames.remove(((Course) a).getName());
+					finalCredits -= ((Course) a).getCredits();
+				}
+			} else if (a instanceof Event) {
+				finalEvents.add(a.getTitle());
+			}
+		}
+		
+		// check each course to add against the final schedule
+		ArrayList<Course> courses = new ArrayList<Course>();
+		for (String[] add : transaction.getCourseAdds()) {
+			Course c = getCourseFromCatalog(add[0], add[1]);
+			if (c == null) {
+				throw new IllegalArgumentException("Course doesn't exist.");
+			}
+			if (!finalNames.add(c.getName())) {
+				throw new IllegalArgumentException("You are already enrolled in " + c.getName());
+			}
+			if (!finalOccupancy.isFree(c)) {
+				throw new IllegalArgumentException("The course cannot be added due to a conflict.");
+			}
+			finalOccupancy.occupy(c);
+			finalCredits += c.getCredits();
+			courses.add(c);
+		}
+		if (finalCredits > maxCredits && !transaction.getCourseAdds().isEmpty()) {
+			throw new IllegalArgumentException("The course cannot be added because it exceeds the maximum credit load.");
+		}
+		
+		// check each event to add against the final schedule
+		for (Event e : transaction.getEventAdds()) {
+			if (!finalEvents.add(e.getTitle())) {
+				throw new IllegalArgumentException("You have already created an event called " + e.getTitle());
+			}
+			if (!finalOccupancy.isFree(e)) {
+				throw new IllegalArgumentException("The event cannot be added due to a conflict.");
+			}
+			finalOccupancy.occupy(e);
+		}
+		
+		// take a seat in each course to add, giving them all back if one is full
+		for (int i = 0; i < courses.size(); i++) {
+			Course c = courses.get(i);
+			if ((waitlists != null && waitlists.hasWaiting(c)) || !c.reserveSeat()) {
+				for (int j = 0; j < i; j++) {
+					courses.get(j).releaseSeat();
+				}
+				throw new IllegalArgumentException("The course is full.");
+			}
+		}
+		
+		// apply the drops from the end so earlier indexes stay valid, then the adds; if the journal can't be written part way,
+		// the steps made so far are kept as one change and the seats of the courses not yet added are given back
+		beginEdit();
+		int added = 0;
+		try {
+			for (int i = dropped.length - 1; i >= 0; i--) {
+				if (dropped[i]) {
+					removeFromSchedule(i);
+				}
+			}
+			for (Course c : courses) {
+				addToSchedule(c);
+				added++;
+			}
+			for (Event e : transaction.getEventAdds()) {
+				addToSchedule(e);
+			}
+		} catch (IllegalArgumentException e) {
+			for (int i = added; i < courses.size(); i++) {
+				releaseSeat(courses.get(i));
+			}
+			throw e;
+		} finally {
+			endEdit();
+		}
+	}
+	
+	/**
+	 * Rebuilds the schedule and title from a journal and keeps writing every later change to it.  The current schedule is
+	 * replaced, and courses in the rebuilt schedule take their seats again.  Courses are matched to the catalog by name and
+	 * section.  Replay stops at the first change that doesn't apply, such as a change that was being written when the
+	 * program stopped.  As with importSchedule(), activities in the rebuilt schedule that are no longer in the catalog, no
+	 * longer fit, or have no open seat are left out.  The journal is then compacted into a snapshot of the rebuilt schedule, and the undo and redo history
+	 * is cleared.  If the journal doesn't exist, it is created and the schedule is empty.
+	 * @param filename name of the journal file
+	 * @return number of activities in the rebuilt schedule
+	 * @throws IllegalArgumentException with message "Cannot find file." if the journal can't be read or written; the
+	 * schedule is not changed
+	 */
+	public synchronized int openJournal(String filename) {
+		ArrayList<ScheduleJournal.Entry> entries;
+		ScheduleJournal opened;
+		try {
+			entries = ScheduleJournal.readEntries(filename);
+			opened = new ScheduleJournal(filename);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Cannot find file.");
+		}
+		// the journal being replaced may already have failed; the new one takes its place
+		journalFailed = false;
+		closeJournal();
+		
+		// replay the journal on its own, so the index of each change matches the schedule it was logged against
+		ArrayList<Activity> replayed = new ArrayList<Activity>();
+		String replayedTitle = title;
+		for (ScheduleJournal.Entry entry : entries) {
+			if (entry.getKind() == ScheduleJournal.ADD && entry.getIndex() >= 0 && entry.getIndex() <= replayed.size()) {
+				replayed.add(entry.getIndex(), entry.getActivity());
+			} else if (entry.getKind() == ScheduleJournal.REMOVE && entry.getIndex() >= 0 && entry.getIndex() < replayed.size()) {
+				replayed.remove(entry.getIndex());
+			} else if (entry.getKind() == ScheduleJournal.RESET) {
+				replayed.clear();
+			} else if (entry.getKind() == ScheduleJournal.TITLE) {
+				replayedTitle = entry.getTitle();
+			} else {
+				break;
+			}
+		}
+		
+		// replace the schedule without journaling the replay; as in restore(), courses that are no longer in the catalog,
+		// don't fit, or can't take a seat are skipped
+		for (Activity a : schedule) {
+			if (a instanceof Course) {
+				releaseSeat((Course) a);
+			}
+		}
+		clearSchedule();
+		title = replayedTitle;
+		for (Activity a : replayed) {
+			if (a instanceof Course) {
+				Course c = getCourseFromCatalog(((Course) a).getName(), ((Course) a).getSection());
+				if (c == null || scheduledCourseNames.contains(c.getName()) || conflicts.findConflict(c) != null
+						|| scheduledCredits + c.getCredits() > maxCredits || (waitlists != null && waitlists.hasWaiting(c))
+						|| !c.reserveSeat()) {
+					continue;
+				}
+				a = c;
+			} else if (conflicts.findConflict(a) != null) {
+				continue;
+			}
+			insert(schedule.size(), a);
+		}
+		undoHistory.clear();
+		redoHistory.clear();
+		
+		journal = opened;
+		try {
+			journal.compact(title, schedule);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+		return schedule.size();
+	}
+	
+	/**
+	 * Forces every change written to the journal so far to the storage device.  Changes are also forced in groups as they
+	 * are made.
+	 * @throws IllegalArgumentException with message "The file cannot be saved." if the journal can't be written, or was
+	 * closed because a catalog change couldn't be written to it
+	 */
+	public synchronized void commitJournal() {
+		if (journalFailed) {
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+		if (journal != null) {
+			try {
+				journal.commit();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+	}
+	
+	/**
+	 * Commits and closes the journal.  Later changes to the schedule aren't journaled.
+	 * @throws IllegalArgumentException with message "The file cannot be saved." if the journal can't be written, or was
+	 * already closed because a catalog change couldn't be written to it
+	 */
+	public synchronized void closeJournal() {
+		if (journalFailed) {
+			journalFailed = false;
+			throw new IllegalArgumentException("The file cannot be saved.");
+		}
+		if (journal != null) {
+			ScheduleJournal closing = journal;
+			journal = null;
+			try {
+				closing.close();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+	}
+	
+	/**
+	 * Undoes the most recent change to the schedule or its title that hasn't been undone.  Courses that are put back into the
+	 * schedule take their seats again.
+	 * @return true if a change was undone, false if there is nothing to undo
+	 * @throws IllegalArgumentException with message "The course cannot be added because it exceeds the maximum credit load."
+	 * if putting courses back would take the schedule over the maximum credit load, or with message "The course is full."
+	 * if a course that would be put back has no open seat or has students waiting for one; the schedule is not changed
+	 */
+	public synchronized boolean undo() {
+		if (undoHistory.isEmpty()) {
+			return false;
+		}
+		ArrayList<Step> edit = undoHistory.peek();
+		replay(edit, true);
+		undoHistory.pop();
+		redoHistory.push(edit);
+		return true;
+	}
+	
+	/**
+	 * Redoes the most recently undone change.  Courses that are put back into the schedule take their seats again.
+	 * @return true if a change was redone, false if there is nothing to redo
+	 * @throws IllegalArgumentException with message "The course cannot be added because it exceeds the maximum credit load."
+	 * if putting courses back would take the schedule over the maximum credit load, or with message "The course is full."
+	 * if a course that would be put back has no open seat or has students waiting for one; the schedule is not changed
+	 */
+	public synchronized boolean redo() {
+		if (redoHistory.isEmpty()) {
+			return false;
+		}
+		ArrayList<Step> edit = redoHistory.peek();
+		replay(edit, false);
+		redoHistory.pop();
+		undoHistory.push(edit);
+		return true;
+	}
+	
+	/**
+	 * Checks whether there is a change that can be undone.
+	 * @return true if undo() would undo a change
+	 */
+	public synchronized boolean canUndo() {
+		return !undoHistory.isEmpty();
+	}
+	
+	/**
+	 * Checks whether there is a change that can be redone.
+	 * @return true if redo() would redo a change
+	 */
+	public synchronized boolean canRedo() {
+		return !redoHistory.isEmpty();
+	}
+	
+	/**
+	 * Takes a student off a course's waitlist.
+	 * @param name name of the course
+	 * @param section section of the course
+	 * @return true if the student was on the course's waitlist
+	 */
+	public boolean leaveWaitlist(String name, String section) {
+		Course c = getCourseFromCatalog(name, section);
+		return c != null && waitlists != null && waitlists.leave(c, this);
+	}
+	
+	/**
+	 * Checks whether the student is on a course's waitlist.
+	 * @param name name of the course
+	 * @param section section of the course
+	 * @return true if the student is on the course's waitlist
+	 */
+	public boolean isOnWaitlist(String name, String section) {
+		Course c = getCourseFromCatalog(name, section);
+		return c != null && waitlists != null && waitlists.isWaiting(c, this);
+	}
+	
+	/**
+	 * Adds a course promoted from its waitlist to the schedule, re-running the duplicate, conflict, and credit checks of
+	 * addCourseToSchedule() against the schedule as it is now.  The seat must already be taken for the student.  The course
+	 * is looked up again in the schedule's catalog, since the catalog may have changed after the seat was given back; the
+	 * seat is only used if the section is still in the catalog as the same version, or as a new version that carried its
+	 * seats.  A student who can't be enrolled has been taken off the waitlist, so the section is kept for
+	 * takeDroppedSections() so the student can be told.  Since the student didn't make this change, the undo and redo
+	 * history is cleared rather than made to include it.
+	 * @param c the course, with a seat taken for the student
+	 * @return true if the course was added, false if it is no longer in the catalog or no longer fits the schedule
+	 */
+	synchronized boolean enrollFromWaitlist(Course c) {
+		if (ended) {
+			return false;
+		}
+		Course current = catalog.getCourse(c.getName(), c.getSection());
+		if (current == null || (current != c && !current.sharesSeatsWith(c))
+				|| scheduledCourseNames.contains(current.getName()) || conflicts.findConflict(current) != null
+				|| scheduledCredits + current.getCredits() > maxCredits) {
+			droppedSections.add(c.getShortDisplayArray());
+			return false;
+		}
+		try {
+			insert(schedule.size(), current);
+		} catch (IllegalArgumentException e) {
+			// the journal can't be written, so the seat goes to the next student
+			droppedSections.add(c.getShortDisplayArray());
+			return false;
+		}
+		undoHistory.clear();
+		redoHistory.clear();
+		if (currentEdit != null) {
+			currentEdit.clear();
+		}
+		try {
+			compactJournalIfNeeded();
+		} catch (IllegalArgumentException e) {
+			// the enrollment is already in the journal, which is compacted on a later change
+		}
+		return true;
+	}
+	
+	/**
+	 * Ends the student's session when it is removed from a SchedulerRegistry.  The student leaves every waitlist, and the
+	 * seats of the scheduled courses are given back so waiting students are promoted into them.  The journal is closed first,
+	 * so the schedule it holds is kept and can be rebuilt with openJournal() later.  The schedule is left empty.
+	 */
+	synchronized void endSession() {
+		ended = true;
+		if (waitlists != null) {
+			waitlists.leaveAll(this);
+		}
+		try {
+			closeJournal();
+		} catch (IllegalArgumentException e) {
+			// the journal can't be written, but the session still ends
+		}
+		for (Activity a : schedule) {
+			if (a instanceof Course) {
+				releaseSeat((Course) a);
+			}
+		}
+		clearSchedule();
+		undoHistory.clear();
+		redoHistory.clear();
+	}
+	
+	/**
+	 * Moves the schedule to a new version of the catalog.  Scheduled sections that were removed from the catalog are dropped,
+	 * and scheduled sections that were modified are replaced in place by their new versions.  A new version that carried
+	 * its seats from the old version keeps the student's seat; otherwise it takes a new one.  A new version that no longer
+	 * fits the schedule, because of a conflict, the credit load, or no open seat, is dropped instead.  Dropped sections are
+	 * kept for takeDroppedSections() so the student can be told.  Since the student didn't make these changes and the undo
+	 * and redo history may refer to old versions, the history is cleared whenever the catalog changed.  Nothing happens if
+	 * the schedule isn't on the delta's old catalog, such as when another thread already moved it.  The changes are written
+	 * to the journal as one snapshot; if it can't be written, the migration still finishes and the journal is closed, and
+	 * commitJournal() and closeJournal() report the failure.
+	 * @param delta the differences between the current catalog and the new catalog
+	 * @return number of scheduled sections that were dropped
+	 */
+	synchronized int catalogChanged(CatalogDelta delta) {
+		if (catalog != delta.getOldCatalog()) {
+			return 0;
+		}
+		
+		// migrate without the journal, so a write that fails can't stop part way, then write a snapshot of the result
+		ScheduleJournal detached = journal;
+		journal = null;
+		boolean migrated = false;
+		int changed = 0;
+		ArrayList<Course> freed = new ArrayList<Course>();
+		for (int i = schedule.size() - 1; i >= 0; i--) {
+			if (schedule.get(i) instanceof Course) {
+				Course old = (Course) schedule.get(i);
+				Course replacement = delta.getReplacement(old);
+				if (replacement != old) {
+					migrated = true;
+					extract(i);
+					boolean carried = replacement != null && replacement.sharesSeatsWith(old);
+					if (!carried) {
+						// the old version is no longer in the catalog, so its waitlist isn't promoted
+						old.releaseSeat();
+					}
+					if (replacement != null && !scheduledCourseNames.contains(replacement.getName())
+							&& conflicts.findConflict(replacement) == null
+							&& scheduledCredits + replacement.getCredits() <= maxCredits && (carried || replacement.reserveSeat())) {
+						insert(i, replacement);
+					} else {
+						if (carried) {
+							freed.add(replacement);
+						}
+						droppedSections.add(old.getShortDisplayArray());
+						changed++;
+					}
+				}
+			}
+		}
+		catalog = delta.getNewCatalog();
+		
+		if (!delta.isEmpty()) {
+			undoHistory.clear();
+			redoHistory.clear();
+			if (currentEdit != null) {
+				currentEdit.clear();
+			}
+		}
+		if (detached != null) {
+			try {
+				if (migrated) {
+					detached.compact(title, schedule);
+				}
+				journal = detached;
+			} catch (IOException e) {
+				// later changes aren't journaled, and commitJournal() and closeJournal() report it
+				journalFailed = true;
+				try {
+					detached.close();
+				} catch (IOException ioe) {
+					// the journal already failed
+				}
+			}
+		}
+		
+		// give back carried seats once the schedule is consistent, since the waitlist may enroll this student right away
+		for (Course c : freed) {
+			releaseSeat(c);
+		}
+		return changed;
+	}
+	
+	/**
+	 * Gets the sections the student lost since the last call without making the change, and forgets them, so each drop is
+	 * reported to the student once: scheduled sections dropped because the catalog changed, and sections whose waitlist the
+	 * student was taken off because the open seat no longer fit the schedule or the section left the catalog.
+	 * @return name, section, title, and meeting string of each dropped section, in the order they were dropped
+	 */
+	public synchronized String[][] takeDroppedSections() {
+		String[][] dropped = droppedSections.toArray(new String[0][]);
+		droppedSections.clear();
+		return dropped;
+	}
+	
+	/**
+	 * Private helper method that marks an activity in the schedule to be dropped by a transaction.
+	 * @param dropped whether each activity in the schedule is dropped
+	 * @param title course name of a course, or title of an event
+	 * @param section section of a course, or null for an event
+	 * @throws IllegalArgumentException with message "[title] is not in the schedule." if the activity isn't in the schedule
+	 * or is already dropped
+	 */
+	private void markDropped(boolean[] dropped, String title, String section) {
+		for (int i = 0; i < schedule.size(); i++) {
+			Activity a = schedule.get(i);
+			boolean matches = section == null ? a instanceof Event && a.getTitle().equals(title)
+					: a instanceof Course && ((Course) a).getName().equals(title) && ((Course) a).getSection().equals(section);
+			if (matches && !dropped[i]) {
+				dropped[i] = true;
+				return;
+			}
+		}
+		throw new IllegalArgumentException(title + " is not in the schedule.");
+	}
+	
+	/**
+	 * Private helper method that gives back a course's seat and starts promoting students from its waitlist.
+	 * @param c the course
+	 */
+	private void releaseSeat(Course c) {
+		c.releaseSeat();
+		if (waitlists != null) {
+			waitlists.seatReleased(c);
+		}
+	}
+	
+	/**
+	 * Private helper method that checks whether a course is in the schedule, so a change that failed part way can tell which
+	 * of its seats are still used.
+	 * @param c the course
+	 * @return true if c itself is in the schedule
+	 */
+	private boolean isScheduled(Course c) {
+		for (Activity a : schedule) {
+			if (a == c) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Private helper method that adds an activity to the end of the schedule and records the change so it can be undone.
+	 * All additions to the schedule by the student go through this method.
+	 * @param a the activity to add
+	 */
+	private void addToSchedule(Activity a) {
+		insert(schedule.size(), a);
+		record(new Step(ADD, schedule.size() - 1, a, null));
+	}
+	
+	/**
+	 * Private helper method that removes an activity from the schedule, gives back its seat if it is a course, and records
+	 * the change so it can be undone.  All removals from the schedule by the student go through this method.
+	 * @param idx index of the activity in the schedule
+	 * @return the removed activity
+	 */
+	private Activity removeFromSchedule(int idx) {
+		Activity removed = extract(idx);
+		record(new Step(REMOVE, idx, removed, null));
+		if (removed instanceof Course) {
+			releaseSeat((Course) removed);
+		}
+		return removed;
+	}
+	
+	/**
+	 * Private helper method that puts an activity into the schedule and into every index of the schedule, so the indexes and
+	 * credit total stay in step with it.  Seats are not changed.
+	 * @param idx index the activity goes to in the schedule
+	 * @param a the activity to add
+	 */
+	private void insert(int idx, Activity a) {
+		if (journal != null) {
+			try {
+				journal.logAdd(idx, a);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+		schedule.add(idx, a);
+		conflicts.add(a);
+		occupancy.occupy(a);
+		if (a instanceof Course) {
+			scheduledCourseNames.add(((Course) a).getName());
+			scheduledCredits += ((Course) a).getCredits();
+		}
+	}
+	
+	/**
+	 * Private helper method that takes an activity out of the schedule and out of every index of the schedule, so the
+	 * indexes and credit total stay in step with it.  Seats are not changed.
+	 * @param idx index of the activity in the schedule
+	 * @return the removed activity
+	 */
+	private Activity extract(int idx) {
+		if (journal != null) {
+			try {
+				journal.logRemove(idx);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+		Activity removed = schedule.remove(idx);
+		conflicts.remove(removed);
+		occupancy.release(removed);
+		if (removed instanceof Course) {
+			scheduledCourseNames.remove(((Course) removed).getName());
+			scheduledCredits -= ((Course) removed).getCredits();
+		}
+		return removed;
+	}
+	
+	/**
+	 * Private helper method that replaces the schedule and its indexes with empty ones, keeping the old ones unchanged so a
+	 * SavedSchedule of them can be restored.
+	 */
+	private void clearSchedule() {
+		if (journal != null) {
+			try {
+				journal.logReset();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+		this.schedule = new ArrayList<Activity>();
+		this.scheduledCourseNames = new HashSet<String>();
+		this.conflicts = new ConflictIndex();
+		this.occupancy = new OccupancyBitmap();
+		this.scheduledCredits = 0;
+	}
+	
+	/**
+	 * Private helper method that starts recording the steps of a change made of many steps as one change.
+	 */
+	private void beginEdit() {
+		currentEdit = new ArrayList<Step>();
+	}
+	
+	/**
+	 * Private helper method that finishes recording a change made of many steps and adds it to the undo history.
+	 */
+	private void endEdit() {
+		ArrayList<Step> edit = currentEdit;
+		currentEdit = null;
+		if (!edit.isEmpty()) {
+			pushUndo(edit);
+		}
+		compactJournalIfNeeded();
+	}
+	
+	/**
+	 * Private helper method that records a step.  The step is its own change unless a change of many steps is being recorded.
+	 * @param step the step to record
+	 */
+	private void record(Step step) {
+		if (currentEdit != null) {
+			// the journal is compacted once the whole change is made
+			currentEdit.add(step);
+		} else {
+			ArrayList<Step> edit = new ArrayList<Step>(1);
+			edit.add(step);
+			pushUndo(edit);
+			compactJournalIfNeeded();
+		}
+	}
+	
+	/**
+	 * Private helper method that changes the title, writing the change to the journal first.
+	 * @param newTitle the new title
+	 */
+	private void changeTitle(String newTitle) {
+		if (journal != null) {
+			try {
+				journal.logTitle(newTitle);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+		this.title = newTitle;
+	}
+	
+	/**
+	 * Private helper method that writes a schedule restored by undoing a reset to the journal, as an add of each activity.
+	 * @param restored the restored schedule
+	 */
+	private void journalRestore(ArrayList<Activity> restored) {
+		if (journal != null) {
+			try {
+				journal.logReset();
+				for (int i = 0; i < restored.size(); i++) {
+					journal.logAdd(i, restored.get(i));
+				}
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+	}
+	
+	/**
+	 * Private helper method that compacts the journal into a snapshot of the schedule once enough changes have been
+	 * written to it.
+	 */
+	private void compactJournalIfNeeded() {
+		if (journal != null && journal.getEntryCount() >= COMPACT_THRESHOLD) {
+			try {
+				journal.compact(title, schedule);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("The file cannot be saved.");
+			}
+		}
+	}
+	
+	/**
+	 * Private helper method that adds a new change to the undo history, dropping the oldest change if the history is full.
+	 * A new change can't be redone after, so the redo history is cleared.
+	 * @param edit steps of the change
+	 */
+	private void pushUndo(ArrayList<Step> edit) {
+		undoHistory.push(edit);
+		if (undoHistory.size() > MAX_HISTORY) {
+			undoHistory.removeLast();
+		}
+		redoHistory.clear();
+	}
+	
+	/**
+	 * Private helper method that undoes or redoes the steps of a change.  The seats the change needs are taken first, all or
+	 * none, so the schedule is never left part way through a change; the seats it frees are given back last.
+	 * @param edit steps of the change
+	 * @param undo true to undo the steps, in reverse order, or false to redo them in order
+	 * @throws IllegalArgumentException with message "The course cannot be added because it exceeds the maximum credit load."
+	 *     if the change puts courses back and takes the schedule over the maximum credit load, or with message "The course
+	 *     is full." if a course that would be put back has no open seat or has students waiting for one
+	 */
+	private void replay(ArrayList<Step> edit, boolean undo) {
+		// count how many seats in each course the change takes or gives back
+		IdentityHashMap<Course, Integer> seats = new IdentityHashMap<Course, Integer>();
+		for (Step step : edit) {
+			if (step.kind == ADD || step.kind == REMOVE) {
+				if (step.activity instanceof Course) {
+					seats.merge((Course) step.activity, (step.kind == ADD) != undo ? 1 : -1, Integer::sum);
+				}
+			} else if (step.kind == RESET) {
+				for (Activity a : ((SavedSchedule) step.data).schedule) {
+					if (a instanceof Course) {
+						seats.merge((Course) a, undo ? 1 : -1, Integer::sum);
+					}
+				}
+			}
+		}
+		
+		// check the credit load after the change, as in applyTransaction(), before any seat is taken
+		int finalCredits = scheduledCredits;
+		boolean adds = false;
+		for (Map.Entry<Course, Integer> entry : seats.entrySet()) {
+			finalCredits += entry.getValue() * entry.getKey().getCredits();
+			adds |= entry.getValue() > 0;
+		}
+		if (finalCredits > maxCredits && adds) {
+			throw new IllegalArgumentException("The course cannot be added because it exceeds the maximum credit load.");
+		}
+		
+		ArrayList<Course> reserved = new ArrayList<Course>();
+		ArrayList<Course> held = new ArrayList<Course>();
+		for (Map.Entry<Course, Integer> entry : seats.entrySet()) {
+			if (entry.getValue() <= 0 && isScheduled(entry.getKey())) {
+				held.add(entry.getKey());
+			}
+			if (entry.getValue() > 0) {
+				// students on the waitlist get open seats first, as in addCourseToSchedule()
+				if ((waitlists != null && waitlists.hasWaiting(entry.getKey())) || !entry.getKey().reserveSeat()) {
+					for (Course c : reserved) {
+						c.releaseSeat();
+					}
+					throw new IllegalArgumentException("The course is full.");
+				}
+				reserved.add(entry.getKey());
+			}
+		}
+		
+		held.addAll(reserved);
+		
+		try {
+			for (int i = 0; i < edit.size(); i++) {
+				Step step = edit.get(undo ? edit.size() - 1 - i : i);
+				if (step.kind == ADD || step.kind == REMOVE) {
+					if ((step.kind == ADD) != undo) {
+						insert(step.index, step.activity);
+					} else {
+						extract(step.index);
+					}
+				} else if (step.kind == RESET) {
+					if (undo) {
+						SavedSchedule saved = (SavedSchedule) step.data;
+						journalRestore(saved.schedule);
+						schedule = saved.schedule;
+						scheduledCourseNames = saved.names;
+						conflicts = saved.conflicts;
+						occupancy = saved.occupancy;
+						scheduledCredits = saved.credits;
+					} else {
+						clearSchedule();
+					}
+				} else {
+					changeTitle(((String[]) step.data)[undo ? 0 : 1]);
+				}
+			}
+		} catch (IllegalArgumentException e) {
+			// the journal can't be written part way through, so keep a seat only for the courses left in the schedule
+			for (Course c : held) {
+				if (!isScheduled(c)) {
+					releaseSeat(c);
+				}
+			}
+			throw e;
+		}
+		
+		for (Map.Entry<Course, Integer> entry : seats.entrySet()) {
+			if (entry.getValue() < 0) {
+				releaseSeat(entry.getKey());
+			}
+		}
+		compactJournalIfNeeded();
+	}
+	
+	/**
+	 * One step of a change to the schedule or its title, with what is needed to undo and redo it.
+	 */
+	private static class Step {
+		
+		/** Kind of step: ADD, REMOVE, RESET, or TITLE */
+		private final int kind;
+		/** Index in the schedule of the added or removed activity */
+		private final int index;
+		/** The added or removed activity */
+		private final Activity activity;
+		/** The SavedSchedule of a reset, or the old and new titles of a title change */
+		private final Object data;
+		
+		/**
+		 * Constructs a Step.
+		 * @param kind kind of step
+		 * @param index index in the schedule of the added or removed activity
+		 * @param activity the added or removed activity
+		 * @param data the SavedSchedule of a reset, or the old and new titles of a title change
+		 */
+		Step(int kind, int index, Activity activity, Object data) {
+			this.kind = kind;
+			this.index = index;
+			this.activity = activity;
+			this.data = data;
+		}
+	}
+	
+	/**
+	 * A schedule and its indexes as they were before a reset.
+	 */
+	private static class SavedSchedule {
+		
+		/** The schedule */
+		private final ArrayList<Activity> schedule;
+		/** Names of the Courses in the schedule */
+		private final HashSet<String> names;
+		/** Meeting times of the activities in the schedule */
+		private final ConflictIndex conflicts;
+		/** Minutes of the week taken by the activities in the schedule */
+		private final OccupancyBitmap occupancy;
+		/** Total credits of the Courses in the schedule */
+		private final int credits;
+		
+		/**
+		 * Constructs a SavedSchedule.
+		 * @param schedule the schedule
+		 * @param names names of the Courses in the schedule
+		 * @param conflicts meeting times of the activities in the schedule
+		 * @param occupancy minutes of the week taken by the activities in the schedule
+		 * @param credits total credits of the Courses in the schedule
+		 */
+		SavedSchedule(ArrayList<Activity> schedule, HashSet<String> names, ConflictIndex conflicts, OccupancyBitmap occupancy,
+				int credits) {
+			this.schedule = schedule;
+			this.names = names;
+			this.conflicts = conflicts;
+			this.occupancy = occupancy;
+			this.credits = credits;
+		}
 	}
 
 }
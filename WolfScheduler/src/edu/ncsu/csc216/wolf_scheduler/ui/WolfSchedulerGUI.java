@@ -152,6 +152,10 @@ public class WolfSchedulerGUI extends JFrame {
 		private JButton btnReset;
 		/** Button for displaying the final schedule */
 		private JButton btnDisplay;
+		/** Button for undoing the last change to the schedule */
+		private JButton btnUndo;
+		/** Button for redoing the last undone change to the schedule */
+		private JButton btnRedo;
 		/** JTable for displaying the catalog of Courses */
 		private JTable tableCatalog;
 		/** JTable for displaying the schdule of Courses */
@@ -255,13 +259,17 @@ public class WolfSchedulerGUI extends JFrame {
 			btnReset.addActionListener(this);
 			btnDisplay = new JButton("Display Final Schedule");
 			btnDisplay.addActionListener(this);
+			btnUndo = new JButton("Undo");
+			btnUndo.addActionListener(this);
+			btnRedo = new JButton("Redo");
+			btnRedo.addActionListener(this);
 			lblScheduleTitle = new JLabel("Schedule Title: ");
 			txtScheduleTitle = new JTextField(scheduler.getScheduleTitle(), 20); 
 			btnSetScheduleTitle = new JButton("Set Title");
 			btnSetScheduleTitle.addActionListener(this);
 			
 			JPanel pnlActions = new JPanel();
-			pnlActions.setLayout(new GridLayout(3, 1));
+			pnlActions.setLayout(new GridLayout(4, 1));
 			JPanel pnlAddRemove = new JPanel();
 			pnlAddRemove.setLayout(new GridLayout(1, 2));
 			pnlAddRemove.add(btnAddCourse);
@@ -270,6 +278,10 @@ public class WolfSchedulerGUI extends JFrame {
 			pnlResetDisplay.setLayout(new GridLayout(1, 2));
 			pnlResetDisplay.add(btnReset);
 			pnlResetDisplay.add(btnDisplay);
+			JPanel pnlUndoRedo = new JPanel();
+			pnlUndoRedo.setLayout(new GridLayout(1, 2));
+			pnlUndoRedo.add(btnUndo);
+			pnlUndoRedo.add(btnRedo);
 			JPanel pnlScheduleTitle = new JPanel();
 			pnlScheduleTitle.setLayout(new GridLayout(1, 3));
 			pnlScheduleTitle.add(lblScheduleTitle);
@@ -277,6 +289,7 @@ public class WolfSchedulerGUI extends JFrame {
 			pnlScheduleTitle.add(btnSetScheduleTitle);
 			pnlActions.add(pnlAddRemove);
 			pnlActions.add(pnlResetDisplay);
+			pnlActions.add(pnlUndoRedo);
 			pnlActions.add(pnlScheduleTitle);
 			
 			Border lowerEtched = BorderFactory.createEtchedBorder(EtchedBorder.LOWERED);
@@ -537,6 +550,18 @@ public class WolfSchedulerGUI extends JFrame {
 			} else if (e.getSource() == btnReset) {
 				scheduler.resetSchedule();
 				updateTables();
+			} else if (e.getSource() == btnUndo || e.getSource() == btnRedo) {
+				try {
+					boolean changed = e.getSource() == btnUndo ? scheduler.undo() : scheduler.redo();
+					if (!changed) {
+						JOptionPane.showMessageDialog(WolfSchedulerGUI.this, e.getSource() == btnUndo ? "Nothing to undo." : "Nothing to redo.");
+					}
+				} catch (IllegalArgumentException iae) {
+					JOptionPane.showMessageDialog(WolfSchedulerGUI.this, iae.getMessage());
+				}
+				txtScheduleTitle.setText(scheduler.getScheduleTitle());
+				borderSchedule.setTitle(scheduler.getScheduleTitle());
+				updateTables();
 			} else if (e.getSource() == btnDisplay) {
 				cardLayout.show(panel, SCHEDULE_PANEL);
 				pnlSchedule.updateFinalizedTable();
@@ -866,11 +891,11 @@ public class WolfSchedulerGUI extends JFrame {
 		}
 		
 		/**
-		 * Updates the finalized schedule table
+		 * Updates the finalized schedule table and shows the schedule's total credits in its title
 		 */
 		public void updateFinalizedTable() {
 			scheduleTableModel.updateData();
-			borderSchedule.setTitle(scheduler.getScheduleTitle());
+			borderSchedule.setTitle(scheduler.getScheduleTitle() + " (" + scheduler.getScheduledCredits() + " credits)");
 			scrollSchedule.setToolTipText(scheduler.getScheduleTitle());
 		}
 		
@@ -0,0 +1,53 @@
+package edu.ncsu.csc216.wolf_scheduler.course;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the Activity class.
+ * @author hmreese2
+ */
+public class ActivityTest {
+
+	/**
+	 * Tests Activity.checkConflict() for activities that don't conflict.
+	 */
+	@Test
+	public void testCheckConflict() {
+		Activity a1 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445);
+		Activity a2 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+		Activity a3 = new Event("Lunch", "MW", 1200, 1329, "Food");
+		Activity a4 = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A");
+		
+		assertDoesNotThrow(() -> a1.checkConflict(a2));
+		assertDoesNotThrow(() -> a2.checkConflict(a1));
+		assertDoesNotThrow(() -> a1.checkConflict(a3));
+		assertDoesNotThrow(() -> a3.checkConflict(a1));
+		assertDoesNotThrow(() -> a1.checkConflict(a4));
+		assertDoesNotThrow(() -> a4.checkConflict(a4));
+	}
+	
+	/**
+	 * Tests Activity.checkConflict() for activities that conflict.
+	 */
+	@Test
+	public void testCheckConflictWithConflict() {
+		Activity a1 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445);
+		Activity a2 = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "M", 1330, 1445);
+		Activity a3 = new Event("Lunch", "W", 1200, 1330, "Food");
+		Activity a4 = new Event("Meeting", "UMTWHFS", 1400, 1410, "Inside another activity");
+		
+		Exception e1 = assertThrows(ConflictException.class, () -> a1.checkConflict(a2));
+		assertEquals("Schedule conflict.", e1.getMessage());
+		assertThrows(ConflictException.class, () -> a2.checkConflict(a1));
+		
+		//Ending in the same minute as the other starts is a conflict
+		assertThrows(ConflictException.class, () -> a1.checkConflict(a3));
+		assertThrows(ConflictException.class, () -> a3.checkConflict(a1));
+		
+		assertThrows(ConflictException.class, () -> a1.checkConflict(a4));
+		assertThrows(ConflictException.class, () -> a4.checkConflict(a1));
+	}
+
+}
@@ -491,5 +491,104 @@ public class CourseTest {
 		String s2 = "CSC 216,Software Development Fundamentals,001,3,sesmith5,A";
 		assertEquals(s2, c2.toString());
 	}
-
-}
\ No newline at end of file
+	
+	/**
+	 * Tests Course.getMeetingDaysMask() and Course.sharesMeetingDay().
+	 */
+	@Test
+	public void testGetMeetingDaysMask() {
+		Course c1 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertEquals(Activity.MONDAY | Activity.WEDNESDAY, c1.getMeetingDaysMask());
+		Course c2 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "FWH", START_TIME, END_TIME);
+		assertEquals(Activity.WEDNESDAY | Activity.THURSDAY | Activity.FRIDAY, c2.getMeetingDaysMask());
+		Course c3 = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "A");
+		assertEquals(Activity.ARRANGED, c3.getMeetingDaysMask());
+		
+		assertTrue(c1.sharesMeetingDay(c2));
+		assertTrue(c2.sharesMeetingDay(c1));
+		assertFalse(c1.sharesMeetingDay(c3));
+		assertFalse(c3.sharesMeetingDay(c3));
+		
+		//Mask is updated with the meeting days, and not changed by invalid days
+		c1.setMeetingDaysAndTime("TH", START_TIME, END_TIME);
+		assertEquals(Activity.TUESDAY | Activity.THURSDAY, c1.getMeetingDaysMask());
+		assertFalse(c1.sharesMeetingDay(new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, "MWF", START_TIME, END_TIME)));
+		assertThrows(IllegalArgumentException.class, () -> c1.setMeetingDaysAndTime("MS", START_TIME, END_TIME));
+		assertEquals(Activity.TUESDAY | Activity.THURSDAY, c1.getMeetingDaysMask());
+	}
+	
+	/**
+	 * Tests seat capacity and reserving and releasing seats.
+	 */
+	@Test
+	public void testReserveSeat() {
+		Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertEquals(Course.UNLIMITED_CAPACITY, c.getCapacity());
+		assertEquals(0, c.getEnrolled());
+		Exception e = assertThrows(IllegalArgumentException.class, () -> c.setCapacity(-1));
+		assertEquals("Invalid capacity.", e.getMessage());
+		
+		c.setCapacity(2);
+		assertTrue(c.reserveSeat());
+		assertTrue(c.reserveSeat());
+		assertFalse(c.reserveSeat());
+		assertEquals(2, c.getEnrolled());
+		
+		//Capacity and enrollment aren't part of equality
+		Course other = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertEquals(other, c);
+		assertEquals(other.hashCode(), c.hashCode());
+		
+		//Lowering the capacity keeps taken seats
+		c.setCapacity(1);
+		assertEquals(2, c.getEnrolled());
+		c.releaseSeat();
+		assertFalse(c.reserveSeat());
+		c.releaseSeat();
+		c.releaseSeat();
+		assertEquals(0, c.getEnrolled());
+		assertTrue(c.reserveSeat());
+		
+		//A new version counts the seats of the old version together with it
+		Course next = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME + 100, END_TIME + 100);
+		next.setCapacity(2);
+		assertFalse(next.sharesSeatsWith(c));
+		next.carrySeatsFrom(c);
+		assertTrue(next.sharesSeatsWith(c));
+		assertEquals(1, next.getEnrolled());
+		assertTrue(next.reserveSeat());
+		assertFalse(next.reserveSeat());
+		assertEquals(2, c.getEnrolled());
+		c.releaseSeat();
+		assertEquals(1, next.getEnrolled());
+	}
+	
+	/**
+	 * Tests making a course read-only.
+	 */
+	@Test
+	public void testMakeReadOnly() {
+		Course c = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertFalse(c.isReadOnly());
+		c.makeReadOnly();
+		assertTrue(c.isReadOnly());
+		Exception e = assertThrows(UnsupportedOperationException.class, () -> c.setSection("002"));
+		assertEquals("Activity is read-only.", e.getMessage());
+		assertThrows(UnsupportedOperationException.class, () -> c.setCredits(4));
+		assertThrows(UnsupportedOperationException.class, () -> c.setInstructorId("jdoe"));
+		assertThrows(UnsupportedOperationException.class, () -> c.setTitle("Other"));
+		assertThrows(UnsupportedOperationException.class, () -> c.setMeetingDaysAndTime("A", 0, 0));
+		assertEquals(SECTION, c.getSection());
+		assertEquals(START_TIME, c.getStartTime());
+		
+		//Capacity and seat counting are fixed, but seats can still be taken and given back
+		assertThrows(UnsupportedOperationException.class, () -> c.setCapacity(1));
+		Course next = new Course(NAME, TITLE, SECTION, CREDITS, INSTRUCTOR_ID, MEETING_DAYS, START_TIME, END_TIME);
+		assertThrows(UnsupportedOperationException.class, () -> c.carrySeatsFrom(next));
+		assertFalse(c.sharesSeatsWith(next));
+		assertTrue(c.reserveSeat());
+		assertEquals(1, c.getEnrolled());
+		c.releaseSeat();
+		assertEquals(0, c.getEnrolled());
+	}
+}
@@ -297,5 +297,25 @@ public class EventTest {
 		assertEquals(e1.hashCode(), e8.hashCode()); //field not considered in hashCode
 		
 	}
-
-}
\ No newline at end of file
+	
+	/**
+	 * Test Event.getMeetingDaysMask() and Event.sharesMeetingDay().
+	 */
+	@Test
+	public void testGetMeetingDaysMask() {
+		Activity e1 = new Event(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		assertEquals(Activity.WEEKDAYS, e1.getMeetingDaysMask());
+		Activity e2 = new Event(EVENT_TITLE, "SU", EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		assertEquals(Activity.SATURDAY | Activity.SUNDAY, e2.getMeetingDaysMask());
+		Activity e3 = new Event(EVENT_TITLE, "UMTWHFS", EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		assertEquals(Activity.ALL_DAYS, e3.getMeetingDaysMask());
+		
+		assertFalse(e1.sharesMeetingDay(e2));
+		assertTrue(e3.sharesMeetingDay(e1));
+		assertTrue(e3.sharesMeetingDay(e2));
+		
+		//Events can't be arranged or repeat a day
+		assertThrows(IllegalArgumentException.class, () -> new Event(EVENT_TITLE, "A", EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS));
+		assertThrows(IllegalArgumentException.class, () -> new Event(EVENT_TITLE, "SUS", EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS));
+	}
+}
@@ -1,13 +1,22 @@
 package edu.ncsu.csc216.wolf_scheduler.io;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
 import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.Set;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
@@ -59,6 +68,173 @@ public class ActivityRecordIOTest {
 		checkFiles("test-files/expected_activity_records.txt", "test-files/actual_activity_records.txt");
 	}
 
+	/**
+	 * Tests writeActivityRecordsAtomically().
+	 */
+	@Test
+	public void testWriteActivityRecordsAtomically() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Event("Exercise", "UMTHFS", 800, 900, "Cardio with rest day on Wednesday."));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		
+		try {
+			//Write twice so that the second write replaces an existing file
+			ActivityRecordIO.writeActivityRecordsAtomically("test-files/actual_activity_records.txt", new ArrayList<Activity>());
+			ActivityRecordIO.writeActivityRecordsAtomically("test-files/actual_activity_records.txt", activities);
+		} catch (IOException e) {
+			fail("Cannot write to activity records file");
+		}
+		
+		checkFiles("test-files/expected_activity_records.txt", "test-files/actual_activity_records.txt");
+		
+		//No temporary files are left behind
+		File[] temps = new File("test-files").listFiles((dir, name) -> name.endsWith(".tmp"));
+		assertEquals(0, temps.length);
+		
+		assertThrows(IOException.class, () -> ActivityRecordIO.writeActivityRecordsAtomically("test-files/no_such_directory/actual_activity_records.txt", activities));
+	}
+	
+	/**
+	 * Tests that writeActivityRecordsAtomically() gives a new file the usual permissions and keeps the permissions of a
+	 * file it replaces.  Only runs on file systems with POSIX permissions.
+	 * @throws IOException if the file can't be written
+	 */
+	@Test
+	public void testWriteActivityRecordsAtomicallyPermissions() throws IOException {
+		Path target = Paths.get("test-files/actual_activity_records.txt");
+		assumeTrue(Files.getFileAttributeView(target.toAbsolutePath().getParent(), PosixFileAttributeView.class) != null);
+		Path plain = Paths.get("test-files/actual_plain_records.txt");
+		Files.deleteIfExists(plain);
+		Files.deleteIfExists(target);
+		ActivityRecordIO.writeActivityRecords(plain.toString(), new ArrayList<Activity>());
+		ActivityRecordIO.writeActivityRecordsAtomically(target.toString(), new ArrayList<Activity>());
+		assertEquals(Files.getPosixFilePermissions(plain), Files.getPosixFilePermissions(target));
+		
+		Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+		Files.setPosixFilePermissions(target, permissions);
+		ActivityRecordIO.writeActivityRecordsAtomically(target.toString(), new ArrayList<Activity>());
+		assertEquals(permissions, Files.getPosixFilePermissions(target));
+	}
+	
+	/**
+	 * Tests writeActivityRecordBatch().
+	 */
+	@Test
+	public void testWriteActivityRecordBatch() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "spbalik", "MW", 1250, 1440));
+		activities.add(new Event("Exercise", "UMTHFS", 800, 900, "Cardio with rest day on Wednesday."));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 1330, 1445));
+		activities.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		ArrayList<String> titles = new ArrayList<String>();
+		titles.add("My Schedule");
+		ArrayList<ArrayList<Activity>> schedules = new ArrayList<ArrayList<Activity>>();
+		schedules.add(activities);
+		
+		try {
+			ActivityRecordIO.writeActivityRecordBatch("test-files/actual_batch_records.txt", titles, schedules);
+		} catch (IOException e) {
+			fail("Cannot write to activity records file");
+		}
+		
+		try (Scanner actScanner = new Scanner(new File("test-files/actual_batch_records.txt"))) {
+			assertEquals("#SCHEDULE,4,My Schedule", actScanner.nextLine());
+			assertEquals("CSC 116,Intro to Programming - Java,003,3,spbalik,MW,1250,1440", actScanner.nextLine());
+			assertEquals("Exercise,UMTHFS,800,900,Cardio with rest day on Wednesday.", actScanner.nextLine());
+			assertEquals("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445", actScanner.nextLine());
+			assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", actScanner.nextLine());
+			assertFalse(actScanner.hasNextLine());
+		} catch (IOException e) {
+			fail("Error reading files.");
+		}
+		
+		//Every schedule needs a title
+		titles.clear();
+		assertThrows(IllegalArgumentException.class, () -> ActivityRecordIO.writeActivityRecordBatch("test-files/actual_batch_records.txt", titles, schedules));
+	}
+	
+	/**
+	 * Tests readActivityRecords().
+	 */
+	@Test
+	public void testReadActivityRecords() {
+		try {
+			ArrayList<Activity> activities = ActivityRecordIO.readActivityRecords("test-files/expected_activity_records.txt");
+			assertEquals(4, activities.size());
+			assertTrue(activities.get(0) instanceof Course);
+			assertEquals("CSC 116,Intro to Programming - Java,003,3,spbalik,MW,1250,1440", activities.get(0).toString());
+			assertTrue(activities.get(1) instanceof Event);
+			assertEquals("Exercise,UMTHFS,800,900,Cardio with rest day on Wednesday.", activities.get(1).toString());
+			assertEquals("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445", activities.get(2).toString());
+			assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", activities.get(3).toString());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading activity records");
+		}
+		
+		assertThrows(FileNotFoundException.class, () -> ActivityRecordIO.readActivityRecords("test-files/does_not_exist.txt"));
+	}
+	
+	/**
+	 * Tests readActivity() on individual lines.
+	 */
+	@Test
+	public void testReadActivity() {
+		//Event details may contain commas or be empty
+		Activity a = ActivityRecordIO.readActivity("Lunch,MWF,1200,1300,Food, then coffee");
+		assertEquals("Food, then coffee", ((Event) a).getEventDetails());
+		a = ActivityRecordIO.readActivity("Lunch,MWF,1200,1300,");
+		assertEquals("", ((Event) a).getEventDetails());
+		
+		assertNull(ActivityRecordIO.readActivity(""));
+		assertNull(ActivityRecordIO.readActivity("Lunch,MWF,1200,1300"));
+		assertNull(ActivityRecordIO.readActivity("Lunch,MWF,noon,1300,Food"));
+		assertNull(ActivityRecordIO.readActivity("Lunch,MWA,1200,1300,Food"));
+		assertNull(ActivityRecordIO.readActivity(",MWF,1200,1300,Food"));
+	}
+	
+	/**
+	 * Tests that writeActivityRecords() reports a file that cannot be written.
+	 */
+	@Test
+	public void testWriteActivityRecordsNoPermissions() {
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Event("Exercise", "UMTHFS", 800, 900, "Cardio with rest day on Wednesday."));
+		
+		assertThrows(IOException.class, () -> ActivityRecordIO.writeActivityRecords("test-files/no_such_directory/actual_activity_records.txt", activities));
+	}
+	
+	/**
+	 * Tests that writeActivityRecords() reports a write that fails after the file is opened, which PrintStream used to hide.
+	 * Uses /dev/full, which can be opened but fails every write, so it only runs where that device exists.
+	 */
+	@Test
+	public void testWriteActivityRecordsWriteFails() {
+		assumeTrue(Files.isWritable(Paths.get("/dev/full")));
+		ArrayList<Activity> activities = new ArrayList<Activity>();
+		activities.add(new Event("Exercise", "UMTHFS", 800, 900, "Cardio with rest day on Wednesday."));
+		
+		assertThrows(IOException.class, () -> ActivityRecordIO.writeActivityRecords("/dev/full", activities));
+	}
+	
+	/**
+	 * Tests that toString() and the records written by ActivityRecordIO come from the same format.
+	 */
+	@Test
+	public void testRecordFormat() {
+		Course arranged = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A");
+		Event event = new Event("Lunch", "MWF", 1200, 1300, "Food, then coffee");
+		StringBuilder record = new StringBuilder();
+		ActivityRecordIO.appendRecord(record, arranged);
+		assertEquals(arranged.toString(), record.toString());
+		assertEquals("CSC 216,Software Development Fundamentals,601,3,jctetter,A", record.toString());
+		record.setLength(0);
+		ActivityRecordIO.appendRecord(record, event);
+		assertEquals(event.toString(), record.toString());
+		assertEquals(event, ActivityRecordIO.readActivity(record.toString()));
+	}
+
 	/**
 	 * Helper method to compare two files for the same contents
 	 * @param expFile expected output
@@ -0,0 +1,78 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.scheduler.WolfScheduler;
+
+/**
+ * Tests CatalogSnapshotIO.
+ * @author hmreese2
+ */
+public class CatalogSnapshotIOTest {
+	
+	/** Valid course records */
+	private final String validTestFile = "test-files/starter_course_records.txt";
+	/** Snapshot written by the tests */
+	private final String snapshotFile = "test-files/actual_catalog_snapshot.bin";
+
+	/**
+	 * Tests writeCatalogSnapshot() and readCatalogSnapshot() together.
+	 */
+	@Test
+	public void testReadWriteCatalogSnapshot() {
+		try {
+			ArrayList<Course> catalog = CourseRecordIO.readCourseRecords(validTestFile);
+			CatalogSnapshotIO.writeCatalogSnapshot(snapshotFile, catalog);
+			assertTrue(CatalogSnapshotIO.isCatalogSnapshot(snapshotFile));
+			
+			ArrayList<Course> snapshot = CatalogSnapshotIO.readCatalogSnapshot(snapshotFile);
+			assertEquals(catalog, snapshot);
+			
+			//Strings repeated across sections are shared
+			assertSame(snapshot.get(0).getTitle(), snapshot.get(1).getTitle());
+			
+			//An empty catalog
+			CatalogSnapshotIO.writeCatalogSnapshot(snapshotFile, new ArrayList<Course>());
+			assertEquals(0, CatalogSnapshotIO.readCatalogSnapshot(snapshotFile).size());
+		} catch (IOException e) {
+			fail("Unexpected error: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Tests that files that are not snapshots are rejected.
+	 */
+	@Test
+	public void testReadCatalogSnapshotInvalid() {
+		assertFalse(CatalogSnapshotIO.isCatalogSnapshot(validTestFile));
+		assertFalse(CatalogSnapshotIO.isCatalogSnapshot("test-files/does_not_exist.txt"));
+		
+		Exception e = assertThrows(IOException.class, () -> CatalogSnapshotIO.readCatalogSnapshot(validTestFile));
+		assertEquals("Not a catalog snapshot.", e.getMessage());
+		assertThrows(IOException.class, () -> CatalogSnapshotIO.readCatalogSnapshot("test-files/does_not_exist.txt"));
+	}
+	
+	/**
+	 * Tests constructing a WolfScheduler from a snapshot.
+	 */
+	@Test
+	public void testWolfSchedulerFromSnapshot() {
+		try {
+			CatalogSnapshotIO.writeCatalogSnapshot(snapshotFile, CourseRecordIO.readCourseRecords(validTestFile));
+		} catch (IOException e) {
+			fail("Unexpected error: " + e.getMessage());
+		}
+		
+		WolfScheduler text = new WolfScheduler(validTestFile);
+		WolfScheduler snapshot = new WolfScheduler(snapshotFile);
+		assertArrayEquals(text.getCourseCatalog(), snapshot.getCourseCatalog());
+		assertTrue(snapshot.addCourseToSchedule("CSC 216", "001"));
+	}
+
+}
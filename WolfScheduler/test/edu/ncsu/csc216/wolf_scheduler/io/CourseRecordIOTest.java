@@ -13,6 +13,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
@@ -107,6 +108,116 @@ public class CourseRecordIOTest {
 		}
 	}
 	
+	/**
+	 * Tests readCourseRecords() with load statistics.
+	 */
+	@Test
+	public void testReadCourseRecordsStatistics() {
+		try {
+			CatalogLoadStatistics stats = new CatalogLoadStatistics();
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecords(validTestFile, stats);
+			assertEquals(13, courses.size());
+			assertEquals(14, stats.getLinesRead());
+			assertEquals(13, stats.getAccepted());
+			assertEquals(0, stats.getRejectedInvalid());
+			assertEquals(1, stats.getRejectedDuplicate());
+			
+			stats = new CatalogLoadStatistics();
+			courses = CourseRecordIO.readCourseRecords(invalidTestFile, stats);
+			assertEquals(0, courses.size());
+			assertEquals(25, stats.getLinesRead());
+			assertEquals(0, stats.getAccepted());
+			assertEquals(25, stats.getRejectedInvalid());
+			assertEquals(0, stats.getRejectedDuplicate());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+	}
+	
+	/**
+	 * Tests streamCourseRecords().
+	 */
+	@Test
+	public void testStreamCourseRecords() {
+		//All 14 valid lines are streamed, including the duplicate CSC 116-002 on line 4
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile)) {
+			assertEquals(14, courses.count());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		
+		//Filter and aggregate in a single pass
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile)) {
+			assertEquals(4, courses.filter(c -> "CSC 217".equals(c.getName())).mapToInt(Course::getCredits).sum());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		
+		//Stop early, closing the file without reading the rest of it
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(validTestFile)) {
+			assertEquals(validCourse1, courses.findFirst().get().toString());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		
+		try (Stream<Course> courses = CourseRecordIO.streamCourseRecords(invalidTestFile)) {
+			assertEquals(0, courses.count());
+		} catch (FileNotFoundException e) {
+			fail("Unexpected error reading " + invalidTestFile);
+		}
+		
+		assertThrows(FileNotFoundException.class, () -> CourseRecordIO.streamCourseRecords("test-files/does_not_exist.txt"));
+	}
+	
+	/**
+	 * Tests readCourseRecordsParallel().
+	 */
+	@Test
+	public void testReadCourseRecordsParallel() {
+		try {
+			ArrayList<Course> courses = CourseRecordIO.readCourseRecordsParallel(validTestFile);
+			assertEquals(13, courses.size());
+			for (int i = 0; i < validCourses.length; i++) {
+				assertEquals(validCourses[i], courses.get(i).toString());
+			}
+			
+			//Small chunks split the file in many places, but the result should be the same
+			for (int chunkSize = 1; chunkSize < 200; chunkSize += 7) {
+				courses = CourseRecordIO.readCourseRecordsParallel(validTestFile, chunkSize);
+				assertEquals(13, courses.size());
+				for (int i = 0; i < validCourses.length; i++) {
+					assertEquals(validCourses[i], courses.get(i).toString());
+				}
+			}
+			
+			courses = CourseRecordIO.readCourseRecordsParallel(invalidTestFile, 64);
+			assertEquals(0, courses.size());
+		} catch (IOException e) {
+			fail("Unexpected error reading " + validTestFile);
+		}
+		
+		assertThrows(FileNotFoundException.class, () -> CourseRecordIO.readCourseRecordsParallel("test-files/does_not_exist.txt"));
+	}
+	
+	/**
+	 * Tests readCourse() on individual lines.
+	 */
+	@Test
+	public void testReadCourse() {
+		assertEquals(validCourse1, CourseRecordIO.readCourse("CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,0910,1100").toString());
+		assertEquals(validCourse6, CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,601,3,jctetter,A").toString());
+		assertEquals(validCourse6, CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,601,+3,jctetter,A,").toString());
+		
+		assertNull(CourseRecordIO.readCourse(""));
+		assertNull(CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,601,3,jctetter"));
+		assertNull(CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330"));
+		assertNull(CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,1445,extra,more"));
+		assertNull(CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,001,three,sesmith5,MW,1330,1445"));
+		assertNull(CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,13x0,1445"));
+		assertNull(CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,1330,99999999999"));
+		assertNull(CourseRecordIO.readCourse("CSC 216,Software Development Fundamentals,001,3,sesmith5,MW,-,1445"));
+	}
+	
 	/**
 	 * Tests writeCourseRecords()
 	 */
@@ -0,0 +1,164 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ * Tests RecordStore.
+ * @author hmreese2
+ */
+public class RecordStoreTest {
+	
+	/** Store written by the tests */
+	private final String storeFile = "test-files/actual_record_store.bin";
+
+	/**
+	 * Tests storing, replacing, and removing values, and reading them back after the store is reopened.
+	 * @throws IOException if the store can't be written
+	 */
+	@Test
+	public void testPutGetRemove() throws IOException {
+		Path path = Paths.get(storeFile);
+		Files.deleteIfExists(path);
+		
+		try (RecordStore store = new RecordStore(storeFile)) {
+			assertEquals(0, store.size());
+			assertNull(store.get("course:CSC 216,001"));
+			store.put("course:CSC 216,001", "CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1330,1445");
+			store.put("course:CSC 116,001", "CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100");
+			store.put("student:jsmith", "#SCHEDULE,0,My Schedule\n");
+			assertEquals(3, store.size());
+			assertEquals("CSC 216,Software Development Fundamentals,001,3,sesmith5,TH,1330,1445", store.get("course:CSC 216,001"));
+			
+			//A live value is never overwritten; each new value goes to the end of the file and the key keeps its place
+			long size = Files.size(path);
+			store.put("course:CSC 216,001", "CSC 216,Software Development Fundamentals,001,4,sesmith5,TH,1330,1445");
+			store.put("course:CSC 216,001", "CSC 216,SDF,001,3,sesmith5,TH,1330,1445");
+			assertTrue(Files.size(path) > size);
+			assertEquals("CSC 216,SDF,001,3,sesmith5,TH,1330,1445", store.get("course:CSC 216,001"));
+			assertEquals("course:CSC 216,001", store.keys("course:").get(0));
+			
+			store.put("student:jsmith", "#SCHEDULE,1,Fall, 2026\nCSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100\n");
+			store.put("course:CSC 316,001", "CSC 316,Data Structures and Algorithms,001,3,jtking,MW,830,945");
+			assertTrue(store.remove("course:CSC 116,001"));
+			assertFalse(store.remove("course:CSC 116,001"));
+			
+			ArrayList<String> keys = store.keys("course:");
+			assertEquals(2, keys.size());
+			assertEquals("course:CSC 216,001", keys.get(0));
+			store.sync();
+		}
+		
+		try (RecordStore store = new RecordStore(storeFile)) {
+			//Keys are read back in the order they were first stored
+			assertEquals(3, store.size());
+			assertEquals("course:CSC 216,001", store.keys("course:").get(0));
+			assertEquals("course:CSC 316,001", store.keys("course:").get(1));
+			assertEquals("CSC 216,SDF,001,3,sesmith5,TH,1330,1445", store.get("course:CSC 216,001"));
+			assertNull(store.get("course:CSC 116,001"));
+			assertEquals("#SCHEDULE,1,Fall, 2026\nCSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100\n", 
+					store.get("student:jsmith"));
+			
+			//Once half the file is dead slots, it is compacted
+			assertTrue(store.compact());
+			assertFalse(store.compact());
+			String value = "x";
+			for (int i = 0; i < 8; i++) {
+				value = value + value;
+				store.put("scratch", value);
+			}
+			assertTrue(store.remove("scratch"));
+			long size = Files.size(path);
+			assertTrue(store.compact());
+			assertTrue(Files.size(path) < size);
+			assertFalse(store.compact());
+			assertEquals("CSC 216,SDF,001,3,sesmith5,TH,1330,1445", store.get("course:CSC 216,001"));
+			assertEquals("course:CSC 316,001", store.keys("course:").get(1));
+			
+			//Replacing the keys with a prefix keeps the other keys
+			LinkedHashMap<String, String> courses = new LinkedHashMap<String, String>();
+			courses.put("course:CSC 316,001", "CSC 316,DSA,001,3,jtking,MW,830,945");
+			courses.put("course:CSC 116,001", "CSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100");
+			store.replacePrefix("course:", courses);
+			assertEquals(new ArrayList<String>(courses.keySet()), store.keys("course:"));
+			assertEquals("CSC 316,DSA,001,3,jtking,MW,830,945", store.get("course:CSC 316,001"));
+			assertNull(store.get("course:CSC 216,001"));
+			assertEquals(3, store.size());
+		}
+		
+		try (RecordStore store = new RecordStore(storeFile)) {
+			assertEquals(3, store.size());
+			assertEquals("course:CSC 316,001", store.keys("course:").get(0));
+			assertEquals("#SCHEDULE,1,Fall, 2026\nCSC 116,Intro to Programming - Java,001,3,jdyoung2,MW,910,1100\n", 
+					store.get("student:jsmith"));
+		}
+	}
+	
+	/**
+	 * Tests that a slot only partly written when the program stopped is dropped, and that a damaged store or a file that
+	 * isn't a store is rejected.
+	 * @throws IOException if the store can't be written
+	 */
+	@Test
+	public void testRecovery() throws IOException {
+		Path path = Paths.get(storeFile);
+		Files.deleteIfExists(path);
+		try (RecordStore store = new RecordStore(storeFile)) {
+			store.put("a", "first");
+			store.put("b", "second");
+		}
+		
+		//Cut the last slot in half
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 10);
+		}
+		try (RecordStore store = new RecordStore(storeFile)) {
+			assertEquals(1, store.size());
+			assertEquals("first", store.get("a"));
+			store.put("b", "again");
+		}
+		byte[] before = Files.readAllBytes(path);
+		try (RecordStore store = new RecordStore(storeFile)) {
+			assertEquals("again", store.get("b"));
+			store.put("a", "third");
+		}
+		
+		//A crash partway through writing a new slot leaves a slot whose bytes don't match its checksum, before the old slot
+		//was marked dead; the new slot is dropped and the old value is used
+		byte[] after = Files.readAllBytes(path);
+		byte[] torn = Arrays.copyOf(after, after.length);
+		System.arraycopy(before, 0, torn, 0, before.length);
+		torn[torn.length - 1] = 'X';
+		Files.write(path, torn);
+		try (RecordStore store = new RecordStore(storeFile)) {
+			assertEquals("first", store.get("a"));
+			assertEquals("again", store.get("b"));
+			store.put("c", "fourth");
+		}
+		
+		//A damaged slot before the last one isn't a cut-short write, so the store isn't opened and the file is left alone
+		byte[] damaged = Files.readAllBytes(path);
+		damaged[before.length - 1] ^= 1;
+		Files.write(path, damaged);
+		IOException e = assertThrows(IOException.class, () -> new RecordStore(storeFile));
+		assertEquals("Corrupt record store.", e.getMessage());
+		assertArrayEquals(damaged, Files.readAllBytes(path));
+		
+		Files.write(path, "CSC 216,SDF,001,3,sesmith5,TH,1330,1445".getBytes(StandardCharsets.UTF_8));
+		e = assertThrows(IOException.class, () -> new RecordStore(storeFile));
+		assertEquals("Not a record store.", e.getMessage());
+	}
+
+}
@@ -0,0 +1,119 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ScheduleJournal.
+ * @author hmreese2
+ */
+public class ScheduleJournalTest {
+	
+	/** Journal written by the tests */
+	private final String journalFile = "test-files/actual_journal.txt";
+	/** A course */
+	private final Course course = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445);
+	/** An event whose details contain commas */
+	private final Event event = new Event("Lunch", "MWF", 1200, 1300, "Food, then coffee");
+
+	/**
+	 * Tests writing changes to a journal and reading them back.
+	 * @throws IOException if the journal can't be written
+	 */
+	@Test
+	public void testReadEntries() throws IOException {
+		Path path = Paths.get(journalFile);
+		Files.deleteIfExists(path);
+		assertTrue(ScheduleJournal.readEntries(journalFile).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> new ScheduleJournal(journalFile, 0));
+		
+		try (ScheduleJournal journal = new ScheduleJournal(journalFile, 2)) {
+			journal.logAdd(0, course);
+			journal.logAdd(1, event);
+			journal.logTitle("Fall, 2026");
+			journal.logRemove(0);
+			journal.logReset();
+			assertEquals(5, journal.getEntryCount());
+		}
+		
+		List<ScheduleJournal.Entry> entries = ScheduleJournal.readEntries(journalFile);
+		assertEquals(5, entries.size());
+		assertEquals(ScheduleJournal.ADD, entries.get(0).getKind());
+		assertEquals(0, entries.get(0).getIndex());
+		assertEquals(course, entries.get(0).getActivity());
+		assertEquals(event, entries.get(1).getActivity());
+		assertEquals("Food, then coffee", ((Event) entries.get(1).getActivity()).getEventDetails());
+		assertEquals(ScheduleJournal.TITLE, entries.get(2).getKind());
+		assertEquals("Fall, 2026", entries.get(2).getTitle());
+		assertEquals(ScheduleJournal.REMOVE, entries.get(3).getKind());
+		assertEquals(0, entries.get(3).getIndex());
+		assertEquals(ScheduleJournal.RESET, entries.get(4).getKind());
+		
+		//A partly written last line is ignored, even if what was written of it reads as a complete change
+		byte[] complete = Files.readAllBytes(path);
+		Files.write(path, "ADD,2,CSC 216,Software".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+		assertEquals(5, ScheduleJournal.readEntries(journalFile).size());
+		for (String torn : new String[] {"REMOVE,1", "TITLE,Fa"}) {
+			Files.write(path, complete);
+			Files.write(path, torn.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+			assertEquals(5, ScheduleJournal.readEntries(journalFile).size());
+		}
+		
+		//Changes reach the file before they are committed
+		try (ScheduleJournal journal = new ScheduleJournal(journalFile)) {
+			journal.logTitle("Spring");
+			assertTrue(Files.readString(path, StandardCharsets.UTF_8).endsWith("TITLE,Spring" + System.lineSeparator()));
+		}
+	}
+	
+	/**
+	 * Tests compacting a journal into a snapshot.
+	 * @throws IOException if the journal can't be written
+	 */
+	@Test
+	public void testCompact() throws IOException {
+		Files.deleteIfExists(Paths.get(journalFile));
+		ArrayList<Activity> schedule = new ArrayList<Activity>();
+		schedule.add(course);
+		schedule.add(event);
+		
+		try (ScheduleJournal journal = new ScheduleJournal(journalFile)) {
+			for (int i = 0; i < 50; i++) {
+				journal.logTitle("Title " + i);
+			}
+			journal.compact("Fall", schedule);
+			assertEquals(0, journal.getEntryCount());
+			journal.logRemove(1);
+		}
+		
+		//The snapshot uses the batch format of ActivityRecordIO
+		List<String> lines = Files.readAllLines(Paths.get(journalFile), StandardCharsets.UTF_8);
+		assertEquals(4, lines.size());
+		assertEquals(ActivityRecordIO.SCHEDULE_HEADER + ",2,Fall", lines.get(0));
+		assertEquals(course.toString(), lines.get(1));
+		assertEquals("REMOVE,1", lines.get(3));
+		
+		List<ScheduleJournal.Entry> entries = ScheduleJournal.readEntries(journalFile);
+		assertEquals(5, entries.size());
+		assertEquals(ScheduleJournal.RESET, entries.get(0).getKind());
+		assertEquals("Fall", entries.get(1).getTitle());
+		assertEquals(course, entries.get(2).getActivity());
+		assertEquals(1, entries.get(3).getIndex());
+		assertEquals(ScheduleJournal.REMOVE, entries.get(4).getKind());
+	}
+
+}
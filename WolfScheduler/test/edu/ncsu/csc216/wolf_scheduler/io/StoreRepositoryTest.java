@@ -0,0 +1,70 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests StoreRepository.
+ * @author hmreese2
+ */
+public class StoreRepositoryTest {
+	
+	/** Store written by the tests */
+	private final String storeFile = "test-files/actual_store_repository.bin";
+
+	/**
+	 * Tests saving and updating the catalog and schedules, and reading them back after the store is reopened.
+	 * @throws IOException if the store can't be read or written
+	 */
+	@Test
+	public void testCatalogAndSchedules() throws IOException {
+		Files.deleteIfExists(Paths.get(storeFile));
+		ArrayList<Course> catalog = CourseRecordIO.readCourseRecords("test-files/course_records.txt");
+		Course changed = new Course("CSC 216", "Software Development Fundamentals", "001", 4, "sesmith5", "MW", 800, 915);
+		ArrayList<Activity> schedule = new ArrayList<Activity>();
+		schedule.add(catalog.get(0));
+		schedule.add(new Event("Lunch", "MWF", 1200, 1300, "Food, then coffee"));
+		
+		try (StoreRepository repository = new StoreRepository(storeFile)) {
+			assertTrue(repository.loadCatalog().isEmpty());
+			repository.saveCatalog(catalog);
+			repository.updateCourse(changed);
+			assertNull(repository.loadSchedule("jsmith", new ArrayList<Activity>()));
+			repository.saveSchedule("jsmith", "Fall, 2026", schedule);
+			repository.saveSchedule("adoe", "Spring", new ArrayList<Activity>());
+			Exception e = assertThrows(IllegalArgumentException.class, () -> repository.saveSchedule("a,b", "Fall", schedule));
+			assertEquals("Invalid student id.", e.getMessage());
+		}
+		
+		try (StoreRepository repository = new StoreRepository(storeFile)) {
+			ArrayList<Course> courses = repository.loadCatalog();
+			assertEquals(catalog.size(), courses.size());
+			assertEquals(catalog.get(12), courses.get(12));
+			assertEquals(4, courses.get(3).getCredits());
+			assertEquals(800, courses.get(3).getStartTime());
+			
+			ArrayList<Activity> loaded = new ArrayList<Activity>();
+			assertEquals("Fall, 2026", repository.loadSchedule("jsmith", loaded));
+			assertEquals(schedule, loaded);
+			loaded.clear();
+			assertEquals("Spring", repository.loadSchedule("adoe", loaded));
+			assertTrue(loaded.isEmpty());
+			
+			//Replacing the catalog drops courses that aren't in the new catalog but keeps the schedules
+			repository.saveCatalog(catalog.subList(0, 2));
+			assertEquals(2, repository.loadCatalog().size());
+			assertEquals("Spring", repository.loadSchedule("adoe", loaded));
+		}
+	}
+
+}
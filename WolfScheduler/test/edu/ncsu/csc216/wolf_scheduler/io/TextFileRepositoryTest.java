@@ -0,0 +1,81 @@
+package edu.ncsu.csc216.wolf_scheduler.io;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests TextFileRepository.
+ * @author hmreese2
+ */
+public class TextFileRepositoryTest {
+	
+	/** Catalog file written by the tests */
+	private final String catalogFile = "test-files/actual_repository_catalog.txt";
+	/** Directory of the schedule files written by the tests */
+	private final String scheduleDirectory = "test-files/actual_repository_schedules";
+
+	/**
+	 * Tests reading, replacing, and updating the catalog.
+	 * @throws IOException if a file can't be read or written
+	 */
+	@Test
+	public void testCatalog() throws IOException {
+		Files.copy(Paths.get("test-files/course_records.txt"), Paths.get(catalogFile), 
+				StandardCopyOption.REPLACE_EXISTING);
+		try (TextFileRepository repository = new TextFileRepository(catalogFile, scheduleDirectory)) {
+			ArrayList<Course> courses = repository.loadCatalog();
+			assertEquals(13, courses.size());
+			
+			Course changed = new Course("CSC 216", "Software Development Fundamentals", "001", 4, "sesmith5", "MW", 800, 915);
+			repository.updateCourse(changed);
+			repository.updateCourse(new Course("CSC 999", "Capstone", "001", 3, "jdoe", "A"));
+			courses = repository.loadCatalog();
+			assertEquals(14, courses.size());
+			Course reread = courses.get(3);
+			assertEquals(changed, reread);
+			assertEquals(4, reread.getCredits());
+			assertEquals("CSC 999", courses.get(13).getName());
+			
+			repository.saveCatalog(courses.subList(0, 2));
+			assertEquals(2, repository.loadCatalog().size());
+		}
+		assertThrows(IOException.class, () -> new TextFileRepository("test-files/no_catalog.txt", scheduleDirectory).loadCatalog());
+	}
+	
+	/**
+	 * Tests saving and loading schedules.
+	 * @throws IOException if a file can't be read or written
+	 */
+	@Test
+	public void testSchedules() throws IOException {
+		TextFileRepository repository = new TextFileRepository(catalogFile, scheduleDirectory);
+		Files.deleteIfExists(Paths.get(scheduleDirectory, "jsmith.txt"));
+		ArrayList<Activity> schedule = new ArrayList<Activity>();
+		assertNull(repository.loadSchedule("jsmith", schedule));
+		
+		schedule.add(new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445));
+		schedule.add(new Event("Lunch", "MWF", 1200, 1300, "Food, then coffee"));
+		repository.saveSchedule("jsmith", "Fall, 2026", schedule);
+		ArrayList<Activity> loaded = new ArrayList<Activity>();
+		assertEquals("Fall, 2026", repository.loadSchedule("jsmith", loaded));
+		assertEquals(schedule, loaded);
+		assertEquals("Food, then coffee", ((Event) loaded.get(1)).getEventDetails());
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> repository.saveSchedule("../jsmith", "Fall", schedule));
+		assertEquals("Invalid student id.", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> repository.loadSchedule("", loaded));
+		assertThrows(IllegalArgumentException.class, () -> repository.loadSchedule(null, loaded));
+	}
+
+}
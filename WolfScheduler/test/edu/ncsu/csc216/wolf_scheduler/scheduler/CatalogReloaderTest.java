@@ -0,0 +1,169 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CatalogReloader and CatalogDelta.
+ * @author hmreese2
+ */
+public class CatalogReloaderTest {
+	
+	/** Catalog file written by the tests */
+	private final String catalogFile = "test-files/actual_reload_catalog.txt";
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+
+	/**
+	 * Tests reloading a changed catalog and moving a schedule to it.
+	 * @throws IOException if the catalog file can't be written
+	 */
+	@Test
+	public void testReload() throws IOException {
+		Path path = Paths.get(catalogFile);
+		Files.copy(Paths.get(validTestFile), path, StandardCopyOption.REPLACE_EXISTING);
+		CatalogReloader reloader = new CatalogReloader(catalogFile);
+		CourseCatalog first = reloader.getCatalog();
+		assertEquals(13, first.size());
+		assertTrue(reloader.reload().isEmpty());
+		assertSame(first, reloader.getCatalog());
+		
+		WolfScheduler ws = new WolfScheduler(first);
+		reloader.register(ws);
+		assertTrue(ws.addCourseToSchedule("CSC 116", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+		ws.addEventToSchedule("Tutoring", "MW", 1110, 1140, "Library");
+		CatalogDelta resized = reloader.updateCapacity("CSC 216", "001", 30);
+		assertEquals(1, resized.getModified().size());
+		assertSame(reloader.getCatalog(), ws.getCatalog());
+		assertEquals(30, ws.getCourseFromCatalog("CSC 216", "001").getCapacity());
+		assertEquals(4, ws.getScheduledActivities().length);
+		Exception e = assertThrows(IllegalArgumentException.class, () -> reloader.updateCapacity("CSC 999", "001", 30));
+		assertEquals("Course doesn't exist.", e.getMessage());
+		
+		//Remove CSC 230, move CSC 216-001, move CSC 116-001 onto the event, add CSC 333, and only change the format of CSC 226
+		List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+		lines.removeIf(line -> line.startsWith("CSC 230"));
+		lines.replaceAll(line -> line.replace("sesmith5,TH,1330,1445", "sesmith5,TH,1500,1615")
+				.replace("jdyoung2,MW,0910,1100", "jdyoung2,MW,1030,1130").replace("MWF,935,1025", "MWF,0935,1025"));
+		lines.add("CSC 333,Automata and Computability,001,3,jdoe,TH,800,915");
+		Files.write(path, lines, StandardCharsets.UTF_8);
+		
+		CatalogDelta delta = reloader.reload();
+		CourseCatalog second = reloader.getCatalog();
+		assertSame(second, delta.getNewCatalog());
+		assertSame(second, ws.getCatalog());
+		assertEquals(1, delta.getAdded().size());
+		assertEquals("CSC 333", delta.getAdded().get(0).getName());
+		assertEquals(1, delta.getRemoved().size());
+		assertEquals("CSC 230", delta.getRemoved().get(0).getName());
+		assertEquals(2, delta.getModified().size());
+		assertSame(first.getCourse("CSC 226", "001"), second.getCourse("CSC 226", "001"));
+		
+		//CSC 216-001 is replaced in place and keeps its capacity and seats; CSC 116-001 now conflicts and CSC 230 is gone
+		Course moved = second.getCourse("CSC 216", "001");
+		assertEquals(1500, moved.getStartTime());
+		assertEquals(30, moved.getCapacity());
+		assertEquals(1, moved.getEnrolled());
+		assertTrue(moved.sharesSeatsWith(first.getCourse("CSC 216", "001")));
+		assertEquals(0, second.getCourse("CSC 116", "001").getEnrolled());
+		assertEquals(0, first.getCourse("CSC 230", "001").getEnrolled());
+		String[][] schedule = ws.getScheduledActivities();
+		assertEquals(2, schedule.length);
+		assertEquals("CSC 216", schedule[0][0]);
+		assertEquals("Tutoring", schedule[1][2]);
+		assertEquals(3, ws.getScheduledCredits());
+		assertFalse(ws.canUndo());
+		
+		//The student is told about the dropped sections once
+		String[][] dropped = ws.takeDroppedSections();
+		assertEquals(2, dropped.length);
+		assertEquals("CSC 230", dropped[0][0]);
+		assertEquals("CSC 116", dropped[1][0]);
+		assertEquals(0, ws.takeDroppedSections().length);
+		
+		//A WolfScheduler on an old catalog is brought up to date when it is registered
+		WolfScheduler late = new WolfScheduler(first);
+		assertTrue(late.addCourseToSchedule("CSC 230", "001"));
+		reloader.register(late);
+		assertSame(second, late.getCatalog());
+		assertEquals(0, late.getScheduledActivities().length);
+		assertEquals(1, late.takeDroppedSections().length);
+		assertTrue(reloader.unregister(late));
+		
+		Files.delete(path);
+		e = assertThrows(IllegalArgumentException.class, () -> reloader.reload());
+		assertEquals("Cannot find file.", e.getMessage());
+		assertSame(second, reloader.getCatalog());
+	}
+	
+	/**
+	 * Tests that a student holding a seat in a modified section keeps it while other students are already on the new catalog.
+	 * @throws IOException if the catalog file can't be written
+	 */
+	@Test
+	public void testReloadKeepsSeats() throws IOException {
+		Path path = Paths.get(catalogFile);
+		Files.copy(Paths.get(validTestFile), path, StandardCopyOption.REPLACE_EXISTING);
+		CatalogReloader reloader = new CatalogReloader(catalogFile);
+		reloader.updateCapacity("CSC 216", "001", 1);
+		CourseCatalog first = reloader.getCatalog();
+		WolfScheduler holder = new WolfScheduler(first);
+		assertTrue(holder.addCourseToSchedule("CSC 216", "001"));
+		
+		//The new version is published full, before the holder is moved to it
+		List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+		lines.replaceAll(line -> line.replace("sesmith5,TH,1330,1445", "sesmith5,TH,1500,1615"));
+		Files.write(path, lines, StandardCharsets.UTF_8);
+		reloader.reload();
+		WolfScheduler other = new WolfScheduler(reloader.getCatalog());
+		Exception e = assertThrows(IllegalArgumentException.class, () -> other.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course is full.", e.getMessage());
+		
+		//The holder keeps the seat when it is moved
+		reloader.register(holder);
+		assertEquals(1, holder.getScheduledActivities().length);
+		assertEquals(1500, holder.getCourseFromCatalog("CSC 216", "001").getStartTime());
+		assertEquals(1, reloader.getCatalog().getCourse("CSC 216", "001").getEnrolled());
+		assertEquals(0, holder.takeDroppedSections().length);
+	}
+	
+	/**
+	 * Tests reloading the catalog when the file is replaced while it is watched.
+	 * @throws IOException if the catalog file can't be written
+	 * @throws InterruptedException if interrupted while waiting for the reload
+	 */
+	@Test
+	public void testWatch() throws IOException, InterruptedException {
+		Path path = Paths.get(catalogFile);
+		Files.copy(Paths.get(validTestFile), path, StandardCopyOption.REPLACE_EXISTING);
+		try (CatalogReloader reloader = new CatalogReloader(catalogFile)) {
+			reloader.start();
+			Path temp = Paths.get(catalogFile + ".tmp");
+			List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+			lines.add("CSC 333,Automata and Computability,001,3,jdoe,TH,800,915");
+			Files.write(temp, lines, StandardCharsets.UTF_8);
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			
+			long deadline = System.currentTimeMillis() + 10000;
+			while (reloader.getCatalog().size() == 13 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+			assertEquals(14, reloader.getCatalog().size());
+			assertNotNull(reloader.getCatalog().getCourse("CSC 333", "001"));
+		}
+	}
+
+}
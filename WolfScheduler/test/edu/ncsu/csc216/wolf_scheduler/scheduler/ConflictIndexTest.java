@@ -0,0 +1,46 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ConflictIndex.
+ * @author hmreese2
+ */
+public class ConflictIndexTest {
+
+	/**
+	 * Tests ConflictIndex.findConflict() as activities are added and removed.
+	 */
+	@Test
+	public void testFindConflict() {
+		ConflictIndex index = new ConflictIndex();
+		Activity morning = new Event("Gym", "MWF", 800, 900, "");
+		Activity noon = new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310);
+		Activity evening = new Event("Work", "UMTWHFS", 1700, 2100, "");
+		Activity arranged = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A");
+		
+		index.add(morning);
+		index.add(noon);
+		index.add(evening);
+		index.add(arranged);
+		
+		assertNull(index.findConflict(new Event("Free", "MTWHF", 901, 1119, "")));
+		assertNull(index.findConflict(new Event("Free", "T", 800, 1600, "")));
+		assertNull(index.findConflict(arranged));
+		assertSame(morning, index.findConflict(new Event("Early", "F", 600, 800, "")));
+		assertSame(noon, index.findConflict(new Event("Lunch", "W", 1200, 1230, "")));
+		assertSame(noon, index.findConflict(new Event("Long", "M", 1000, 1600, "")));
+		assertSame(evening, index.findConflict(new Event("Late", "S", 2059, 2300, "")));
+		
+		index.remove(noon);
+		assertNull(index.findConflict(new Event("Lunch", "W", 1200, 1230, "")));
+		assertSame(morning, index.findConflict(new Event("Long", "M", 800, 1600, "")));
+	}
+
+}
@@ -0,0 +1,149 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests CourseCatalog.
+ * @author hmreese2
+ */
+public class CourseCatalogTest {
+	
+	/** Valid course records */
+	private final String validTestFile = "test-files/course_records.txt";
+
+	/**
+	 * Tests CourseCatalog() with course record files.
+	 */
+	@Test
+	public void testCourseCatalogFile() {
+		CourseCatalog catalog = new CourseCatalog(validTestFile);
+		assertEquals(13, catalog.size());
+		assertEquals(13, new CourseCatalog(validTestFile, true).size());
+		assertThrows(UnsupportedOperationException.class, () -> catalog.getCourses().remove(0));
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> new CourseCatalog("test-files/nonexistent.txt"));
+		assertEquals("Cannot find file.", e.getMessage());
+	}
+	
+	/**
+	 * Tests CourseCatalog() with a list of courses and the catalog lookups.
+	 */
+	@Test
+	public void testCourseCatalogList() {
+		List<Course> courses = new ArrayList<Course>();
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310));
+		courses.add(new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "003", 3, "tbdimitr", "TH", 1120, 1310));
+		courses.add(new Course("CSC 116", "Intro to Programming - Java", "002", 3, "jtking", "TH", 910, 1100));
+		CourseCatalog catalog = new CourseCatalog(courses);
+		
+		//Later changes to the list don't affect the catalog
+		courses.clear();
+		assertEquals(4, catalog.size());
+		
+		//First occurrence of a name and section wins
+		assertEquals("spbalik", catalog.getCourse("CSC 116", "002").getInstructorId());
+		assertNull(catalog.getCourse("CSC 116", "001"));
+		List<Course> sections = catalog.getSections("CSC 116");
+		assertEquals(2, sections.size());
+		assertEquals("002", sections.get(0).getSection());
+		assertEquals("003", sections.get(1).getSection());
+		assertNull(catalog.getSections("CSC 999"));
+		
+		//Precomputed meeting times
+		assertEquals(Activity.MONDAY | Activity.WEDNESDAY, catalog.getMeetingDaysMask(0));
+		assertEquals(11 * 60 + 20, catalog.getStartMinute(0));
+		assertEquals(13 * 60 + 10, catalog.getEndMinute(0));
+		assertEquals(Activity.ARRANGED, catalog.getMeetingDaysMask(1));
+	}
+	
+	/**
+	 * Tests building new versions of a catalog with withCourse() and withoutCourse().
+	 */
+	@Test
+	public void testNewVersions() {
+		CourseCatalog catalog = new CourseCatalog(validTestFile);
+		Course first = catalog.getCourse("CSC 216", "001");
+		assertTrue(first.isReadOnly());
+		assertThrows(UnsupportedOperationException.class, () -> first.setCredits(4));
+		
+		Course changed = new Course("CSC 216", "Software Development Fundamentals", "001", 4, "sesmith5", "MW", 800, 915);
+		CourseCatalog second = catalog.withCourse(changed);
+		assertTrue(changed.isReadOnly());
+		assertSame(first, catalog.getCourse("CSC 216", "001"));
+		assertSame(changed, second.getCourse("CSC 216", "001"));
+		assertEquals(13, second.size());
+		assertSame(changed, second.getCourses().get(3));
+		assertEquals(4, second.getSections("CSC 216").get(0).getCredits());
+		assertEquals(8 * 60, second.getStartMinute(3));
+		
+		CourseCatalog third = second.withCourse(new Course("CSC 333", "Automata and Computability", "001", 3, "jdoe", "TH", 800, 915));
+		assertEquals(14, third.size());
+		CourseCatalog fourth = third.withoutCourse("CSC 116", "001");
+		assertEquals(13, fourth.size());
+		assertNull(fourth.getCourse("CSC 116", "001"));
+		assertEquals(2, fourth.getSections("CSC 116").size());
+		assertSame(fourth, fourth.withoutCourse("CSC 116", "001"));
+		assertEquals(14, third.size());
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> catalog.withCourse(null));
+		assertEquals("Invalid course.", e.getMessage());
+	}
+	
+	/**
+	 * Tests that new versions of a section carry the capacity and seats of the old version, and that capacity is only
+	 * changed by building a new version with withCapacity().
+	 */
+	@Test
+	public void testCapacityVersions() {
+		CourseCatalog catalog = new CourseCatalog(validTestFile);
+		Course first = catalog.getCourse("CSC 216", "001");
+		assertThrows(UnsupportedOperationException.class, () -> first.setCapacity(1));
+		
+		//A new capacity is a new version that counts the same seats
+		CourseCatalog resized = catalog.withCapacity("CSC 216", "001", 1);
+		Course small = resized.getCourse("CSC 216", "001");
+		assertNotSame(first, small);
+		assertEquals(first, small);
+		assertTrue(small.isReadOnly());
+		assertEquals(1, small.getCapacity());
+		assertEquals(Course.UNLIMITED_CAPACITY, first.getCapacity());
+		assertTrue(small.sharesSeatsWith(first));
+		assertTrue(small.reserveSeat());
+		assertFalse(small.reserveSeat());
+		assertEquals(1, first.getEnrolled());
+		
+		//A replacing Course takes the capacity and seats of the version it replaces
+		Course moved = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "MW", 800, 915);
+		moved.setCapacity(40);
+		CourseCatalog next = resized.withCourse(moved);
+		assertSame(moved, next.getCourse("CSC 216", "001"));
+		assertEquals(1, moved.getCapacity());
+		assertTrue(moved.sharesSeatsWith(small));
+		assertFalse(moved.reserveSeat());
+		
+		//A read-only replacing Course from another catalog is copied rather than changed
+		Course other = new CourseCatalog(validTestFile).getCourse("CSC 216", "001");
+		CourseCatalog back = next.withCourse(other);
+		Course restored = back.getCourse("CSC 216", "001");
+		assertNotSame(other, restored);
+		assertEquals(other, restored);
+		assertEquals(1, restored.getCapacity());
+		assertTrue(restored.sharesSeatsWith(moved));
+		assertEquals(Course.UNLIMITED_CAPACITY, other.getCapacity());
+		assertFalse(other.sharesSeatsWith(moved));
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> catalog.withCapacity("CSC 999", "001", 1));
+		assertEquals("Course doesn't exist.", e.getMessage());
+		e = assertThrows(IllegalArgumentException.class, () -> catalog.withCapacity("CSC 216", "001", -1));
+		assertEquals("Invalid capacity.", e.getMessage());
+	}
+}
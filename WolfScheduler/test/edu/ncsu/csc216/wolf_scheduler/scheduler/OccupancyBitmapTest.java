@@ -0,0 +1,92 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.ConflictException;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests OccupancyBitmap.
+ * @author hmreese2
+ */
+public class OccupancyBitmapTest {
+
+	/**
+	 * Tests OccupancyBitmap.isFree() as activities are occupied and released.
+	 */
+	@Test
+	public void testIsFree() {
+		OccupancyBitmap bitmap = new OccupancyBitmap();
+		Activity noon = new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310);
+		Activity arranged = new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A");
+		assertTrue(bitmap.isFree(noon));
+		
+		bitmap.occupy(noon);
+		bitmap.occupy(arranged);
+		assertFalse(bitmap.isFree(noon));
+		assertTrue(bitmap.isFree(arranged));
+		assertFalse(bitmap.isFree(new Event("Lunch", "W", 1310, 1330, "")));
+		assertTrue(bitmap.isFree(new Event("Lunch", "W", 1311, 1330, "")));
+		assertTrue(bitmap.isFree(new Event("Lunch", "THF", 1200, 1300, "")));
+		
+		//Minutes at the very start and end of the week
+		Activity edges = new Event("Edges", "MU", 0, 2359, "");
+		bitmap.occupy(edges);
+		assertFalse(bitmap.isFree(new Event("Late", "U", 2359, 2359, "")));
+		assertFalse(bitmap.isFree(new Event("Early", "M", 0, 0, "")));
+		
+		bitmap.release(noon);
+		bitmap.release(edges);
+		assertTrue(bitmap.isFree(noon));
+		assertTrue(bitmap.isFree(edges));
+		
+		bitmap.occupy(noon);
+		bitmap.clear();
+		assertTrue(bitmap.isFree(noon));
+	}
+	
+	/**
+	 * Tests that OccupancyBitmap agrees with Activity.checkConflict() for many random activities.
+	 */
+	@Test
+	public void testAgreesWithCheckConflict() {
+		Random random = new Random(216);
+		String[] days = {"M", "T", "W", "H", "F", "S", "U", "MW", "TH", "MWF", "SU", "UMTWHFS"};
+		for (int i = 0; i < 2000; i++) {
+			Activity a = randomEvent(random, days);
+			Activity b = randomEvent(random, days);
+			OccupancyBitmap bitmap = new OccupancyBitmap();
+			bitmap.occupy(a);
+			
+			boolean conflict = false;
+			try {
+				a.checkConflict(b);
+			} catch (ConflictException e) {
+				conflict = true;
+			}
+			assertEquals(conflict, !bitmap.isFree(b), a + " and " + b);
+		}
+	}
+	
+	/**
+	 * Creates an Event with random meeting days and times.
+	 * @param random source of random numbers
+	 * @param days meeting days to choose from
+	 * @return a random Event
+	 */
+	private Event randomEvent(Random random, String[] days) {
+		int start = random.nextInt(24) * 100 + random.nextInt(60);
+		int end = start + random.nextInt(300);
+		if (end % 100 >= 60 || end >= 2400) {
+			end = start;
+		}
+		return new Event("Event", days[random.nextInt(days.length)], start, end, "");
+	}
+
+}
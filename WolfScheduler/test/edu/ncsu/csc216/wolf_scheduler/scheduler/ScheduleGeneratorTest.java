@@ -0,0 +1,165 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+import edu.ncsu.csc216.wolf_scheduler.course.Event;
+
+/**
+ * Tests ScheduleGenerator.
+ * @author hmreese2
+ */
+public class ScheduleGeneratorTest {
+	
+	/** Sections of CSC 116 */
+	private final List<Course> csc116 = Arrays.asList(
+			new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100),
+			new Course("CSC 116", "Intro to Programming - Java", "002", 3, "spbalik", "MW", 1120, 1310),
+			new Course("CSC 116", "Intro to Programming - Java", "003", 3, "tbdimitr", "TH", 1120, 1310));
+	/** Sections of CSC 216 */
+	private final List<Course> csc216 = Arrays.asList(
+			new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1330, 1445),
+			new Course("CSC 216", "Software Development Fundamentals", "002", 3, "ixdoming", "MW", 1330, 1445),
+			new Course("CSC 216", "Software Development Fundamentals", "601", 3, "jctetter", "A"));
+	/** Sections of CSC 217 */
+	private final List<Course> csc217 = Arrays.asList(
+			new Course("CSC 217", "Software Development Fundamentals Lab", "202", 1, "sesmith5", "M", 1040, 1230),
+			new Course("CSC 217", "Software Development Fundamentals Lab", "211", 1, "sesmith5", "T", 830, 1020),
+			new Course("CSC 217", "Software Development Fundamentals Lab", "223", 1, "sesmith5", "W", 1500, 1650),
+			new Course("CSC 217", "Software Development Fundamentals Lab", "601", 1, "sesmith5", "A"));
+
+	/**
+	 * Tests ScheduleGenerator() with invalid settings.
+	 */
+	@Test
+	public void testScheduleGeneratorInvalid() {
+		assertThrows(IllegalArgumentException.class, () -> new ScheduleGenerator(0, 1000, ScheduleScorer.FEWEST_DAYS));
+		assertThrows(IllegalArgumentException.class, () -> new ScheduleGenerator(1, 0, ScheduleScorer.FEWEST_DAYS));
+		assertThrows(IllegalArgumentException.class, () -> new ScheduleGenerator(1, 1000, null));
+	}
+
+	/**
+	 * Tests that ScheduleGenerator.generate() finds every combination without a conflict.
+	 */
+	@Test
+	public void testGenerateAll() {
+		ScheduleGenerator generator = new ScheduleGenerator(100, 10000, ScheduleScorer.FEWEST_DAYS);
+		ArrayList<ArrayList<Course>> results = generator.generate(Arrays.asList(csc217, csc116, csc216), new ArrayList<Activity>());
+		
+		//36 combinations, less 3 each for CSC 217-202 with CSC 116-001 and CSC 116-002
+		assertEquals(30, results.size());
+		assertFalse(generator.wasCutShort());
+		for (ArrayList<Course> combination : results) {
+			assertEquals(3, combination.size());
+			assertEquals("CSC 217", combination.get(0).getName());
+			assertEquals("CSC 116", combination.get(1).getName());
+			assertEquals("CSC 216", combination.get(2).getName());
+			OccupancyBitmap occupancy = new OccupancyBitmap();
+			for (Course c : combination) {
+				assertTrue(occupancy.isFree(c));
+				occupancy.occupy(c);
+			}
+		}
+		
+		//No choices and a course without sections have no combinations
+		assertTrue(generator.generate(new ArrayList<List<Course>>(), new ArrayList<Activity>()).isEmpty());
+		assertTrue(generator.generate(Arrays.asList(csc116, new ArrayList<Course>()), new ArrayList<Activity>()).isEmpty());
+	}
+	
+	/**
+	 * Tests that ScheduleGenerator.generate() ranks combinations with its scorer.
+	 */
+	@Test
+	public void testGenerateScored() {
+		List<List<Course>> choices = Arrays.asList(csc116, csc216, csc217);
+		
+		//Several combinations meet on 2 days; ties go to the first by name and section
+		ArrayList<ArrayList<Course>> fewestDays = new ScheduleGenerator(2, 10000, ScheduleScorer.FEWEST_DAYS)
+				.generate(choices, new ArrayList<Activity>());
+		assertEquals(2, fewestDays.size());
+		assertEquals(-2, ScheduleScorer.FEWEST_DAYS.score(fewestDays.get(1)));
+		assertEquals("001", fewestDays.get(0).get(0).getSection());
+		assertEquals("002", fewestDays.get(0).get(1).getSection());
+		assertEquals("223", fewestDays.get(0).get(2).getSection());
+		
+		//Nothing can start after 11:20AM
+		ArrayList<ArrayList<Course>> latestStart = new ScheduleGenerator(1, 10000, ScheduleScorer.LATEST_START)
+				.generate(choices, new ArrayList<Activity>());
+		assertEquals(1120, ScheduleScorer.LATEST_START.score(latestStart.get(0)));
+		assertEquals("002", latestStart.get(0).get(0).getSection());
+		assertEquals("001", latestStart.get(0).get(1).getSection());
+		assertEquals("223", latestStart.get(0).get(2).getSection());
+	}
+	
+	/**
+	 * Tests that ScheduleGenerator.generate() leaves out full sections and combinations over the credit limit.
+	 */
+	@Test
+	public void testGeneratePruned() {
+		ScheduleGenerator generator = new ScheduleGenerator(100, 10000, ScheduleScorer.FEWEST_DAYS);
+		List<List<Course>> choices = Arrays.asList(csc116, csc216, csc217);
+		
+		//Every combination has 7 credits
+		assertEquals(30, generator.generate(choices, new ArrayList<Activity>(), 7).size());
+		assertTrue(generator.generate(choices, new ArrayList<Activity>(), 6).isEmpty());
+		assertTrue(generator.generate(Arrays.asList(csc116), new ArrayList<Activity>(), 2).isEmpty());
+		
+		//CSC 116-003 has no open seat
+		List<Course> sections = Arrays.asList(
+				new Course("CSC 116", "Intro to Programming - Java", "001", 3, "jdyoung2", "MW", 910, 1100),
+				new Course("CSC 116", "Intro to Programming - Java", "003", 3, "tbdimitr", "TH", 1120, 1310));
+		sections.get(1).setCapacity(1);
+		assertTrue(sections.get(1).reserveSeat());
+		ArrayList<ArrayList<Course>> results = generator.generate(Arrays.asList(sections), new ArrayList<Activity>());
+		assertEquals(1, results.size());
+		assertEquals("001", results.get(0).get(0).getSection());
+	}
+	
+	/**
+	 * Tests that ScheduleGenerator.generate() fits combinations around fixed activities.
+	 */
+	@Test
+	public void testGenerateFixed() {
+		ScheduleGenerator generator = new ScheduleGenerator(100, 10000, ScheduleScorer.FEWEST_DAYS);
+		ArrayList<Activity> fixed = new ArrayList<Activity>();
+		fixed.add(new Event("Work", "MW", 900, 1130, ""));
+		
+		//Only CSC 116-003 fits around work
+		ArrayList<ArrayList<Course>> results = generator.generate(Arrays.asList(csc116), fixed);
+		assertEquals(1, results.size());
+		assertEquals("003", results.get(0).get(0).getSection());
+		
+		//Fixed activities that conflict with each other leave no room
+		fixed.add(new Event("Gym", "W", 1100, 1200, ""));
+		assertTrue(generator.generate(Arrays.asList(csc116), fixed).isEmpty());
+	}
+	
+	/**
+	 * Tests that ScheduleGenerator.generate() stops at its time limit.
+	 */
+	@Test
+	public void testGenerateTimeLimit() {
+		//50^8 arranged combinations, none of which conflict
+		List<List<Course>> choices = new ArrayList<List<Course>>();
+		for (int i = 0; i < 8; i++) {
+			List<Course> sections = new ArrayList<Course>();
+			for (int j = 0; j < 50; j++) {
+				sections.add(new Course("CSC " + (100 + i), "Course", String.format("%03d", j + 1), 3, "sesmith5", "A"));
+			}
+			choices.add(sections);
+		}
+		
+		ScheduleGenerator generator = new ScheduleGenerator(5, 50, ScheduleScorer.FEWEST_DAYS);
+		ArrayList<ArrayList<Course>> results = generator.generate(choices, new ArrayList<Activity>());
+		assertTrue(generator.wasCutShort());
+		assertEquals(5, results.size());
+	}
+
+}
@@ -0,0 +1,37 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests ScheduleTransaction.
+ * @author hmreese2
+ */
+public class ScheduleTransactionTest {
+
+	/**
+	 * Tests adding changes to a ScheduleTransaction.
+	 */
+	@Test
+	public void testScheduleTransaction() {
+		ScheduleTransaction t = new ScheduleTransaction();
+		assertTrue(t.isEmpty());
+		
+		t.dropCourse("CSC 216", "001");
+		assertFalse(t.isEmpty());
+		t.addCourse("CSC 216", "002");
+		t.dropEvent("Lunch");
+		t.addEvent("Lunch", "MWF", 1200, 1300, "");
+		assertEquals("002", t.getCourseAdds().get(0)[1]);
+		assertEquals("001", t.getCourseDrops().get(0)[1]);
+		assertEquals("Lunch", t.getEventDrops().get(0));
+		assertEquals(1200, t.getEventAdds().get(0).getStartTime());
+		
+		//Invalid events are rejected right away
+		Exception e = assertThrows(IllegalArgumentException.class, () -> t.addEvent("Lunch", "MWF", 1300, 1200, ""));
+		assertEquals("Invalid meeting days and times.", e.getMessage());
+		assertEquals(1, t.getEventAdds().size());
+	}
+
+}
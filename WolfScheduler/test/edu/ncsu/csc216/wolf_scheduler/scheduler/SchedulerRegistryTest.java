@@ -0,0 +1,223 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests SchedulerRegistry.
+ * @author hmreese2
+ */
+public class SchedulerRegistryTest {
+	
+	/** Catalog shared by the tests */
+	private final CourseCatalog catalog = new CourseCatalog("test-files/course_records.txt");
+
+	/**
+	 * Tests creating, finding, and removing sessions.
+	 */
+	@Test
+	public void testSessions() {
+		assertThrows(IllegalArgumentException.class, () -> new SchedulerRegistry(null));
+		SchedulerRegistry registry = new SchedulerRegistry(catalog);
+		assertSame(catalog, registry.getCatalog());
+		assertEquals(0, registry.getSessionCount());
+		Exception e = assertThrows(IllegalArgumentException.class, () -> registry.getSession(""));
+		assertEquals("Invalid student id.", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> registry.getSession(null));
+		
+		WolfScheduler alice = registry.getSession("aliceb");
+		WolfScheduler bob = registry.getSession("bobc");
+		assertSame(alice, registry.getSession("aliceb"));
+		assertNotSame(alice, bob);
+		assertSame(catalog, alice.getCatalog());
+		assertSame(catalog, bob.getCatalog());
+		assertEquals(2, registry.getSessionCount());
+		
+		//Schedules are separate
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		assertEquals(1, alice.getScheduledActivities().length);
+		assertEquals(0, bob.getScheduledActivities().length);
+		
+		assertTrue(registry.hasSession("aliceb"));
+		assertSame(alice, registry.removeSession("aliceb"));
+		assertFalse(registry.hasSession("aliceb"));
+		assertNull(registry.removeSession("aliceb"));
+		assertFalse(registry.hasSession(null));
+		assertEquals(1, registry.getSessionCount());
+	}
+	
+	/**
+	 * Tests many students changing their schedules at the same time, and many threads changing one schedule.
+	 * @throws Exception if a thread fails
+	 */
+	@Test
+	public void testConcurrentSessions() throws Exception {
+		SchedulerRegistry registry = new SchedulerRegistry(catalog);
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int t = 0; t < 16; t++) {
+			int thread = t;
+			futures.add(pool.submit(() -> {
+				for (int i = 0; i < 100; i++) {
+					WolfScheduler ws = registry.getSession("student" + (i + thread * 100) % 400);
+					synchronized (ws) {
+						ws.resetSchedule();
+						assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+						assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
+						assertEquals(2, ws.getScheduledActivities().length);
+					}
+				}
+				
+				//Each thread adds its own event to one shared schedule
+				registry.getSession("shared").addEventToSchedule("Event " + thread, "S", 100 + thread * 100, 130 + thread * 100, "");
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		
+		assertEquals(401, registry.getSessionCount());
+		assertEquals(16, registry.getSession("shared").getScheduledActivities().length);
+	}
+	
+	/**
+	 * Tests that 64 students taking and giving back seats in one popular section never lose an update or go over capacity.
+	 * @throws Exception if a thread fails
+	 */
+	@Test
+	public void testConcurrentSeats() throws Exception {
+		CourseCatalog shared = new CourseCatalog("test-files/course_records.txt").withCapacity("CSC 216", "001", 40);
+		Course popular = shared.getCourse("CSC 216", "001");
+		SchedulerRegistry registry = new SchedulerRegistry(shared);
+		
+		ExecutorService pool = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch looped = new CountDownLatch(64);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int t = 0; t < 64; t++) {
+			WolfScheduler ws = registry.getSession("student" + t);
+			futures.add(pool.submit(() -> {
+				start.await();
+				try {
+					for (int i = 0; i < 500; i++) {
+						try {
+							ws.addCourseToSchedule("CSC 216", "001");
+							assertTrue(popular.getEnrolled() <= 40);
+							assertTrue(ws.removeActivityFromSchedule(0));
+						} catch (IllegalArgumentException e) {
+							assertEquals("The course is full.", e.getMessage());
+						}
+					}
+				} finally {
+					looped.countDown();
+				}
+				
+				//Every seat is free again once all students finish looping, so exactly 40 final adds succeed
+				assertTrue(looped.await(10, TimeUnit.SECONDS));
+				ws.addCourseToSchedule("CSC 216", "001");
+				return null;
+			}));
+		}
+		start.countDown();
+		int enrolled = 0;
+		for (Future<?> f : futures) {
+			try {
+				f.get();
+				enrolled++;
+			} catch (ExecutionException e) {
+				assertEquals("The course is full.", e.getCause().getMessage());
+			}
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		
+		//Exactly the students holding a seat are counted, and no more than capacity
+		assertEquals(40, enrolled);
+		assertEquals(40, popular.getEnrolled());
+		
+		//Resetting every schedule gives back every seat
+		for (int t = 0; t < 64; t++) {
+			registry.getSession("student" + t).resetSchedule();
+		}
+		assertEquals(0, popular.getEnrolled());
+	}
+	
+	/**
+	 * Tests publishing new versions of the catalog while sessions use it and other threads read it.
+	 * @throws Exception if a reader fails
+	 */
+	@Test
+	public void testUpdateCatalog() throws Exception {
+		SchedulerRegistry registry = new SchedulerRegistry(new CourseCatalog("test-files/course_records.txt"));
+		WolfScheduler alice = registry.getSession("aliceb");
+		registry.updateCatalog(c -> c.withCapacity("CSC 216", "001", 1));
+		assertTrue(alice.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(alice.addCourseToSchedule("CSC 230", "001"));
+		
+		//Move CSC 216-001, which keeps its capacity and Alice's seat, and drop CSC 230
+		Course moved = new Course("CSC 216", "Software Development Fundamentals", "001", 3, "sesmith5", "TH", 1500, 1615);
+		CatalogDelta delta = registry.updateCatalog(c -> c.withCourse(moved).withoutCourse("CSC 230", "001"));
+		assertEquals(1, delta.getModified().size());
+		assertEquals(1, delta.getRemoved().size());
+		assertSame(registry.getCatalog(), alice.getCatalog());
+		assertEquals(1, alice.getScheduledActivities().length);
+		assertSame(moved, alice.getCourseFromCatalog("CSC 216", "001"));
+		assertTrue(moved.isReadOnly());
+		assertEquals(1, moved.getCapacity());
+		assertEquals(1, moved.getEnrolled());
+		assertEquals(1, alice.takeDroppedSections().length);
+		WolfScheduler bob = registry.getSession("bobc");
+		assertSame(registry.getCatalog(), bob.getCatalog());
+		Exception full = assertThrows(IllegalArgumentException.class, () -> bob.addCourseToSchedule("CSC 216", "001"));
+		assertEquals("The course is full.", full.getMessage());
+		Exception e = assertThrows(IllegalArgumentException.class, () -> registry.updateCatalog(c -> null));
+		assertEquals("Invalid catalog.", e.getMessage());
+		
+		//Readers always see a whole version while versions are published
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int t = 0; t < 8; t++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < 2000; i++) {
+					CourseCatalog version = registry.getCatalog();
+					for (Course c : version.getCourses()) {
+						assertSame(c, version.getCourse(c.getName(), c.getSection()));
+					}
+					int size = registry.getSession("reader" + i % 10).getCourseCatalog().length;
+					assertTrue(size == 12 || size == 13);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (int i = 0; i < 200; i++) {
+			Course added = new Course("CSC 333", "Automata and Computability", "001", 3, "jdoe", "A");
+			registry.updateCatalog(i % 2 == 0 ? c -> c.withCourse(added) : c -> c.withoutCourse("CSC 333", "001"));
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(12, registry.getCatalog().size());
+		for (int i = 0; i < 10; i++) {
+			assertSame(registry.getCatalog(), registry.getSession("reader" + i).getCatalog());
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package edu.ncsu.csc216.wolf_scheduler.scheduler;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import edu.ncsu.csc216.wolf_scheduler.course.Course;
+
+/**
+ * Tests WaitlistManager.
+ * @author hmreese2
+ */
+public class WaitlistManagerTest {
+	
+	/** Course name */
+	private static final String NAME = "CSC 216";
+	/** Course section */
+	private static final String SECTION = "001";
+
+	/**
+	 * Tests joining and leaving waitlists and promotion in waitlist order, with promotions run right away.
+	 */
+	@Test
+	public void testPromotion() {
+		assertThrows(IllegalArgumentException.class, () -> new WaitlistManager(null));
+		CourseCatalog catalog = new CourseCatalog("test-files/course_records.txt").withCapacity(NAME, SECTION, 1);
+		Course c = catalog.getCourse(NAME, SECTION);
+		WaitlistManager waitlists = new WaitlistManager(Runnable::run);
+		SchedulerRegistry registry = new SchedulerRegistry(catalog, waitlists);
+		assertSame(waitlists, registry.getWaitlists());
+		WolfScheduler first = registry.getSession("first");
+		WolfScheduler second = registry.getSession("second");
+		WolfScheduler third = registry.getSession("third");
+		WolfScheduler fourth = registry.getSession("fourth");
+		
+		//Full course puts students on the waitlist in order
+		assertTrue(first.addCourseToSchedule(NAME, SECTION));
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> second.addCourseToSchedule(NAME, SECTION));
+		assertEquals("The course is full. You are number 1 on the waitlist.", e1.getMessage());
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> third.addCourseToSchedule(NAME, SECTION));
+		assertEquals("The course is full. You are number 2 on the waitlist.", e2.getMessage());
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> second.addCourseToSchedule(NAME, SECTION));
+		assertEquals("You are already on the waitlist for CSC 216", e3.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> fourth.addCourseToSchedule(NAME, SECTION));
+		assertEquals(3, waitlists.getWaitlistSize(c));
+		assertTrue(second.isOnWaitlist(NAME, SECTION));
+		
+		//Fourth student leaves the waitlist
+		assertTrue(fourth.leaveWaitlist(NAME, SECTION));
+		assertFalse(fourth.leaveWaitlist(NAME, SECTION));
+		assertFalse(fourth.isOnWaitlist(NAME, SECTION));
+		assertEquals(2, waitlists.getWaitlistSize(c));
+		
+		//Dropping promotes the head of the waitlist
+		assertTrue(first.removeActivityFromSchedule(0));
+		assertEquals(1, second.getScheduledActivities().length);
+		assertFalse(second.isOnWaitlist(NAME, SECTION));
+		assertEquals(1, c.getEnrolled());
+		assertEquals(1, waitlists.getPromotionCount());
+		
+		//An open seat with students waiting goes to the waitlist, not to a new student
+		registry.updateCatalog(version -> version.withCapacity(NAME, SECTION, 2));
+		Exception e4 = assertThrows(IllegalArgumentException.class, () -> first.addCourseToSchedule(NAME, SECTION));
+		assertEquals("The course is full. You are number 2 on the waitlist.", e4.getMessage());
+		assertEquals(1, third.getScheduledActivities().length);
+		assertEquals(2, c.getEnrolled());
+		
+		//Students who no longer fit are skipped
+		fourth.addEventToSchedule("Work", "TH", 1300, 1400, "");
+		assertThrows(IllegalArgumentException.class, () -> fourth.addCourseToSchedule(NAME, SECTION));
+		third.resetSchedule();
+		assertEquals(1, first.getScheduledActivities().length);
+		assertTrue(second.removeActivityFromSchedule(0));
+		assertEquals(1, fourth.getScheduledActivities().length);
+		assertEquals(1, c.getEnrolled());
+		assertEquals(0, waitlists.getWaitlistSize(c));
+		assertEquals(3, waitlists.getPromotionCount());
+		assertEquals(3, waitlists.getMaxWaitlistSize());
+		assertTrue(waitlists.getAveragePromotionLatency() >= 0);
+		
+		//Sessions without waitlists reject full courses
+		registry.updateCatalog(version -> version.withCapacity(NAME, SECTION, 1));
+		CourseCatalog current = registry.getCatalog();
+		Exception e5 = assertThrows(IllegalArgumentException.class, () -> new WolfScheduler(current).addCourseToSchedule(NAME, SECTION));
+		assertEquals("The course is full.", e5.getMessage());
+		assertFalse(new WolfScheduler(current).leaveWaitlist(NAME, SECTION));
+	}
+	
+	/**
+	 * Tests that a promotion that runs after the catalog changed uses the section's current version, or tells the student
+	 * if the section is gone.
+	 */
+	@Test
+	public void testPromotionAfterCatalogChange() {
+		CourseCatalog catalog = new CourseCatalog("test-files/course_records.txt").withCapacity(NAME, SECTION, 1);
+		ArrayDeque<Runnable> pending = new ArrayDeque<Runnable>();
+		SchedulerRegistry registry = new SchedulerRegistry(catalog, new WaitlistManager(pending::add));
+		WolfScheduler first = registry.getSession("first");
+		WolfScheduler second = registry.getSession("second");
+		
+		//The section is replaced before the promotion runs; the new version carried the seats, so it is used
+		assertTrue(first.addCourseToSchedule(NAME, SECTION));
+		assertThrows(IllegalArgumentException.class, () -> second.addCourseToSchedule(NAME, SECTION));
+		assertTrue(first.removeActivityFromSchedule(0));
+		Course moved = new Course(NAME, "Software Development Fundamentals", SECTION, 3, "sesmith5", "TH", 1500, 1615);
+		registry.updateCatalog(c -> c.withCourse(moved));
+		while (!pending.isEmpty()) {
+			pending.poll().run();
+		}
+		assertSame(moved, second.getCourseFromCatalog(NAME, SECTION));
+		assertEquals(1, second.getScheduledActivities().length);
+		assertEquals(1500, second.getCourseFromCatalog(NAME, SECTION).getStartTime());
+		assertEquals(1, moved.getEnrolled());
+		
+		//The section is removed before the promotion runs; the student is taken off the waitlist and told
+		WolfScheduler third = registry.getSession("third");
+		assertThrows(IllegalArgumentException.class, () -> third.addCourseToSchedule(NAME, SECTION));
+		assertTrue(second.removeActivityFromSchedule(0));
+		registry.updateCatalog(c -> c.withoutCourse(NAME, SECTION));
+		while (!pending.isEmpty()) {
+			pending.poll().run();
+		}
+		assertEquals(0, third.getScheduledActivities().length);
+		String[][] dropped = third.takeDroppedSections();
+		assertEquals(1, dropped.length);
+		assertEquals(NAME, dropped[0][0]);
+		assertEquals(SECTION, dropped[0][1]);
+		assertEquals(0, registry.getWaitlists().getWaitlistSize(moved));
+	}
+	
+	/**
+	 * Tests that undoing a drop doesn't take an open seat ahead of the waitlist.
+	 */
+	@Test
+	public void testUndoWaitlisted() {
+		CourseCatalog catalog = new CourseCatalog("test-files/course_records.txt").withCapacity(NAME, SECTION, 1);
+		Course c = catalog.getCourse(NAME, SECTION);
+		ArrayDeque<Runnable> pending = new ArrayDeque<Runnable>();
+		SchedulerRegistry registry = new SchedulerRegistry(catalog, new WaitlistManager(pending::add));
+		WolfScheduler first = registry.getSession("first");
+		WolfScheduler second = registry.getSession("second");
+		
+		//First student's drop opens a seat, which stays open until the promotion runs
+		assertTrue(first.addCourseToSchedule(NAME, SECTION));
+		assertThrows(IllegalArgumentException.class, () -> second.addCourseToSchedule(NAME, SECTION));
+		assertTrue(first.removeActivityFromSchedule(0));
+		assertEquals(0, c.getEnrolled());
+		
+		//Undoing the drop can't take the seat the waitlist is owed
+		Exception e = assertThrows(IllegalArgumentException.class, () -> first.undo());
+		assertEquals("The course is full.", e.getMessage());
+		assertEquals(0, first.getScheduledActivities().length);
+		while (!pending.isEmpty()) {
+			pending.poll().run();
+		}
+		assertEquals(1, second.getScheduledActivities().length);
+		assertEquals(1, c.getEnrolled());
+	}
+	
+	/**
+	 * Tests that removing a session gives its seats to waiting students and takes it off its waitlists.
+	 */
+	@Test
+	public void testRemoveSession() {
+		CourseCatalog catalog = new CourseCatalog("test-files/course_records.txt").withCapacity(NAME, SECTION, 1)
+				.withCapacity("CSC 116", "001", 1);
+		Course c = catalog.getCourse(NAME, SECTION);
+		Course other = catalog.getCourse("CSC 116", "001");
+		SchedulerRegistry registry = new SchedulerRegistry(catalog, new WaitlistManager(Runnable::run));
+		WolfScheduler holder = registry.getSession("holder");
+		WolfScheduler waiter = registry.getSession("waiter");
+		assertTrue(holder.addCourseToSchedule(NAME, SECTION));
+		assertTrue(waiter.addCourseToSchedule("CSC 116", "001"));
+		assertThrows(IllegalArgumentException.class, () -> waiter.addCourseToSchedule(NAME, SECTION));
+		assertThrows(IllegalArgumentException.class, () -> holder.addCourseToSchedule("CSC 116", "001"));
+		assertTrue(holder.isOnWaitlist("CSC 116", "001"));
+		
+		//The waiting student gets the last seat, and the removed session no longer waits
+		assertSame(holder, registry.removeSession("holder"));
+		assertEquals(2, waiter.getScheduledActivities().length);
+		assertEquals(1, c.getEnrolled());
+		assertEquals(0, holder.getScheduledActivities().length);
+		assertFalse(holder.isOnWaitlist("CSC 116", "001"));
+		assertEquals(0, registry.getWaitlists().getWaitlistSize(other));
+		
+		//A seat opening in the section it waited on isn't given to the removed session
+		assertTrue(waiter.removeActivityFromSchedule(0));
+		assertEquals(0, other.getEnrolled());
+		assertEquals(0, holder.getScheduledActivities().length);
+	}
+	
+	/**
+	 * Tests promotion on a background executor while many students wait for one seat.
+	 * @throws Exception if the executor is interrupted
+	 */
+	@Test
+	public void testBackgroundPromotion() throws Exception {
+		CourseCatalog catalog = new CourseCatalog("test-files/course_records.txt").withCapacity(NAME, SECTION, 1);
+		Course c = catalog.getCourse(NAME, SECTION);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		WaitlistManager waitlists = new WaitlistManager(executor);
+		SchedulerRegistry registry = new SchedulerRegistry(catalog, waitlists);
+		
+		assertTrue(registry.getSession("holder").addCourseToSchedule(NAME, SECTION));
+		for (int i = 0; i < 16; i++) {
+			WolfScheduler ws = registry.getSession("student" + i);
+			assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule(NAME, SECTION));
+		}
+		assertEquals(16, waitlists.getWaitlistSize(c));
+		
+		assertTrue(registry.getSession("holder").removeActivityFromSchedule(0));
+		long deadline = System.currentTimeMillis() + 5000;
+		while (waitlists.getPromotionCount() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+		
+		//Only the head of the waitlist is promoted into the one seat
+		assertEquals(1, waitlists.getPromotionCount());
+		assertEquals(1, registry.getSession("student0").getScheduledActivities().length);
+		assertEquals(0, registry.getSession("student1").getScheduledActivities().length);
+		assertEquals(1, c.getEnrolled());
+		assertEquals(15, waitlists.getWaitlistSize(c));
+	}
+
+}
@@ -10,9 +10,14 @@ import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Scanner;
 
 import edu.ncsu.csc216.wolf_scheduler.course.Activity;
+import edu.ncsu.csc216.wolf_scheduler.io.CourseRecordIO;
+import edu.ncsu.csc216.wolf_scheduler.io.StoreRepository;
+import edu.ncsu.csc216.wolf_scheduler.io.TextFileRepository;
 import edu.ncsu.csc216.wolf_scheduler.course.Course;
 
 /**
@@ -87,7 +92,16 @@ public class WolfSchedulerTest {
 		
 		//Test with valid file containing 8 courses.  Will test other methods in other tests.
 		WolfScheduler ws2 = new WolfScheduler(validTestFile);
-		assertEquals(13, ws2.getCourseCatalog().length);		
+		assertEquals(13, ws2.getCourseCatalog().length);
+		
+		//Test loading the same file in parallel
+		WolfScheduler ws3 = new WolfScheduler(validTestFile, true);
+		assertEquals(13, ws3.getCourseCatalog().length);
+		assertArrayEquals(ws2.getCourseCatalog(), ws3.getCourseCatalog());
+		
+		//Test with a file that doesn't exist
+		Exception e = assertThrows(IllegalArgumentException.class, () -> new WolfScheduler("test-files/does_not_exist.txt", true));
+		assertEquals("Cannot find file.", e.getMessage());
 	}
 	
 	/**
@@ -170,6 +184,533 @@ public class WolfSchedulerTest {
 		}
 	}
 	
+	/**
+	 * Test that WolfScheduler rejects activities that conflict with the schedule.
+	 */
+	@Test
+	public void testAddConflictingActivities() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		
+		//CSC 116-002 meets MW 11:20AM-1:10PM
+		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
+		
+		//CSC 230-001 meets MW 11:45AM-1:00PM
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule("CSC 230", "001"));
+		assertEquals("The course cannot be added due to a conflict.", e1.getMessage());
+		
+		//Events that overlap, or touch the end time, conflict
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws.addEventToSchedule("Lunch", "MWF", 1200, 1300, "Food"));
+		assertEquals("The event cannot be added due to a conflict.", e2.getMessage());
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> ws.addEventToSchedule("Lunch", "W", 1310, 1330, "Food"));
+		assertEquals("The event cannot be added due to a conflict.", e3.getMessage());
+		assertEquals(1, ws.getScheduledActivities().length);
+		
+		//Different days or times don't conflict, nor do arranged courses
+		ws.addEventToSchedule("Lunch", "THF", 1200, 1300, "Food");
+		ws.addEventToSchedule("Coffee", "MW", 1311, 1320, "Caffeine");
+		assertTrue(ws.addCourseToSchedule("CSC 217", "601"));
+		assertTrue(ws.addCourseToSchedule("CSC 216", "002"));
+		assertEquals(5, ws.getScheduledActivities().length);
+		
+		//Removing an activity frees its time
+		assertTrue(ws.removeActivityFromSchedule(0));
+		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+		
+		//Resetting frees every time
+		ws.resetSchedule();
+		ws.addEventToSchedule("Lunch", "MTWHF", 1200, 1300, "Food");
+		assertEquals(1, ws.getScheduledActivities().length);
+	}
+	
+	/**
+	 * Test WolfScheduler.fitsSchedule().
+	 */
+	@Test
+	public void testFitsSchedule() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertFalse(ws.fitsSchedule("CSC 492", "001"));
+		assertTrue(ws.fitsSchedule("CSC 230", "001"));
+		
+		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
+		assertFalse(ws.fitsSchedule("CSC 116", "003"));
+		assertFalse(ws.fitsSchedule("CSC 230", "001"));
+		assertTrue(ws.fitsSchedule("CSC 217", "601"));
+		assertTrue(ws.fitsSchedule("CSC 216", "001"));
+		
+		ws.addEventToSchedule("Lab", "TH", 1330, 1340, "");
+		assertFalse(ws.fitsSchedule("CSC 216", "001"));
+		
+		assertTrue(ws.removeActivityFromSchedule(0));
+		assertTrue(ws.fitsSchedule("CSC 230", "001"));
+		assertTrue(ws.fitsSchedule("CSC 116", "003"));
+		
+		ws.resetSchedule();
+		assertTrue(ws.fitsSchedule("CSC 216", "001"));
+	}
+	
+	/**
+	 * Test WolfScheduler.getFittingCourses().
+	 */
+	@Test
+	public void testGetFittingCourses() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertArrayEquals(ws.getCourseCatalog(), ws.getFittingCourses());
+		assertArrayEquals(ws.getCourseCatalog(), ws.getFittingCourses(true));
+		
+		//CSC 216-001 meets TH 1:30PM-2:45PM, CSC 116-002 meets MW 11:20AM-1:10PM
+		assertTrue(ws.addCourseToSchedule("CSC 216", "001"));
+		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
+		String[][] fitting = ws.getFittingCourses();
+		assertEquals(5, fitting.length);
+		assertEquals("CSC 217", fitting[0][0]);
+		assertEquals("211", fitting[0][1]);
+		assertEquals("CSC 217", fitting[1][0]);
+		assertEquals("223", fitting[1][1]);
+		assertEquals("CSC 217", fitting[2][0]);
+		assertEquals("601", fitting[2][1]);
+		assertEquals("CSC 226", fitting[3][0]);
+		assertEquals("CSC 316", fitting[4][0]);
+		assertArrayEquals(fitting, ws.getFittingCourses(true));
+		
+		//Every remaining course could be added
+		for (String[] course : fitting) {
+			assertTrue(ws.fitsSchedule(course[0], course[1]));
+		}
+	}
+	
+	/**
+	 * Test WolfScheduler.generateSchedules().
+	 */
+	@Test
+	public void testGenerateSchedules() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		String[] courses = {"CSC 116", "CSC 216", "CSC 217", "CSC 116"};
+		assertEquals(30, ws.generateSchedules(courses, 100, 10000, ScheduleScorer.FEWEST_DAYS).size());
+		assertFalse(ws.wasGenerationCutShort());
+		
+		//Combinations fit around the schedule, which isn't changed
+		ws.addEventToSchedule(EVENT_TITLE, "MW", 900, 1130, EVENT_DETAILS);
+		ArrayList<ArrayList<Course>> results = ws.generateSchedules(courses, 100, 10000, ScheduleScorer.FEWEST_DAYS);
+		assertEquals(9, results.size());
+		assertEquals(3, results.get(0).size());
+		assertEquals("003", results.get(0).get(0).getSection());
+		assertEquals(1, ws.getScheduledActivities().length);
+		
+		//Unknown courses have no combinations
+		assertTrue(ws.generateSchedules(new String[] {"CSC 116", "CSC 999"}, 100, 10000, ScheduleScorer.FEWEST_DAYS).isEmpty());
+		
+		//Combinations must fit in the credits left
+		ws.setMaxCredits(6);
+		assertTrue(ws.generateSchedules(courses, 100, 10000, ScheduleScorer.FEWEST_DAYS).isEmpty());
+		ws.setMaxCredits(WolfScheduler.DEFAULT_MAX_CREDITS);
+		
+		//Enrolled courses are rejected
+		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class,
+				() -> ws.generateSchedules(new String[] {"CSC 230"}, 100, 10000, ScheduleScorer.FEWEST_DAYS));
+		assertEquals("You are already enrolled in CSC 230", e.getMessage());
+	}
+	
+	/**
+	 * Test that WolfScheduler.generateSchedules() reports a search cut short by its time limit.
+	 */
+	@Test
+	public void testGenerateSchedulesCutShort() {
+		//6 courses of 50 sections each have far too many combinations to search in 50 milliseconds
+		ArrayList<Course> courses = new ArrayList<Course>();
+		String[] names = new String[6];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = "CSC " + (100 + i);
+			for (int j = 0; j < 50; j++) {
+				courses.add(new Course(names[i], "Course", String.format("%03d", j + 1), 3, "sesmith5", "A"));
+			}
+		}
+		WolfScheduler ws = new WolfScheduler(new CourseCatalog(courses));
+		assertEquals(5, ws.generateSchedules(names, 5, 50, ScheduleScorer.FEWEST_DAYS).size());
+		assertTrue(ws.wasGenerationCutShort());
+		
+		//The flag follows the latest search
+		assertEquals(50, ws.generateSchedules(new String[] {"CSC 100"}, 100, 10000, ScheduleScorer.FEWEST_DAYS).size());
+		assertFalse(ws.wasGenerationCutShort());
+	}
+	
+	/**
+	 * Test WolfScheduler.getScheduledCredits() and the maximum credit load.
+	 */
+	@Test
+	public void testScheduledCredits() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertEquals(0, ws.getScheduledCredits());
+		assertEquals(WolfScheduler.DEFAULT_MAX_CREDITS, ws.getMaxCredits());
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> ws.setMaxCredits(0));
+		assertEquals("Invalid maximum credits.", e1.getMessage());
+		
+		//Credits follow adds, events, and removes
+		ws.setMaxCredits(7);
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		ws.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		assertTrue(ws.addCourseToSchedule("CSC 217", "223"));
+		assertEquals(4, ws.getScheduledCredits());
+		assertTrue(ws.removeActivityFromSchedule(1));
+		assertEquals(4, ws.getScheduledCredits());
+		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
+		assertEquals(7, ws.getScheduledCredits());
+		
+		//Schedule is at the maximum credit load
+		assertFalse(ws.fitsSchedule("CSC 226", "001"));
+		assertEquals(0, ws.getFittingCourses().length);
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws.addCourseToSchedule("CSC 226", "001"));
+		assertEquals("The course cannot be added because it exceeds the maximum credit load.", e2.getMessage());
+		assertEquals(3, ws.getScheduledActivities().length);
+		
+		//Lowering the maximum keeps the schedule
+		ws.setMaxCredits(3);
+		assertEquals(7, ws.getScheduledCredits());
+		assertTrue(ws.removeActivityFromSchedule(0));
+		assertEquals(4, ws.getScheduledCredits());
+		
+		ws.resetSchedule();
+		assertEquals(0, ws.getScheduledCredits());
+		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+		assertEquals(3, ws.getScheduledCredits());
+	}
+	
+	/**
+	 * Test that WolfScheduler takes and gives back seats in courses with a capacity.
+	 */
+	@Test
+	public void testCourseCapacity() {
+		CourseCatalog catalog = new CourseCatalog(validTestFile).withCapacity(NAME, SECTION, 1);
+		WolfScheduler ws1 = new WolfScheduler(catalog);
+		WolfScheduler ws2 = new WolfScheduler(catalog);
+		
+		assertTrue(ws1.addCourseToSchedule(NAME, SECTION));
+		assertFalse(ws2.fitsSchedule(NAME, SECTION));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws2.addCourseToSchedule(NAME, SECTION));
+		assertEquals("The course is full.", e.getMessage());
+		assertEquals(0, ws2.getScheduledActivities().length);
+		
+		//Removing and resetting give back the seat
+		assertTrue(ws1.removeActivityFromSchedule(0));
+		assertTrue(ws2.addCourseToSchedule(NAME, SECTION));
+		ws2.resetSchedule();
+		assertTrue(ws1.addCourseToSchedule(NAME, SECTION));
+		
+		//Rejected adds don't take a seat
+		assertEquals(1, catalog.getCourse(NAME, SECTION).getEnrolled());
+		assertThrows(IllegalArgumentException.class, () -> ws1.addCourseToSchedule(NAME, "002"));
+		assertEquals(0, catalog.getCourse(NAME, "002").getEnrolled());
+	}
+	
+	/**
+	 * Test WolfScheduler.applyTransaction().
+	 */
+	@Test
+	public void testApplyTransaction() {
+		WolfScheduler ws = new WolfScheduler(validTestFile);
+		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		ws.addEventToSchedule("Lunch", "MWF", 1315, 1325, "");
+		
+		//Swap CSC 216 sections and move lunch in one step
+		ScheduleTransaction swap = new ScheduleTransaction();
+		swap.dropCourse(NAME, SECTION);
+		swap.addCourse(NAME, "002");
+		swap.dropEvent("Lunch");
+		swap.addEvent("Lunch", "TH", 1200, 1300, "Moved");
+		ws.applyTransaction(swap);
+		String[][] schedule = ws.getScheduledActivities();
+		assertEquals(3, schedule.length);
+		assertEquals("CSC 116", schedule[0][0]);
+		assertEquals("002", schedule[1][1]);
+		assertEquals("Lunch", schedule[2][2]);
+		assertEquals(6, ws.getScheduledCredits());
+		
+		//A failed check leaves the schedule unchanged
+		ScheduleTransaction conflict = new ScheduleTransaction();
+		conflict.dropCourse("CSC 116", "002");
+		conflict.addCourse("CSC 226", "001");
+		conflict.addCourse("CSC 316", "001");
+		Exception e1 = assertThrows(IllegalArgumentException.class, () -> ws.applyTransaction(conflict));
+		assertEquals("The course cannot be added due to a conflict.", e1.getMessage());
+		assertArrayEquals(schedule, ws.getScheduledActivities());
+		
+		ScheduleTransaction missing = new ScheduleTransaction();
+		missing.addCourse("CSC 226", "001");
+		missing.dropCourse("CSC 116", "001");
+		Exception e2 = assertThrows(IllegalArgumentException.class, () -> ws.applyTransaction(missing));
+		assertEquals("CSC 116 is not in the schedule.", e2.getMessage());
+		
+		ScheduleTransaction duplicate = new ScheduleTransaction();
+		duplicate.addCourse("CSC 116", "003");
+		Exception e3 = assertThrows(IllegalArgumentException.class, () -> ws.applyTransaction(duplicate));
+		assertEquals("You are already enrolled in CSC 116", e3.getMessage());
+		
+		ScheduleTransaction event = new ScheduleTransaction();
+		event.addEvent("Lunch", "U", 1200, 1300, "");
+		Exception e4 = assertThrows(IllegalArgumentException.class, () -> ws.applyTransaction(event));
+		assertEquals("You have already created an event called Lunch", e4.getMessage());
+		event.dropEvent("Dinner");
+		Exception e5 = assertThrows(IllegalArgumentException.class, () -> ws.applyTransaction(event));
+		assertEquals("Dinner is not in the schedule.", e5.getMessage());
+		
+		ScheduleTransaction credits = new ScheduleTransaction();
+		credits.addCourse("CSC 226", "001");
+		ws.setMaxCredits(8);
+		Exception e6 = assertThrows(IllegalArgumentException.class, () -> ws.applyTransaction(credits));
+		assertEquals("The course cannot be added because it exceeds the maximum credit load.", e6.getMessage());
+		
+		ScheduleTransaction unknown = new ScheduleTransaction();
+		unknown.addCourse("CSC 999", "001");
+		Exception e7 = assertThrows(IllegalArgumentException.class, () -> ws.applyTransaction(unknown));
+		assertEquals("Course doesn't exist.", e7.getMessage());
+		assertArrayEquals(schedule, ws.getScheduledActivities());
+		
+		//Full courses give back seats taken earlier in the transaction
+		WolfScheduler other = new WolfScheduler(ws.getCatalog().withCapacity("CSC 316", "001", 0));
+		ScheduleTransaction full = new ScheduleTransaction();
+		full.addCourse("CSC 217", "223");
+		full.addCourse("CSC 316", "001");
+		Exception e8 = assertThrows(IllegalArgumentException.class, () -> other.applyTransaction(full));
+		assertEquals("The course is full.", e8.getMessage());
+		assertEquals(0, ws.getCourseFromCatalog("CSC 217", "223").getEnrolled());
+		assertEquals(0, other.getScheduledActivities().length);
+	}
+	
+	/**
+	 * Test WolfScheduler.undo() and WolfScheduler.redo().
+	 */
+	@Test
+	public void testUndoRedo() {
+		WolfScheduler ws = new WolfScheduler(new CourseCatalog(validTestFile).withCapacity("CSC 226", "001", 1));
+		assertFalse(ws.canUndo());
+		assertFalse(ws.undo());
+		assertFalse(ws.redo());
+		
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+		ws.addEventToSchedule(EVENT_TITLE, "U", EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		assertTrue(ws.removeActivityFromSchedule(0));
+		ws.setScheduleTitle("Fall");
+		String[][] full = ws.getScheduledActivities();
+		
+		//Undo the title change, then the removal puts CSC 216 back where it was
+		assertTrue(ws.undo());
+		assertEquals("My Schedule", ws.getScheduleTitle());
+		assertTrue(ws.undo());
+		assertEquals(3, ws.getScheduledActivities().length);
+		assertEquals(NAME, ws.getScheduledActivities()[0][0]);
+		assertEquals(6, ws.getScheduledCredits());
+		assertFalse(ws.fitsSchedule(NAME, "002"));
+		
+		//Redo both
+		assertTrue(ws.canRedo());
+		assertTrue(ws.redo());
+		assertTrue(ws.redo());
+		assertFalse(ws.redo());
+		assertArrayEquals(full, ws.getScheduledActivities());
+		assertEquals("Fall", ws.getScheduleTitle());
+		
+		//Undoing a reset brings back the whole schedule; a new change clears the redo history
+		ws.resetSchedule();
+		assertEquals(0, ws.getScheduledCredits());
+		assertTrue(ws.undo());
+		assertArrayEquals(full, ws.getScheduledActivities());
+		assertEquals(3, ws.getScheduledCredits());
+		assertTrue(ws.canRedo());
+		ws.setScheduleTitle("Spring");
+		assertFalse(ws.canRedo());
+		
+		//An import is undone as one change
+		ws.importSchedule("test-files/schedule_import.txt");
+		assertTrue(ws.undo());
+		assertArrayEquals(full, ws.getScheduledActivities());
+		
+		//A transaction is undone as one change
+		ScheduleTransaction swap = new ScheduleTransaction();
+		swap.dropCourse("CSC 226", "001");
+		swap.addCourse(NAME, "002");
+		ws.applyTransaction(swap);
+		assertTrue(ws.undo());
+		assertArrayEquals(full, ws.getScheduledActivities());
+		assertTrue(ws.redo());
+		assertEquals("002", ws.getScheduledActivities()[1][1]);
+		
+		//Courses that are put back need an open seat
+		assertTrue(ws.undo());
+		assertTrue(ws.removeActivityFromSchedule(0));
+		WolfScheduler other = new WolfScheduler(ws.getCatalog());
+		assertTrue(other.addCourseToSchedule("CSC 226", "001"));
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws.undo());
+		assertEquals("The course is full.", e.getMessage());
+		assertEquals(1, ws.getScheduledActivities().length);
+		assertTrue(other.removeActivityFromSchedule(0));
+		assertTrue(ws.undo());
+		assertArrayEquals(full, ws.getScheduledActivities());
+		assertEquals(1, ws.getCourseFromCatalog("CSC 226", "001").getEnrolled());
+		
+		//Courses that are put back must fit in the maximum credit load
+		assertTrue(ws.redo());
+		ws.setMaxCredits(2);
+		Exception credits = assertThrows(IllegalArgumentException.class, () -> ws.undo());
+		assertEquals("The course cannot be added because it exceeds the maximum credit load.", credits.getMessage());
+		assertEquals(1, ws.getScheduledActivities().length);
+		assertEquals(0, ws.getScheduledCredits());
+		assertEquals(0, ws.getCourseFromCatalog("CSC 226", "001").getEnrolled());
+		ws.setMaxCredits(WolfScheduler.DEFAULT_MAX_CREDITS);
+		assertTrue(ws.undo());
+		assertArrayEquals(full, ws.getScheduledActivities());
+		
+		//Only the most recent changes are kept
+		for (int i = 0; i < WolfScheduler.MAX_HISTORY + 10; i++) {
+			ws.setScheduleTitle("Title " + i);
+		}
+		int undone = 0;
+		while (ws.undo()) {
+			undone++;
+		}
+		assertEquals(WolfScheduler.MAX_HISTORY, undone);
+		assertEquals("Title 9", ws.getScheduleTitle());
+	}
+	
+	/**
+	 * Test WolfScheduler.openJournal() rebuilding a schedule after the program stops.
+	 * @throws IOException if the journal can't be deleted
+	 */
+	@Test
+	public void testOpenJournal() throws IOException {
+		String journalFile = "test-files/actual_schedule_journal.txt";
+		Files.deleteIfExists(FileSystems.getDefault().getPath(journalFile));
+		CourseCatalog catalog = new CourseCatalog(validTestFile);
+		WolfScheduler ws = new WolfScheduler(catalog);
+		assertEquals(0, ws.openJournal(journalFile));
+		
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+		ws.addEventToSchedule(EVENT_TITLE, "U", EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		assertTrue(ws.removeActivityFromSchedule(1));
+		ws.setScheduleTitle("Fall");
+		ws.resetSchedule();
+		assertTrue(ws.undo());
+		ScheduleTransaction swap = new ScheduleTransaction();
+		swap.dropCourse(NAME, SECTION);
+		swap.addCourse(NAME, "002");
+		ws.applyTransaction(swap);
+		ws.commitJournal();
+		String[][] expected = ws.getFullScheduledActivities();
+		
+		//A new WolfScheduler rebuilds the schedule from the journal and takes the seats again
+		ws.closeJournal();
+		ws.resetSchedule();
+		WolfScheduler recovered = new WolfScheduler(catalog);
+		assertEquals(2, recovered.openJournal(journalFile));
+		assertArrayEquals(expected, recovered.getFullScheduledActivities());
+		assertEquals("Fall", recovered.getScheduleTitle());
+		assertSame(catalog.getCourse(NAME, "002"), recovered.getCourseFromCatalog(NAME, "002"));
+		assertEquals(1, catalog.getCourse(NAME, "002").getEnrolled());
+		assertFalse(recovered.canUndo());
+		
+		//Changes keep going to the journal, which is compacted as it grows
+		for (int i = 0; i < WolfScheduler.COMPACT_THRESHOLD; i++) {
+			recovered.setScheduleTitle("Title " + i);
+		}
+		recovered.closeJournal();
+		assertTrue(Files.readAllLines(FileSystems.getDefault().getPath(journalFile)).size() < 10);
+		WolfScheduler again = new WolfScheduler(validTestFile);
+		assertEquals(2, again.openJournal(journalFile));
+		assertEquals("Title " + (WolfScheduler.COMPACT_THRESHOLD - 1), again.getScheduleTitle());
+		again.closeJournal();
+		
+		//Courses that aren't in the catalog or have no open seat are left out
+		Course unknown = new Course("CSC 999", "Unknown", "001", 3, "jdoe", "F", 800, 850);
+		Files.write(FileSystems.getDefault().getPath(journalFile), ("ADD,0," + unknown + System.lineSeparator()).getBytes(),
+				StandardOpenOption.APPEND);
+		CourseCatalog limited = catalog.withCapacity(NAME, "002", 1);
+		WolfScheduler late = new WolfScheduler(limited);
+		assertEquals(1, late.openJournal(journalFile));
+		assertEquals(EVENT_TITLE, late.getScheduledActivities()[0][2]);
+		assertEquals(1, limited.getCourse(NAME, "002").getEnrolled());
+		late.closeJournal();
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> again.openJournal("no-such-dir/journal.txt"));
+		assertEquals("Cannot find file.", e.getMessage());
+	}
+	
+	/**
+	 * Test that a catalog change finishes moving the schedule when the journal can't be written.
+	 * @throws IOException if the journal can't be created or deleted
+	 */
+	@Test
+	public void testJournalFailureOnCatalogChange() throws IOException {
+		Path dir = FileSystems.getDefault().getPath("test-files/actual_journal_dir");
+		Path journalFile = dir.resolve("journal.txt");
+		Files.createDirectories(dir);
+		Files.deleteIfExists(journalFile);
+		SchedulerRegistry registry = new SchedulerRegistry(new CourseCatalog(validTestFile));
+		WolfScheduler ws = registry.getSession("aliceb");
+		assertEquals(0, ws.openJournal(journalFile.toString()));
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
+		
+		//The snapshot of the moved schedule can't be written once the directory is gone
+		Files.delete(journalFile);
+		Files.delete(dir);
+		registry.updateCatalog(c -> c.withoutCourse("CSC 226", "001"));
+		assertSame(registry.getCatalog(), ws.getCatalog());
+		assertEquals(1, ws.getScheduledActivities().length);
+		assertEquals(1, ws.takeDroppedSections().length);
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws.commitJournal());
+		assertEquals("The file cannot be saved.", e.getMessage());
+		
+		//Later changes are made without the journal, and closing reports the failure once
+		assertTrue(ws.removeActivityFromSchedule(0));
+		assertEquals(0, registry.getCatalog().getCourse(NAME, SECTION).getEnrolled());
+		e = assertThrows(IllegalArgumentException.class, () -> ws.closeJournal());
+		assertEquals("The file cannot be saved.", e.getMessage());
+		ws.closeJournal();
+		ws.commitJournal();
+	}
+	
+	/**
+	 * Test WolfScheduler with a ScheduleRepository.
+	 * @throws IOException if the store can't be written
+	 */
+	@Test
+	public void testRepository() throws IOException {
+		String storeFile = "test-files/actual_scheduler_store.bin";
+		Files.deleteIfExists(FileSystems.getDefault().getPath(storeFile));
+		try (StoreRepository repository = new StoreRepository(storeFile)) {
+			repository.saveCatalog(CourseRecordIO.readCourseRecords(validTestFile));
+			WolfScheduler ws = new WolfScheduler(repository);
+			assertEquals(13, ws.getCatalog().size());
+			assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+			ws.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+			ws.setScheduleTitle("Fall, 2026");
+			ws.saveSchedule(repository, "jsmith");
+			String[][] expected = ws.getFullScheduledActivities();
+			
+			//Loading restores the catalog's courses and the title, and can be undone as one change
+			WolfScheduler other = new WolfScheduler(repository);
+			assertTrue(other.addCourseToSchedule("CSC 226", "001"));
+			assertEquals(2, other.loadSchedule(repository, "jsmith"));
+			assertArrayEquals(expected, other.getFullScheduledActivities());
+			assertEquals("Fall, 2026", other.getScheduleTitle());
+			assertSame(other.getCourseFromCatalog(NAME, SECTION), other.getCatalog().getCourse(NAME, SECTION));
+			assertTrue(other.undo());
+			assertEquals(1, other.getScheduledActivities().length);
+			assertEquals("My Schedule", other.getScheduleTitle());
+			
+			Exception e = assertThrows(IllegalArgumentException.class, () -> other.loadSchedule(repository, "nobody"));
+			assertEquals("Cannot find file.", e.getMessage());
+			e = assertThrows(IllegalArgumentException.class, () -> other.saveSchedule(repository, "no body"));
+			assertEquals("Invalid student id.", e.getMessage());
+		}
+		
+		Exception e = assertThrows(IllegalArgumentException.class, 
+				() -> new WolfScheduler(new TextFileRepository(invalidTestFile + ".missing", "test-files")));
+		assertEquals("Cannot find file.", e.getMessage());
+	}
+	
 	/**
 	 * Test WolfScheduler.removeCourse().
 	 */
@@ -218,6 +759,10 @@ public class WolfSchedulerTest {
 		assertTrue(ws.addCourseToSchedule("CSC 230", "001"));
 		assertEquals(1, ws.getScheduledActivities().length);
 		assertEquals(1, ws.getFullScheduledActivities().length);
+		
+		//Check that a removed course can be added again in a different section
+		assertTrue(ws.addCourseToSchedule(NAME, "002"));
+		assertEquals(2, ws.getScheduledActivities().length);
 	}
 	
 	/**
@@ -244,6 +789,27 @@ public class WolfSchedulerTest {
 		assertEquals(1, ws.getFullScheduledActivities().length);
 	}
 	
+	/**
+	 * Tests WolfScheduler() with a shared CourseCatalog.
+	 */
+	@Test
+	public void testWolfSchedulerSharedCatalog() {
+		CourseCatalog catalog = new CourseCatalog(validTestFile);
+		WolfScheduler ws1 = new WolfScheduler(catalog);
+		WolfScheduler ws2 = new WolfScheduler(catalog);
+		assertSame(catalog, ws1.getCatalog());
+		assertArrayEquals(new WolfScheduler(validTestFile).getCourseCatalog(), ws1.getCourseCatalog());
+		assertSame(ws1.getCourseFromCatalog(NAME, SECTION), ws2.getCourseFromCatalog(NAME, SECTION));
+		
+		//Each WolfScheduler has its own schedule
+		assertTrue(ws1.addCourseToSchedule(NAME, SECTION));
+		assertTrue(ws2.fitsSchedule(NAME, SECTION));
+		assertEquals(0, ws2.getScheduledActivities().length);
+		
+		Exception e = assertThrows(IllegalArgumentException.class, () -> new WolfScheduler((CourseCatalog) null));
+		assertEquals("Invalid catalog.", e.getMessage());
+	}
+	
 	/**
 	 * Test WolfScheduler.getCourseCatalog().
 	 */
@@ -319,7 +885,7 @@ public class WolfSchedulerTest {
 		//Name, section, title
 		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
 		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
-		ws.addEventToSchedule("Lunch", "MWF", 1200, 1300, "Food");
+		ws.addEventToSchedule("Lunch", "MWF", 1330, 1430, "Food");
 		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
 		
 		String [][] schedule = ws.getScheduledActivities();
@@ -337,7 +903,7 @@ public class WolfSchedulerTest {
 		assertEquals("", schedule[2][0]);
 		assertEquals("", schedule[2][1]);
 		assertEquals("Lunch", schedule[2][2]);
-		assertEquals("MWF 12:00PM-1:00PM", schedule[2][3]);
+		assertEquals("MWF 1:30PM-2:30PM", schedule[2][3]);
 		//Row 3
 		assertEquals("CSC 116", schedule[3][0]);
 		assertEquals("002", schedule[3][1]);
@@ -356,7 +922,7 @@ public class WolfSchedulerTest {
 		//Name, section, title, credits, instructor id, meeting string
 		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
 		assertTrue(ws.addCourseToSchedule("CSC 226", "001"));
-		ws.addEventToSchedule("Lunch", "MWF", 1200, 1300, "Food");
+		ws.addEventToSchedule("Lunch", "MWF", 1330, 1430, "Food");
 		assertTrue(ws.addCourseToSchedule("CSC 116", "002"));
 		
 		String [][] schedule = ws.getFullScheduledActivities();
@@ -382,7 +948,7 @@ public class WolfSchedulerTest {
 		assertEquals("Lunch", schedule[2][2]);
 		assertEquals("", schedule[2][3]);
 		assertEquals("", schedule[2][4]);
-		assertEquals("MWF 12:00PM-1:00PM", schedule[2][5]);
+		assertEquals("MWF 1:30PM-2:30PM", schedule[2][5]);
 		assertEquals("Food", schedule[2][6]);
 		//Row 3
 		assertEquals("CSC 116", schedule[3][0]);
@@ -413,6 +979,37 @@ public class WolfSchedulerTest {
 		} catch (IllegalArgumentException e) {
 			assertEquals("New Title", ws.getScheduleTitle());
 		}
+		
+		//Line breaks would split the title's line in saved schedules and journals
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws.setScheduleTitle("Fall\n#SCHEDULE,0,Spring"));
+		assertEquals("Title cannot contain line breaks.", e.getMessage());
+		assertThrows(IllegalArgumentException.class, () -> ws.setScheduleTitle("Fall\r"));
+		assertEquals("New Title", ws.getScheduleTitle());
+	}
+	
+	/**
+	 * Test that titles with commas and header text are written to a journal and read back whole.
+	 * @throws IOException if the journal can't be deleted
+	 */
+	@Test
+	public void testScheduleTitleRoundTrip() throws IOException {
+		String journalFile = "test-files/actual_schedule_journal.txt";
+		Files.deleteIfExists(FileSystems.getDefault().getPath(journalFile));
+		CourseCatalog catalog = new CourseCatalog(validTestFile);
+		String title = "Fall, 2026 #SCHEDULE,1,Spring";
+		WolfScheduler ws = new WolfScheduler(catalog);
+		ws.openJournal(journalFile);
+		assertTrue(ws.addCourseToSchedule(NAME, SECTION));
+		ws.setScheduleTitle(title);
+		ws.closeJournal();
+		
+		//Read back from the logged change, then from the snapshot openJournal() compacts it into
+		for (int i = 0; i < 2; i++) {
+			WolfScheduler recovered = new WolfScheduler(catalog);
+			assertEquals(1, recovered.openJournal(journalFile));
+			assertEquals(title, recovered.getScheduleTitle());
+			recovered.closeJournal();
+		}
 	}
 	
 	/**
@@ -431,6 +1028,72 @@ public class WolfSchedulerTest {
 		assertEquals(2, ws.getScheduledActivities().length);
 		ws.exportSchedule("test-files/actual_schedule_export.txt");
 		checkFiles("test-files/expected_schedule_export.txt", "test-files/actual_schedule_export.txt");
+		
+		//Test that the atomic export writes the same file
+		ws.exportSchedule("test-files/actual_schedule_export.txt", true);
+		checkFiles("test-files/expected_schedule_export.txt", "test-files/actual_schedule_export.txt");
+		
+		Exception e = assertThrows(IllegalArgumentException.class, 
+				() -> ws.exportSchedule("test-files/no_such_directory/actual_schedule_export.txt", true));
+		assertEquals("The file cannot be saved.", e.getMessage());
+	}
+	
+	/**
+	 * Test WolfScheduler.importSchedule().
+	 */
+	@Test
+	public void testImportSchedule() {
+		//Round trip an exported schedule
+		WolfScheduler ws1 = new WolfScheduler(validTestFile);
+		ws1.addCourseToSchedule("CSC 216", "002");
+		ws1.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		ws1.addCourseToSchedule("CSC 217", "601");
+		ws1.exportSchedule("test-files/actual_schedule_export.txt");
+		
+		WolfScheduler ws2 = new WolfScheduler(validTestFile);
+		ws2.addCourseToSchedule("CSC 316", "001");
+		assertEquals(3, ws2.importSchedule("test-files/actual_schedule_export.txt"));
+		assertArrayEquals(ws1.getFullScheduledActivities(), ws2.getFullScheduledActivities());
+		
+		//Skip courses not in the catalog, duplicates, and invalid lines
+		assertEquals(3, ws2.importSchedule("test-files/schedule_import.txt"));
+		String[][] schedule = ws2.getScheduledActivities();
+		assertEquals("CSC 216", schedule[0][0]);
+		assertEquals("002", schedule[0][1]);
+		assertEquals("Lunch", schedule[1][2]);
+		assertEquals("MWF 12:00PM-1:00PM", schedule[1][3]);
+		assertEquals("CSC 226", schedule[2][0]);
+		
+		//A missing file leaves the schedule alone
+		Exception e = assertThrows(IllegalArgumentException.class, () -> ws2.importSchedule("test-files/does_not_exist.txt"));
+		assertEquals("Cannot find file.", e.getMessage());
+		assertEquals(3, ws2.getScheduledActivities().length);
+	}
+	
+	/**
+	 * Test WolfScheduler.exportSchedules().
+	 */
+	@Test
+	public void testExportSchedules() {
+		WolfScheduler ws1 = new WolfScheduler(validTestFile);
+		ws1.addCourseToSchedule("CSC 216", "002");
+		ws1.addCourseToSchedule("CSC 226", "001");
+		WolfScheduler ws2 = new WolfScheduler(validTestFile);
+		ws2.setScheduleTitle("Empty, for now");
+		WolfScheduler ws3 = new WolfScheduler(validTestFile);
+		ws3.setScheduleTitle("Fall Schedule");
+		ws3.addEventToSchedule(EVENT_TITLE, EVENT_MEETING_DAYS, EVENT_START_TIME, EVENT_END_TIME, EVENT_DETAILS);
+		
+		ArrayList<WolfScheduler> schedulers = new ArrayList<WolfScheduler>();
+		schedulers.add(ws1);
+		schedulers.add(ws2);
+		schedulers.add(ws3);
+		WolfScheduler.exportSchedules("test-files/actual_batch_export.txt", schedulers);
+		checkFiles("test-files/expected_batch_export.txt", "test-files/actual_batch_export.txt");
+		
+		Exception e = assertThrows(IllegalArgumentException.class, 
+				() -> WolfScheduler.exportSchedules("test-files/no_such_directory/actual_batch_export.txt", schedulers));
+		assertEquals("The file cannot be saved.", e.getMessage());
 	}
 	
 	/**